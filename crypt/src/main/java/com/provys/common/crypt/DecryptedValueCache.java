@@ -0,0 +1,138 @@
+package com.provys.common.crypt;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Bounded least-recently-used cache of decrypted values, keyed by IIS$ encrypted value. Plaintext
+ * is kept in character arrays that are overwritten when entry is evicted or cache is cleared, so
+ * decrypted credential does not linger in cache memory after it has been dropped. Cache with zero
+ * size is disabled and keeps no values at all.
+ */
+final class DecryptedValueCache {
+
+  private static final Logger LOG = LogManager.getLogger(DecryptedValueCache.class);
+
+  /**
+   * System property defining number of decrypted values kept in cache. Default is 0, meaning
+   * decrypted values are not cached.
+   */
+  static final String SIZE_PROPERTY = "provys.crypt.decrypted-cache-size";
+
+  private static int readSize() {
+    var property = System.getProperty(SIZE_PROPERTY);
+    if (property == null) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Integer.parseInt(property.trim()));
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid value of property {}: {}; decrypted value cache disabled", SIZE_PROPERTY,
+          property);
+      return 0;
+    }
+  }
+
+  /**
+   * Cache used by {@link DtEncryptedString}, sized according to property {@value SIZE_PROPERTY}.
+   */
+  static final DecryptedValueCache INSTANCE = new DecryptedValueCache(readSize());
+
+  private static void wipe(char[] value) {
+    Arrays.fill(value, '\0');
+  }
+
+  private final int maxSize;
+  private final Map<String, char[]> values;
+
+  /**
+   * Create cache with given capacity.
+   *
+   * @param maxSize is maximal number of decrypted values kept in cache; 0 disables cache
+   */
+  DecryptedValueCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.values = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, char[]> eldest) {
+        if (size() > DecryptedValueCache.this.maxSize) {
+          wipe(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Value of property maxSize.
+   *
+   * @return maximal number of values kept in cache
+   */
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Indicates if cache keeps any values.
+   *
+   * @return true if cache is enabled (has non-zero capacity), false otherwise
+   */
+  boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Retrieve decrypted value for given encrypted value.
+   *
+   * @param iisValue is encrypted value
+   * @return decrypted value, null if value is not present in cache
+   */
+  synchronized @Nullable String get(String iisValue) {
+    var value = values.get(iisValue);
+    return (value == null) ? null : new String(value);
+  }
+
+  /**
+   * Register decrypted value for given encrypted value. Least recently used entry is evicted and
+   * wiped if cache exceeds its capacity.
+   *
+   * @param iisValue is encrypted value
+   * @param value    is corresponding decrypted value
+   */
+  void put(String iisValue, String value) {
+    if (!isEnabled()) {
+      return;
+    }
+    var chars = value.toCharArray();
+    synchronized (this) {
+      var old = values.put(iisValue, chars);
+      if (old != null) {
+        wipe(old);
+      }
+    }
+  }
+
+  /**
+   * Number of values currently present in cache.
+   *
+   * @return number of cached values
+   */
+  synchronized int size() {
+    return values.size();
+  }
+
+  /**
+   * Wipe and remove all values from cache.
+   */
+  synchronized void clear() {
+    values.values().forEach(DecryptedValueCache::wipe);
+    values.clear();
+  }
+}
@@ -6,24 +6,32 @@ import com.google.errorprone.annotations.Immutable;
 import com.provys.common.exception.InternalException;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
+import java.security.GeneralSecurityException;
 import java.security.Key;
-import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
 import java.util.Base64;
-import javax.crypto.BadPaddingException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Immutable data type, corresponding to PROVYS's PASSWORD domain. Works with IIS$ encrypted
  * Strings, allows their encryption and decryption.
+ *
+ * <p>Values are equal if they hold the same plain value in the same format - legacy value is never
+ * equal to GCM value, even if both hold the same plain value.
  */
 @Immutable
 @SuppressWarnings("CyclicClassDependency") // dependency between class and its converter is ok
@@ -31,98 +39,228 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 @JsonDeserialize(converter = DtEncryptedStringFromStringConverter.class)
 public final class DtEncryptedString implements Serializable {
 
-  private static final Key IIS_KEY = new SecretKeySpec(DatatypeConverter.parseHexBinary(
+  /**
+   * Key of legacy IIS$ format; also used as default key of GCM format.
+   */
+  static final Key IIS_KEY = new SecretKeySpec(DatatypeConverter.parseHexBinary(
           "DEA682B7BAB78F443B438508AE58BC11C1182122DE5F01804ABE9C9494E018FF"),
       "AES");
   private static final AlgorithmParameterSpec IV_SPEC = new IvParameterSpec(
       DatatypeConverter.parseHexBinary("71A4A512BF922435D7F0C98DC9B42E4B"));
   private static final long serialVersionUID = 61808702334184564L;
+  private static final String TRANSFORMATION = "AES/CBC/NoPadding";
+  private static final IisCodecPool ENCRYPT_POOL = new IisCodecPool(
+      () -> new IisCodec(
+          IisCodecPool.createCipher(TRANSFORMATION, Cipher.ENCRYPT_MODE, IIS_KEY, IV_SPEC)),
+      IisCodecPool.DEFAULT_MAX_IDLE);
+  private static final IisCodecPool DECRYPT_POOL = new IisCodecPool(
+      () -> new IisCodec(
+          IisCodecPool.createCipher(TRANSFORMATION, Cipher.DECRYPT_MODE, IIS_KEY, IV_SPEC)),
+      IisCodecPool.DEFAULT_MAX_IDLE);
+  private static final IisCodecPool GCM_POOL = new IisCodecPool(
+      () -> new GcmCodec(GcmCodec.KEY_PROVIDER), IisCodecPool.DEFAULT_MAX_IDLE);
+  /**
+   * Format used for encryption when not specified explicitly.
+   */
+  private static final EncryptionFormat DEFAULT_FORMAT = EncryptionFormat.getConfigured();
+  /**
+   * Batches larger than this threshold are processed in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 4096;
+  /**
+   * Number of values processed by single task in parallel batch processing.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 1024;
+  /**
+   * Algorithm of keyed digest used as canonical form of GCM values.
+   */
+  private static final String DIGEST_ALGORITHM = "HmacSHA256";
+  /**
+   * Key of digest used as canonical form of GCM values. Key is random, generated for each run of
+   * application; canonical form is never persisted nor sent anywhere, it only needs to be stable
+   * within single run.
+   */
+  private static final Key DIGEST_KEY = createDigestKey();
 
   /**
    * Static factory method, producing instance of encrypted string. If string starts with IIS$, it
    * is considered encrypted and not modified. Otherwise, it is encrypted using IIS encryption
-   * algorithm compatible with server
+   * algorithm compatible with server, or using format specified by system property
+   * {@value EncryptionFormat#FORMAT_PROPERTY}
    *
    * @param value is supplied string value this encrypted value should be based on
    * @return encrypted wrapper of supplied value
    */
   public static DtEncryptedString valueOf(String value) {
-    return new DtEncryptedString(value);
+    return valueOf(value, DEFAULT_FORMAT);
   }
 
-  private final String iisValue;
+  /**
+   * Static factory method, producing instance of encrypted string. If string starts with IIS$, it
+   * is considered encrypted and not modified. Otherwise, it is encrypted using specified format.
+   *
+   * @param value  is supplied string value this encrypted value should be based on
+   * @param format is format used to encrypt plain value
+   * @return encrypted wrapper of supplied value
+   */
+  public static DtEncryptedString valueOf(String value, EncryptionFormat format) {
+    if (value.startsWith(IisCodec.PREFIX)) {
+      return new DtEncryptedString(value, false);
+    }
+    if (format == EncryptionFormat.GCM) {
+      return new DtEncryptedString(GCM_POOL.encrypt(value), false);
+    }
+    // value encrypted by this class in legacy format is already in canonical form
+    return new DtEncryptedString(ENCRYPT_POOL.encrypt(value), true);
+  }
 
-  private static Cipher getCipher() {
-    try {
-      return Cipher.getInstance("AES/CBC/NoPadding");
-    } catch (NoSuchAlgorithmException e) {
-      throw new InternalException("Algorithm AES/CBC/NoPadding not recognized by JDK", e);
-    } catch (NoSuchPaddingException e) {
-      throw new InternalException("Padding NoPadding not recognized by JDK", e);
+  /**
+   * Encrypt all supplied values. Equivalent to calling {@link #valueOf(String)} on each value, but
+   * single pooled codec (initialised cipher, Base64 encoder and scratch buffers) is used for whole
+   * batch. Batches larger than {@value PARALLEL_THRESHOLD} values are split to chunks processed in
+   * common fork-join pool, each chunk with its own codec.
+   *
+   * @param values are values to be encrypted; values starting with IIS$ are considered encrypted
+   *               and are not modified
+   * @return list of encrypted values, in order of supplied collection
+   */
+  public static List<DtEncryptedString> encryptAll(Collection<String> values) {
+    return encryptAll(values, DEFAULT_FORMAT);
+  }
+
+  /**
+   * Encrypt all supplied values using specified format. Equivalent to calling
+   * {@link #valueOf(String, EncryptionFormat)} on each value, but single pooled codec is used for
+   * whole batch (or for each chunk of large batch).
+   *
+   * @param values are values to be encrypted; values starting with IIS$ are considered encrypted
+   *               and are not modified
+   * @param format is format used to encrypt plain values
+   * @return list of encrypted values, in order of supplied collection
+   */
+  public static List<DtEncryptedString> encryptAll(Collection<String> values,
+      EncryptionFormat format) {
+    boolean legacy = (format == EncryptionFormat.LEGACY);
+    return processAll(values, legacy ? ENCRYPT_POOL : GCM_POOL,
+        (codec, value) -> value.startsWith(IisCodec.PREFIX)
+            ? new DtEncryptedString(value, false)
+            : new DtEncryptedString(codec.encrypt(value), legacy));
+  }
+
+  /**
+   * Decrypt all supplied values. Equivalent to calling {@link #getValue()} on each value, but single
+   * pooled codec (initialised cipher and scratch buffers) is used for whole batch. Batches larger
+   * than {@value PARALLEL_THRESHOLD} values are split to chunks processed in common fork-join pool,
+   * each chunk with its own codec. Values decrypted in batch are not registered in decrypted value
+   * cache.
+   *
+   * @param values are values to be decrypted
+   * @return list of decrypted values, in order of supplied collection
+   */
+  public static List<String> decryptAll(Collection<DtEncryptedString> values) {
+    return processAll(values, DECRYPT_POOL,
+        (codec, value) -> value.iisValue.startsWith(GcmCodec.PREFIX)
+            ? GCM_POOL.decrypt(value.iisValue)
+            : codec.decrypt(value.iisValue));
+  }
+
+  private static <T, R> List<R> processAll(Collection<? extends T> values, IisCodecPool pool,
+      BiFunction<EncryptionCodec, T, R> operation) {
+    @SuppressWarnings("unchecked")
+    var source = (T[]) values.toArray();
+    @SuppressWarnings("unchecked")
+    var result = (R[]) new Object[source.length];
+    if (source.length <= PARALLEL_THRESHOLD) {
+      processChunk(source, result, 0, source.length, pool, operation);
+    } else {
+      int chunks = (source.length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+      IntStream.range(0, chunks).parallel().forEach(chunk -> processChunk(source, result,
+          chunk * PARALLEL_CHUNK_SIZE,
+          Math.min(source.length, (chunk + 1) * PARALLEL_CHUNK_SIZE), pool, operation));
     }
+    return Collections.unmodifiableList(Arrays.asList(result));
   }
 
-  private static String encrypt(String value) {
-    if (value.startsWith("IIS$")) {
-      return value;
+  private static <T, R> void processChunk(T[] source, R[] result, int from, int to,
+      IisCodecPool pool, BiFunction<EncryptionCodec, T, R> operation) {
+    var codec = pool.acquire();
+    for (int i = from; i < to; i++) {
+      result[i] = operation.apply(codec, Objects.requireNonNull(source[i]));
     }
-    byte[] utf8Value = value.getBytes(StandardCharsets.UTF_8);
-    byte[] data = new byte[((utf8Value.length + 8 + 15) / 16 * 16)]; // round up to nearest 16
-    data[0] = 'I';
-    data[1] = 1;
-    System.arraycopy(utf8Value, 0, data, 8, utf8Value.length);
-    Cipher cipher = getCipher();
+    // codec is only returned to pool after successful operation, as its state is otherwise unknown
+    pool.release(codec);
+  }
+
+  /**
+   * Wipe all values from decrypted value cache. Cache is only used when enabled via system property
+   * {@code provys.crypt.decrypted-cache-size}; values are kept in character arrays that are
+   * overwritten when evicted or cleared.
+   */
+  public static void clearDecryptedCache() {
+    DecryptedValueCache.INSTANCE.clear();
+  }
+
+  private static Key createDigestKey() {
     try {
-      cipher.init(Cipher.ENCRYPT_MODE, IIS_KEY, IV_SPEC);
-    } catch (InvalidKeyException e) {
-      throw new InternalException("Key rejected", e);
-    } catch (InvalidAlgorithmParameterException e) {
-      throw new InternalException("Algorithm parameter rejected", e);
+      return KeyGenerator.getInstance(DIGEST_ALGORITHM).generateKey();
+    } catch (GeneralSecurityException e) {
+      throw new InternalException("Failed to generate key for " + DIGEST_ALGORITHM, e);
     }
+  }
+
+  /**
+   * Keyed digest of plain value, used as canonical form of GCM values. Unlike re-encryption in
+   * legacy format, it does not expose plain value protected by key provider to anybody who knows
+   * built-in legacy key.
+   *
+   * @param value is plain value
+   * @return Base64 encoded digest, prefixed by GCM prefix so it never equals legacy canonical form
+   */
+  private static String digest(String value) {
     try {
-      return "IIS$" + "00000000" +
-          Base64.getEncoder().encodeToString(cipher.doFinal(data));
-    } catch (IllegalBlockSizeException e) {
-      throw new InternalException("Illegal block size reported", e);
-    } catch (BadPaddingException e) {
-      throw new InternalException("Bad padding reported", e);
+      var mac = Mac.getInstance(DIGEST_ALGORITHM);
+      mac.init(DIGEST_KEY);
+      return GcmCodec.PREFIX + Base64.getEncoder()
+          .encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new InternalException("Failed to evaluate digest of encrypted value", e);
     }
   }
 
+  private final String iisValue;
+  /**
+   * Canonical form of this value, used for equality. Legacy encryption produced by this class is
+   * deterministic, but values received from other sources can contain salt, prefix or line breaks;
+   * canonical form of legacy value is obtained by decrypting such value and encrypting it again in
+   * legacy format. GCM format uses random nonce, canonical form of GCM value is keyed digest of
+   * its plain value. Lazily evaluated, benign race - at worst, evaluation is performed multiple
+   * times with the same result
+   */
+  @SuppressWarnings("Immutable") // lazily evaluated from immutable field
+  private transient volatile @MonotonicNonNull String canonicalValue;
+
   private static String decrypt(String iisValue) {
-    if (!iisValue.startsWith("IIS$")) {
-      throw new InternalException("Cannot decrypt supplied string - not IIS$ value");
-    }
-    byte[] rawValue = Base64.getDecoder().decode(
-        iisValue.substring(12)
-            .replace("\r\n", "")
-            .replace("\n", ""));
-    Cipher cipher = getCipher();
-    try {
-      cipher.init(Cipher.DECRYPT_MODE, IIS_KEY, IV_SPEC);
-    } catch (InvalidKeyException e) {
-      throw new InternalException("Key rejected", e);
-    } catch (InvalidAlgorithmParameterException e) {
-      throw new InternalException("Algorithm parameter rejected", e);
+    if (iisValue.startsWith(GcmCodec.PREFIX)) {
+      return GCM_POOL.decrypt(iisValue);
     }
-    byte[] decrypted;
-    try {
-      decrypted = cipher.doFinal(rawValue);
-    } catch (IllegalBlockSizeException e) {
-      throw new InternalException("Illegal block size reported", e);
-    } catch (BadPaddingException e) {
-      throw new InternalException("Bad padding reported", e);
-    }
-    // we use zero padded string encryption
-    int size = 8;
-    while ((size < decrypted.length) && (decrypted[size] != 0)) {
-      size++;
+    return DECRYPT_POOL.decrypt(iisValue);
+  }
+
+  private DtEncryptedString(String iisValue, boolean canonical) {
+    this.iisValue = iisValue;
+    if (canonical) {
+      this.canonicalValue = iisValue;
     }
-    return new String(decrypted, 8, size-8, StandardCharsets.UTF_8);
   }
 
-  private DtEncryptedString(String value) {
-    this.iisValue = encrypt(value);
+  private String getCanonicalValue() {
+    var result = canonicalValue;
+    if (result == null) {
+      result = iisValue.startsWith(GcmCodec.PREFIX) ? digest(getValue())
+          : ENCRYPT_POOL.encrypt(getValue());
+      canonicalValue = result;
+    }
+    return result;
   }
 
   /**
@@ -140,7 +278,16 @@ public final class DtEncryptedString implements Serializable {
    * @return decrypted value
    */
   public String getValue() {
-    return decrypt(iisValue);
+    var cache = DecryptedValueCache.INSTANCE;
+    if (!cache.isEnabled()) {
+      return decrypt(iisValue);
+    }
+    var result = cache.get(iisValue);
+    if (result == null) {
+      result = decrypt(iisValue);
+      cache.put(iisValue, result);
+    }
+    return result;
   }
 
   @Override
@@ -152,12 +299,13 @@ public final class DtEncryptedString implements Serializable {
       return false;
     }
     DtEncryptedString that = (DtEncryptedString) o;
-    return getValue().equals(that.getValue());
+    return iisValue.equals(that.iisValue)
+        || getCanonicalValue().equals(that.getCanonicalValue());
   }
 
   @Override
   public int hashCode() {
-    return getValue().hashCode();
+    return getCanonicalValue().hashCode();
   }
 
   @Override
@@ -0,0 +1,24 @@
+package com.provys.common.crypt;
+
+/**
+ * Codec producing and reading IIS$ encrypted strings in one particular format. Codecs keep cipher
+ * and scratch buffers, they are not thread safe and are pooled via {@link IisCodecPool}.
+ */
+interface EncryptionCodec {
+
+  /**
+   * Encrypt value. Value is expected to be plain (not starting with IIS$).
+   *
+   * @param value is value to be encrypted
+   * @return encrypted value, including IIS$ prefix
+   */
+  String encrypt(String value);
+
+  /**
+   * Decrypt IIS$ encrypted value.
+   *
+   * @param iisValue is encrypted value
+   * @return decrypted value
+   */
+  String decrypt(String iisValue);
+}
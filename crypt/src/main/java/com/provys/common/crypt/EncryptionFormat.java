@@ -0,0 +1,50 @@
+package com.provys.common.crypt;
+
+import java.util.Locale;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Format used when encrypting values to {@link DtEncryptedString}. Values in any format can be
+ * decrypted regardless of format selected for encryption.
+ */
+public enum EncryptionFormat {
+
+  /**
+   * Legacy IIS$ format, compatible with PROVYS server - AES in CBC mode with fixed key and
+   * initialisation vector, value zero padded to block size.
+   */
+  LEGACY,
+  /**
+   * Versioned IIS$#1 format - AES in GCM mode with random nonce and key supplied by
+   * {@link KeyProvider}. Encrypted value is authenticated, but it cannot be read by PROVYS server.
+   * Encryption in this format requires registered key provider.
+   */
+  GCM;
+
+  /**
+   * System property defining format used by {@link DtEncryptedString#valueOf(String)}. Default is
+   * {@link #LEGACY}.
+   */
+  public static final String FORMAT_PROPERTY = "provys.crypt.format";
+
+  private static final Logger LOG = LogManager.getLogger(EncryptionFormat.class);
+
+  /**
+   * Format configured using system property {@value FORMAT_PROPERTY}.
+   *
+   * @return configured format, {@link #LEGACY} if property is not set or is not valid
+   */
+  static EncryptionFormat getConfigured() {
+    var property = System.getProperty(FORMAT_PROPERTY);
+    if (property == null) {
+      return LEGACY;
+    }
+    try {
+      return valueOf(property.trim().toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid value of property {}: {}; legacy format used", FORMAT_PROPERTY, property);
+      return LEGACY;
+    }
+  }
+}
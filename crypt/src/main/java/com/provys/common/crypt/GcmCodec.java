@@ -0,0 +1,186 @@
+package com.provys.common.crypt;
+
+import com.provys.common.exception.InternalException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Encoder / decoder of versioned IIS$ encrypted strings, using AES in GCM mode. Encrypted value has
+ * format {@code IIS$#<version><key id>$<Base64 of nonce, ciphertext and tag>}; header (including
+ * key identifier) is authenticated as additional data. Nonce is never reused, thus the same value
+ * encrypted twice gives different results.
+ *
+ * <p>Cipher is initialised before each operation, as GCM does not allow nonce reuse; codec is not
+ * thread safe.
+ */
+final class GcmCodec implements EncryptionCodec {
+
+  private static final Logger LOG = LogManager.getLogger(GcmCodec.class);
+
+  /**
+   * Prefix of values in versioned format. Character '#' is not valid in legacy values, where
+   * prefix IIS$ is followed by salt and Base64 encoded data.
+   */
+  static final String PREFIX = IisCodec.PREFIX + '#';
+  /**
+   * Version of format, written after prefix.
+   */
+  private static final char VERSION = '1';
+  /**
+   * Length of prefix including version; key identifier starts after this prefix.
+   */
+  private static final int HEADER_PREFIX_LENGTH = PREFIX.length() + 1;
+  private static final char KEY_ID_TERMINATOR = '$';
+  private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.\\-]+");
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int NONCE_LENGTH = 12;
+  private static final int TAG_LENGTH = 16;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static KeyProvider loadKeyProvider() {
+    var iterator = ServiceLoader.load(KeyProvider.class).iterator();
+    if (!iterator.hasNext()) {
+      LOG.debug("No key provider registered, encryption in GCM format is not available");
+      return new IisKeyProvider();
+    }
+    var result = iterator.next();
+    if (iterator.hasNext()) {
+      LOG.warn("Multiple key providers registered, {} used", result.getClass().getName());
+    }
+    return result;
+  }
+
+  /**
+   * Key provider located using {@link ServiceLoader}. If no provider is registered, fallback
+   * provider is used; it refuses encryption and only decrypts values encrypted by built-in IIS key.
+   */
+  static final KeyProvider KEY_PROVIDER = loadKeyProvider();
+
+  private final KeyProvider keyProvider;
+  private final Cipher cipher;
+  private final Base64.Encoder encoder = Base64.getEncoder();
+  private final byte[] nonce = new byte[NONCE_LENGTH];
+  /**
+   * Number of nonces generated from current random nonce prefix.
+   */
+  private int nonceCounter = -1;
+  private byte[] input;
+  private byte[] output;
+
+  /**
+   * Create codec using given key provider.
+   *
+   * @param keyProvider is provider of keys used for encryption and decryption
+   */
+  GcmCodec(KeyProvider keyProvider) {
+    this.keyProvider = keyProvider;
+    this.cipher = IisCodecPool.createCipher(TRANSFORMATION, Cipher.ENCRYPT_MODE, null, null);
+    this.input = new byte[64];
+    this.output = new byte[64];
+  }
+
+  private void ensureCapacity(int length) {
+    if (input.length < length) {
+      var capacity = Math.max(length, 2 * input.length);
+      input = new byte[capacity];
+      output = new byte[capacity];
+    }
+  }
+
+  /**
+   * Generate next nonce. Nonce consists of 64-bit random prefix and 32-bit counter (deterministic
+   * construction per NIST SP 800-38D, section 8.2.1), avoiding call to {@link SecureRandom} for each
+   * encrypted value. New random prefix is generated when counter is exhausted.
+   */
+  private void nextNonce() {
+    if (nonceCounter == -1) {
+      RANDOM.nextBytes(nonce);
+    }
+    nonceCounter++;
+    nonce[8] = (byte) (nonceCounter >>> 24);
+    nonce[9] = (byte) (nonceCounter >>> 16);
+    nonce[10] = (byte) (nonceCounter >>> 8);
+    nonce[11] = (byte) nonceCounter;
+  }
+
+  private Key getKey(String keyId) {
+    var key = keyProvider.getKey(keyId);
+    if (key == null) {
+      throw new InternalException("Key " + keyId + " not available in key provider");
+    }
+    return key;
+  }
+
+  @Override
+  public String encrypt(String value) {
+    var keyId = keyProvider.getCurrentKeyId();
+    if (!KEY_ID_PATTERN.matcher(keyId).matches()) {
+      throw new InternalException("Invalid key identifier " + keyId + " returned by key provider");
+    }
+    var header = PREFIX + VERSION + keyId + KEY_ID_TERMINATOR;
+    byte[] utf8Value = value.getBytes(StandardCharsets.UTF_8);
+    ensureCapacity(NONCE_LENGTH + utf8Value.length + TAG_LENGTH);
+    nextNonce();
+    System.arraycopy(nonce, 0, output, 0, NONCE_LENGTH);
+    int length;
+    try {
+      cipher.init(Cipher.ENCRYPT_MODE, getKey(keyId), new GCMParameterSpec(8 * TAG_LENGTH, nonce));
+      cipher.updateAAD(header.getBytes(StandardCharsets.US_ASCII));
+      length = cipher.doFinal(utf8Value, 0, utf8Value.length, output, NONCE_LENGTH);
+    } catch (GeneralSecurityException e) {
+      throw new InternalException("Failed to encrypt value", e);
+    } finally {
+      Arrays.fill(utf8Value, (byte) 0);
+    }
+    var encoded = encoder.encode(ByteBuffer.wrap(output, 0, NONCE_LENGTH + length));
+    return header
+        + new String(encoded.array(), 0, encoded.remaining(), StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String decrypt(String iisValue) {
+    if (!iisValue.startsWith(PREFIX)) {
+      throw new InternalException("Cannot decrypt supplied string - not IIS$# value");
+    }
+    if ((iisValue.length() < HEADER_PREFIX_LENGTH)
+        || (iisValue.charAt(PREFIX.length()) != VERSION)) {
+      throw new InternalException("Unsupported version of IIS$# value");
+    }
+    int terminator = iisValue.indexOf(KEY_ID_TERMINATOR, HEADER_PREFIX_LENGTH);
+    if (terminator < 0) {
+      throw new InternalException("Key identifier not terminated in IIS$# value");
+    }
+    var key = getKey(iisValue.substring(HEADER_PREFIX_LENGTH, terminator));
+    ensureCapacity(IisCodec.maxDecodedLength(iisValue.length() - terminator - 1));
+    int length = IisCodec.decodeBase64(iisValue, terminator + 1, input);
+    if (length < NONCE_LENGTH + TAG_LENGTH) {
+      throw new InternalException("Invalid length of IIS$# value");
+    }
+    int decryptedLength;
+    try {
+      cipher.init(Cipher.DECRYPT_MODE, key,
+          new GCMParameterSpec(8 * TAG_LENGTH, input, 0, NONCE_LENGTH));
+      cipher.updateAAD(iisValue.substring(0, terminator + 1).getBytes(StandardCharsets.US_ASCII));
+      decryptedLength = cipher.doFinal(input, NONCE_LENGTH, length - NONCE_LENGTH, output, 0);
+    } catch (AEADBadTagException e) {
+      throw new InternalException("IIS$# value failed authentication", e);
+    } catch (GeneralSecurityException e) {
+      throw new InternalException("Failed to decrypt value", e);
+    }
+    var result = new String(output, 0, decryptedLength, StandardCharsets.UTF_8);
+    Arrays.fill(output, 0, decryptedLength, (byte) 0);
+    return result;
+  }
+}
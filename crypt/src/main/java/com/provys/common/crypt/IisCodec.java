@@ -0,0 +1,184 @@
+package com.provys.common.crypt;
+
+import com.provys.common.exception.InternalException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+
+/**
+ * Encoder / decoder of legacy IIS$ encrypted strings, bound to single initialised cipher. Keeps Base64
+ * encoder and scratch buffers that are grown as needed and reused between values; codecs are pooled
+ * and reused for individual values, as well as for processing batches of values. Codec is not
+ * thread safe and must only be used with cipher initialised in mode corresponding to operation
+ * performed.
+ */
+final class IisCodec implements EncryptionCodec {
+
+  /**
+   * Prefix of encrypted strings.
+   */
+  static final String PREFIX = "IIS$";
+  /**
+   * Prefix of encrypted strings produced by this codec, including (unused) salt placeholder.
+   */
+  private static final String ENCRYPTED_PREFIX = PREFIX + "00000000";
+  /**
+   * Length of prefix in encrypted strings; encrypted data start after this prefix.
+   */
+  private static final int PREFIX_LENGTH = ENCRYPTED_PREFIX.length();
+  /**
+   * Length of header in plain data; value starts after this header.
+   */
+  private static final int HEADER_LENGTH = 8;
+  private static final int BLOCK_SIZE = 16;
+
+  /**
+   * Values of Base64 characters, -1 for characters outside of Base64 alphabet.
+   */
+  private static final byte[] DECODE_TABLE = new byte[128];
+
+  static {
+    Arrays.fill(DECODE_TABLE, (byte) -1);
+    var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+    for (int i = 0; i < alphabet.length(); i++) {
+      DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+    }
+  }
+
+  private final Cipher cipher;
+  private final Base64.Encoder encoder = Base64.getEncoder();
+  private byte[] input;
+  private byte[] output;
+
+  /**
+   * Create codec using given cipher.
+   *
+   * @param cipher is initialised cipher, in encrypt mode for encryption, in decrypt mode for
+   *               decryption
+   */
+  IisCodec(Cipher cipher) {
+    this.cipher = cipher;
+    this.input = new byte[64];
+    this.output = new byte[64];
+  }
+
+  private void ensureCapacity(int length) {
+    if (input.length < length) {
+      var capacity = Math.max(length, 2 * input.length);
+      input = new byte[capacity];
+      output = new byte[capacity];
+    }
+  }
+
+  private int doFinal(int length) {
+    try {
+      return cipher.doFinal(input, 0, length, output, 0);
+    } catch (IllegalBlockSizeException e) {
+      throw new InternalException("Illegal block size reported", e);
+    } catch (BadPaddingException e) {
+      throw new InternalException("Bad padding reported", e);
+    } catch (ShortBufferException e) {
+      throw new InternalException("Short buffer reported", e);
+    }
+  }
+
+  @Override
+  public String encrypt(String value) {
+    byte[] utf8Value = value.getBytes(StandardCharsets.UTF_8);
+    // round up to nearest block
+    int length = (utf8Value.length + HEADER_LENGTH + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    ensureCapacity(length);
+    Arrays.fill(input, 0, length, (byte) 0);
+    input[0] = 'I';
+    input[1] = 1;
+    System.arraycopy(utf8Value, 0, input, HEADER_LENGTH, utf8Value.length);
+    int encryptedLength = doFinal(length);
+    Arrays.fill(input, 0, length, (byte) 0);
+    var encoded = encoder.encode(ByteBuffer.wrap(output, 0, encryptedLength));
+    return ENCRYPTED_PREFIX
+        + new String(encoded.array(), 0, encoded.remaining(), StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Maximal number of bytes encoded by given number of Base64 characters.
+   *
+   * @param characters is number of characters
+   * @return maximal length of decoded data
+   */
+  static int maxDecodedLength(int characters) {
+    return characters / 4 * 3 + 3;
+  }
+
+  /**
+   * Decode Base64 encoded part of IIS$ value directly to target buffer. Line breaks, inserted by
+   * server to longer values, are skipped without copying the value.
+   *
+   * @param iisValue is IIS$ encrypted value
+   * @param from     is position of first Base64 character in value
+   * @param target   is buffer decoded data are written to; it must be able to hold
+   *                 {@link #maxDecodedLength(int)} bytes
+   * @return number of decoded bytes
+   */
+  static int decodeBase64(String iisValue, int from, byte[] target) {
+    int length = iisValue.length();
+    int bits = 0;
+    int bitCount = 0;
+    int position = 0;
+    int padding = 0;
+    for (int i = from; i < length; i++) {
+      char character = iisValue.charAt(i);
+      if ((character == '\n') || (character == '\r')) {
+        continue;
+      }
+      if (character == '=') {
+        padding++;
+        continue;
+      }
+      int value = (character < DECODE_TABLE.length) ? DECODE_TABLE[character] : -1;
+      if ((value < 0) || (padding > 0)) {
+        throw new InternalException("Invalid character in IIS$ value at position " + i);
+      }
+      bits = (bits << 6) | value;
+      bitCount += 6;
+      if (bitCount >= 8) {
+        bitCount -= 8;
+        target[position++] = (byte) (bits >> bitCount);
+      }
+    }
+    // remaining bits (0, 2 or 4) are fill bits of last quantum; single character cannot encode byte
+    if ((bitCount == 6) || (padding > 2)) {
+      throw new InternalException("Invalid length of IIS$ value");
+    }
+    return position;
+  }
+
+  /**
+   * Decrypt IIS$ encrypted value. Value is decoded and decrypted using codec's buffers, the only
+   * allocated object is resulting String.
+   *
+   * @param iisValue is encrypted value
+   * @return decrypted value
+   */
+  @Override
+  public String decrypt(String iisValue) {
+    if (!iisValue.startsWith(PREFIX)) {
+      throw new InternalException("Cannot decrypt supplied string - not IIS$ value");
+    }
+    ensureCapacity(maxDecodedLength(iisValue.length() - PREFIX_LENGTH));
+    int length = doFinal(decodeBase64(iisValue, PREFIX_LENGTH, input));
+    // we use zero padded string encryption
+    int size = HEADER_LENGTH;
+    while ((size < length) && (output[size] != 0)) {
+      size++;
+    }
+    var result = new String(output, HEADER_LENGTH, size - HEADER_LENGTH, StandardCharsets.UTF_8);
+    Arrays.fill(input, 0, length, (byte) 0);
+    Arrays.fill(output, 0, length, (byte) 0);
+    return result;
+  }
+}
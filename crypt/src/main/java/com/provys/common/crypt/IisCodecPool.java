@@ -0,0 +1,128 @@
+package com.provys.common.crypt;
+
+import com.provys.common.exception.InternalException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.crypto.Cipher;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Lock-free pool of codecs. Obtaining cipher via {@link Cipher#getInstance(String)} involves
+ * provider lookup and synchronisation, and initialisation expands key; pool allows to pay this cost
+ * (and allocation of codec's scratch buffers) only once per pooled codec. Pool is not bound to
+ * threads, thus it works equally well with platform and virtual threads.
+ *
+ * <p>Codecs are only returned to pool after successful operation - for ciphers used with fixed key
+ * and parameters, {@link Cipher#doFinal} resets cipher to its initialised state, making it ready for
+ * next use.
+ */
+final class IisCodecPool {
+
+  /**
+   * Default maximal number of idle codecs kept in pool.
+   */
+  static final int DEFAULT_MAX_IDLE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Create cipher for given transformation and optionally initialise it.
+   *
+   * @param transformation is transformation cipher should implement
+   * @param mode           is cipher mode ({@link Cipher#ENCRYPT_MODE} or {@link
+   *                       Cipher#DECRYPT_MODE}), ignored if key is not specified
+   * @param key            is key cipher should be initialised with; null if cipher is initialised
+   *                       by codec before each operation
+   * @param parameterSpec  are algorithm parameters (IV) cipher is initialised with
+   * @return new cipher
+   */
+  static Cipher createCipher(String transformation, int mode, @Nullable Key key,
+      @Nullable AlgorithmParameterSpec parameterSpec) {
+    try {
+      var cipher = Cipher.getInstance(transformation);
+      if (key != null) {
+        cipher.init(mode, key, parameterSpec);
+      }
+      return cipher;
+    } catch (GeneralSecurityException e) {
+      throw new InternalException("Failed to initialise cipher " + transformation, e);
+    }
+  }
+
+  private final Supplier<? extends EncryptionCodec> factory;
+  private final int maxIdle;
+  private final Queue<EncryptionCodec> idle = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+
+  /**
+   * Create pool of codecs.
+   *
+   * @param factory is used to create new codec when no idle codec is available
+   * @param maxIdle is maximal number of idle codecs kept in pool; codecs returned to full pool are
+   *                discarded
+   */
+  IisCodecPool(Supplier<? extends EncryptionCodec> factory, int maxIdle) {
+    this.factory = factory;
+    this.maxIdle = maxIdle;
+  }
+
+  /**
+   * Retrieve codec from pool, creating new one if pool is empty. Codec should be returned using
+   * {@link #release(EncryptionCodec)} after use.
+   *
+   * @return codec
+   */
+  EncryptionCodec acquire() {
+    var codec = idle.poll();
+    if (codec == null) {
+      return factory.get();
+    }
+    idleCount.decrementAndGet();
+    return codec;
+  }
+
+  /**
+   * Return codec to pool. Last operation of codec must have been successfully finished - codec that
+   * failed should not be returned, as state of its cipher is unknown.
+   *
+   * @param codec is codec to be returned to pool
+   */
+  void release(EncryptionCodec codec) {
+    if (idleCount.incrementAndGet() <= maxIdle) {
+      idle.offer(codec);
+    } else {
+      idleCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * Encrypt value using pooled codec.
+   *
+   * @param value is plain value to be encrypted
+   * @return IIS$ encrypted value
+   */
+  String encrypt(String value) {
+    var codec = acquire();
+    var result = codec.encrypt(value);
+    // codec is only returned to pool after successful operation, as its state is otherwise unknown
+    release(codec);
+    return result;
+  }
+
+  /**
+   * Decrypt value using pooled codec.
+   *
+   * @param iisValue is IIS$ encrypted value
+   * @return decrypted value
+   */
+  String decrypt(String iisValue) {
+    var codec = acquire();
+    var result = codec.decrypt(iisValue);
+    // codec is only returned to pool after successful operation, as its state is otherwise unknown
+    release(codec);
+    return result;
+  }
+}
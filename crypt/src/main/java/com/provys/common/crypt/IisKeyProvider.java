@@ -0,0 +1,29 @@
+package com.provys.common.crypt;
+
+import com.provys.common.exception.InternalException;
+import java.security.Key;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Fallback key provider, used when no {@link KeyProvider} implementation is registered. Supplies
+ * single key - the same key that is used by legacy IIS$ format. As this key is public, provider
+ * only allows to read values encrypted by it; encryption of new values is refused.
+ */
+final class IisKeyProvider implements KeyProvider {
+
+  /**
+   * Identifier of built-in IIS key.
+   */
+  static final String KEY_ID = "iis";
+
+  @Override
+  public String getCurrentKeyId() {
+    throw new InternalException("Cannot encrypt value in GCM format - no key provider registered;"
+        + " register implementation of " + KeyProvider.class.getName() + " or use legacy format");
+  }
+
+  @Override
+  public @Nullable Key getKey(String keyId) {
+    return KEY_ID.equals(keyId) ? DtEncryptedString.IIS_KEY : null;
+  }
+}
@@ -0,0 +1,33 @@
+package com.provys.common.crypt;
+
+import java.security.Key;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Service provider interface supplying AES keys for versioned (AES-GCM) format of
+ * {@link DtEncryptedString}. Implementation is located using {@link java.util.ServiceLoader}; if no
+ * implementation is registered, encryption in versioned format fails and only values encrypted by
+ * built-in IIS key (key id {@code iis}) can be decrypted. Key identifier is written to encrypted
+ * value, making it possible to rotate keys while values encrypted by older keys remain readable.
+ *
+ * <p>Legacy IIS$ format is not affected by key provider, it always uses key and initialisation
+ * vector compatible with PROVYS server.
+ */
+public interface KeyProvider {
+
+  /**
+   * Identifier of key that should be used to encrypt new values. Identifier must be non-empty and
+   * can only contain letters, digits and characters '_', '-' and '.'.
+   *
+   * @return identifier of current key
+   */
+  String getCurrentKeyId();
+
+  /**
+   * Retrieve key with given identifier.
+   *
+   * @param keyId is identifier of key
+   * @return AES key with given identifier, null if provider does not know such key
+   */
+  @Nullable Key getKey(String keyId);
+}
@@ -4,14 +4,23 @@ import static org.assertj.core.api.Assertions.*;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.provys.common.exception.InternalException;
 import com.provys.common.jackson.JacksonMappers;
 import java.io.IOException;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 class DtEncryptedStringTest {
@@ -58,6 +67,7 @@ class DtEncryptedStringTest {
         , new Object[]{"IIS$HDhCzqeEm6bu0ga4WJujSS/vq3GqVyZFkQnQ4Bh7L4FSUb5SQZQYHnZ6+Ii78pv9sNU"
             + "602PP\r\nijlA0fsDrZw0szCVJx0GIg==",
             "RXOojslBSPgHczHpdduHtQiCggsGCWdwearfewtfrewftrweaq"}
+        , new Object[]{"IIS$BMom+CsNbRklWuoYWaVPTalWpj+Tug", "#/*+-&"}
     );
   }
 
@@ -68,6 +78,13 @@ class DtEncryptedStringTest {
     assertThat(result).isEqualTo(value);
   }
 
+  @Test
+  void getValueTestInvalid() {
+    assertThatThrownBy(() -> DtEncryptedString.valueOf("IIS$BMom+CsNbRkl!uoYWaVPTalWpj+Tug==")
+        .getValue())
+        .isInstanceOf(InternalException.class);
+  }
+
   static Stream<Object[]> equalsTest() {
     return Stream.of(
         new Object[]{"UIkjKfla,w"}
@@ -86,6 +103,186 @@ class DtEncryptedStringTest {
     assertThat(value1.equals(value2)).isTrue();
   }
 
+  @Test
+  void equalsTestDifferentEncoding() {
+    // the same value with and without line breaks in encoded form, and re-encrypted by this class
+    var value1 = DtEncryptedString.valueOf("IIS$HDhCzqeEm6bu0ga4WJujSS/vq3GqVyZFkQnQ4Bh7L4FSUb5SQZ"
+        + "QYHnZ6+Ii78pv9sNU602PP\nijlA0fsDrZw0szCVJx0GIg==");
+    var value2 = DtEncryptedString.valueOf("IIS$HDhCzqeEm6bu0ga4WJujSS/vq3GqVyZFkQnQ4Bh7L4FSUb5SQZ"
+        + "QYHnZ6+Ii78pv9sNU602PP\r\nijlA0fsDrZw0szCVJx0GIg==");
+    var value3 = DtEncryptedString.valueOf("RXOojslBSPgHczHpdduHtQiCggsGCWdwearfewtfrewftrweaq");
+    assertThat(value1).isEqualTo(value2).isEqualTo(value3).hasSameHashCodeAs(value3);
+    assertThat(value3).isEqualTo(value1);
+    assertThat(value1).isNotEqualTo(DtEncryptedString.valueOf("RXOojslBSPgHczHpdduHtQiCggsGCW"));
+  }
+
+  @Test
+  void encryptAllTest() {
+    var values = List.of("My first test", "",
+        "IIS$fc+avr25q15WIB7bONOcNItFlohr3GsFDJR3ERv1RDJBnCG1smA=", "$ewrklnt.z#&4gsfdvxyc vy");
+    var result = DtEncryptedString.encryptAll(values);
+    assertThat(result).containsExactlyElementsOf(
+        values.stream().map(DtEncryptedString::valueOf).collect(Collectors.toList()));
+    assertThat(result.get(2).getIisValue())
+        .isEqualTo("IIS$fc+avr25q15WIB7bONOcNItFlohr3GsFDJR3ERv1RDJBnCG1smA=");
+  }
+
+  @Test
+  void decryptAllTest() {
+    var values = List.of(
+        DtEncryptedString.valueOf("IIS$fc+avr25q15WIB7bONOcNItFlohr3GsFDJR3ERv1RDJBnCG1smA="),
+        DtEncryptedString.valueOf("IIS$HDhCzqeEm6bu0ga4WJujSS/vq3GqVyZFkQnQ4Bh7L4FSUb5SQZQYHnZ6+Ii78pv"
+            + "9sNU602PP\r\nijlA0fsDrZw0szCVJx0GIg=="),
+        DtEncryptedString.valueOf("One more test"));
+    assertThat(DtEncryptedString.decryptAll(values)).containsExactly("Some Random Test",
+        "RXOojslBSPgHczHpdduHtQiCggsGCWdwearfewtfrewftrweaq", "One more test");
+  }
+
+  @Test
+  void encryptAllTestParallel() {
+    // large batch is processed in parallel chunks, order must be preserved
+    var values = IntStream.range(0, 10000)
+        .mapToObj(i -> "Value " + i)
+        .collect(Collectors.toList());
+    var encrypted = DtEncryptedString.encryptAll(values);
+    assertThat(encrypted.get(5000)).isEqualTo(DtEncryptedString.valueOf("Value 5000"));
+    assertThat(DtEncryptedString.decryptAll(encrypted)).containsExactlyElementsOf(values);
+  }
+
+  @ParameterizedTest
+  @MethodSource("valueOfTest")
+  void valueOfTestGcm(String value) {
+    var result = DtEncryptedString.valueOf(value, EncryptionFormat.GCM);
+    assertThat(result.getIisValue()).startsWith("IIS$#1");
+    assertThat(result.getValue()).isEqualTo(value);
+    // nonce is not reused, but values are still equal
+    var other = DtEncryptedString.valueOf(value, EncryptionFormat.GCM);
+    assertThat(other.getIisValue()).isNotEqualTo(result.getIisValue());
+    assertThat(other).isEqualTo(result);
+    assertThat(other.hashCode()).isEqualTo(result.hashCode());
+    // GCM value is never equal to legacy value
+    assertThat(result).isNotEqualTo(DtEncryptedString.valueOf(value, EncryptionFormat.LEGACY));
+  }
+
+  @Test
+  void getValueTestGcmTampered() {
+    var iisValue = DtEncryptedString.valueOf("Some Random Test", EncryptionFormat.GCM)
+        .getIisValue();
+    var position = iisValue.length() - 5;
+    var tampered = iisValue.substring(0, position)
+        + ((iisValue.charAt(position) == 'A') ? 'B' : 'A') + iisValue.substring(position + 1);
+    assertThatThrownBy(() -> DtEncryptedString.valueOf(tampered).getValue())
+        .isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void valueOfTestGcmKeyId() {
+    assertThat(DtEncryptedString.valueOf("Some Random Test", EncryptionFormat.GCM).getIisValue())
+        .startsWith(GcmCodec.PREFIX + '1' + TestKeyProvider.CURRENT_KEY_ID + '$');
+  }
+
+  @Test
+  void getValueTestGcmOldKey() {
+    var oldKeyProvider = new KeyProvider() {
+      @Override
+      public String getCurrentKeyId() {
+        return TestKeyProvider.OLD_KEY_ID;
+      }
+
+      @Override
+      public @Nullable Key getKey(String keyId) {
+        return new TestKeyProvider().getKey(keyId);
+      }
+    };
+    var iisValue = new GcmCodec(oldKeyProvider).encrypt("Some Random Test");
+    var result = DtEncryptedString.valueOf(iisValue);
+    assertThat(result.getValue()).isEqualTo("Some Random Test");
+    // values encrypted by different keys are equal if they hold the same plain value
+    var current = DtEncryptedString.valueOf("Some Random Test", EncryptionFormat.GCM);
+    assertThat(result).isEqualTo(current);
+    assertThat(result.hashCode()).isEqualTo(current.hashCode());
+    assertThat(result)
+        .isNotEqualTo(DtEncryptedString.valueOf("Other Random Test", EncryptionFormat.GCM));
+  }
+
+  @Test
+  void encryptTestGcmNoKeyProvider() {
+    var codec = new GcmCodec(new IisKeyProvider());
+    assertThatThrownBy(() -> codec.encrypt("Some Random Test"))
+        .isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void decryptTestGcmNoKeyProvider() {
+    // values encrypted by built-in key remain readable without key provider
+    var iisKeyProvider = new KeyProvider() {
+      @Override
+      public String getCurrentKeyId() {
+        return IisKeyProvider.KEY_ID;
+      }
+
+      @Override
+      public @Nullable Key getKey(String keyId) {
+        return new IisKeyProvider().getKey(keyId);
+      }
+    };
+    var iisValue = new GcmCodec(iisKeyProvider).encrypt("Some Random Test");
+    assertThat(new GcmCodec(new IisKeyProvider()).decrypt(iisValue))
+        .isEqualTo("Some Random Test");
+  }
+
+  @Test
+  void decryptAllTestMixedFormats() {
+    var values = List.of(DtEncryptedString.valueOf("first", EncryptionFormat.GCM),
+        DtEncryptedString.valueOf("second", EncryptionFormat.LEGACY));
+    assertThat(DtEncryptedString.decryptAll(values)).containsExactly("first", "second");
+  }
+
+  @Test
+  void decryptedValueCacheTest() {
+    var cache = new DecryptedValueCache(2);
+    cache.put("IIS$1", "first");
+    cache.put("IIS$2", "second");
+    assertThat(cache.get("IIS$1")).isEqualTo("first");
+    cache.put("IIS$3", "third");
+    // least recently used value has been evicted
+    assertThat(cache.get("IIS$2")).isNull();
+    assertThat(cache.size()).isEqualTo(2);
+    cache.clear();
+    assertThat(cache.get("IIS$1")).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void decryptedValueCacheTestDisabled() {
+    var cache = new DecryptedValueCache(0);
+    cache.put("IIS$1", "first");
+    assertThat(cache.isEnabled()).isFalse();
+    assertThat(cache.get("IIS$1")).isNull();
+  }
+
+  @Test
+  void concurrentTest() throws InterruptedException, ExecutionException {
+    // pooled ciphers must not be shared between threads
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var futures = new ArrayList<Future<?>>();
+      for (int thread = 0; thread < 8; thread++) {
+        var prefix = "Value " + thread + '-';
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            assertThat(DtEncryptedString.valueOf(prefix + i).getValue()).isEqualTo(prefix + i);
+          }
+        }));
+      }
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   private static final class DtEncryptedStringElement {
 
     @JsonProperty
@@ -0,0 +1,31 @@
+package com.provys.common.crypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Map;
+import javax.crypto.spec.SecretKeySpec;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Key provider registered for tests, supplies two keys to verify key rotation.
+ */
+public final class TestKeyProvider implements KeyProvider {
+
+  static final String OLD_KEY_ID = "test-1";
+  static final String CURRENT_KEY_ID = "test-2";
+
+  private static final Map<String, Key> KEYS = Map.of(
+      OLD_KEY_ID, new SecretKeySpec("0123456789abcdef".getBytes(StandardCharsets.US_ASCII), "AES"),
+      CURRENT_KEY_ID,
+      new SecretKeySpec("fedcba9876543210".getBytes(StandardCharsets.US_ASCII), "AES"));
+
+  @Override
+  public String getCurrentKeyId() {
+    return CURRENT_KEY_ID;
+  }
+
+  @Override
+  public @Nullable Key getKey(String keyId) {
+    return KEYS.get(keyId);
+  }
+}
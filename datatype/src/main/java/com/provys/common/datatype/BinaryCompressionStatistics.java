@@ -0,0 +1,124 @@
+package com.provys.common.datatype;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of transparent compression of binary data. Counters are cumulative since start of
+ * application and are updated without locking, thus they can be read at any time (e.g. exported
+ * to monitoring), but individual values are not guaranteed to be mutually consistent.
+ */
+public final class BinaryCompressionStatistics {
+
+  private static final BinaryCompressionStatistics INSTANCE = new BinaryCompressionStatistics();
+
+  /**
+   * Statistics of compression of binary data in this application.
+   *
+   * @return statistics instance
+   */
+  public static BinaryCompressionStatistics getInstance() {
+    return INSTANCE;
+  }
+
+  private final LongAdder compressedCount = new LongAdder();
+  private final LongAdder skippedCount = new LongAdder();
+  private final LongAdder originalBytes = new LongAdder();
+  private final LongAdder compressedBytes = new LongAdder();
+  private final LongAdder skippedBytes = new LongAdder();
+  private final LongAdder decompressionCount = new LongAdder();
+
+  private BinaryCompressionStatistics() {
+  }
+
+  void recordCompressed(long original, long compressed) {
+    compressedCount.increment();
+    originalBytes.add(original);
+    compressedBytes.add(compressed);
+  }
+
+  void recordSkipped(long original) {
+    skippedCount.increment();
+    skippedBytes.add(original);
+  }
+
+  void recordDecompression() {
+    decompressionCount.increment();
+  }
+
+  /**
+   * Number of binary data stored in compressed form.
+   *
+   * @return number of compressed binary data
+   */
+  public long getCompressedCount() {
+    return compressedCount.sum();
+  }
+
+  /**
+   * Number of binary data eligible for compression, but stored uncompressed as they did not
+   * compress well enough.
+   *
+   * @return number of binary data where compression has been skipped
+   */
+  public long getSkippedCount() {
+    return skippedCount.sum();
+  }
+
+  /**
+   * Total original size of binary data stored in compressed form.
+   *
+   * @return original size in bytes
+   */
+  public long getOriginalBytes() {
+    return originalBytes.sum();
+  }
+
+  /**
+   * Total compressed size of binary data stored in compressed form.
+   *
+   * @return compressed size in bytes
+   */
+  public long getCompressedBytes() {
+    return compressedBytes.sum();
+  }
+
+  /**
+   * Total size of binary data where compression has been skipped.
+   *
+   * @return size of uncompressed data in bytes
+   */
+  public long getSkippedBytes() {
+    return skippedBytes.sum();
+  }
+
+  /**
+   * Number of times compressed data have been decompressed (read via stream or copied to array).
+   *
+   * @return number of decompressions
+   */
+  public long getDecompressionCount() {
+    return decompressionCount.sum();
+  }
+
+  /**
+   * Ratio of compressed to original size of data stored in compressed form.
+   *
+   * @return compression ratio, 1 if nothing has been compressed yet
+   */
+  public double getCompressionRatio() {
+    long original = originalBytes.sum();
+    return (original == 0) ? 1 : ((double) compressedBytes.sum() / original);
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryCompressionStatistics{"
+        + "compressedCount=" + compressedCount.sum()
+        + ", skippedCount=" + skippedCount.sum()
+        + ", originalBytes=" + originalBytes.sum()
+        + ", compressedBytes=" + compressedBytes.sum()
+        + ", skippedBytes=" + skippedBytes.sum()
+        + ", decompressionCount=" + decompressionCount.sum()
+        + '}';
+  }
+}
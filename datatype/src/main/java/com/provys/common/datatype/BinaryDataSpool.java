@@ -0,0 +1,90 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Owner of binary data spooled to temporary file. Binary data created via {@link
+ * DtBinaryData#spool(InputStream)} keep their temporary file until they are garbage collected;
+ * spool allows to remove the file as soon as data are no longer needed, typically using
+ * try-with-resources block.
+ *
+ * <p>Binary data obtained from spool (and their slices) must not be used after spool has been
+ * closed - reading their content fails. They thus should not be passed to holders that might
+ * outlive the spool; {@link BinaryDataStore} does not share file backed data for this reason.
+ * Empty content is kept in memory and is not affected by closing the spool.
+ */
+public final class BinaryDataSpool implements Closeable {
+
+  private final DtBinaryData data;
+  private final @Nullable FileBinaryStorage fileStorage;
+  private volatile boolean closed;
+
+  private BinaryDataSpool(BinaryStorage storage) {
+    this.data = new DtBinaryData(storage);
+    this.fileStorage = (storage instanceof FileBinaryStorage) ? (FileBinaryStorage) storage
+        : null;
+  }
+
+  /**
+   * Spool supplied stream to temporary file. Stream is copied in chunks and data are read from the
+   * file on demand, thus they are never held in memory.
+   *
+   * @param inputStream is stream containing binary data; it is read and closed by this method
+   * @return spool owning temporary file with content of stream
+   * @throws IOException if reading from stream or writing to temporary file fails
+   */
+  public static BinaryDataSpool of(InputStream inputStream) throws IOException {
+    try (inputStream) {
+      return new BinaryDataSpool(BinaryStorages.spool(inputStream));
+    }
+  }
+
+  /**
+   * Spool supplied Blob to temporary file. Blob is read once, in chunks; data thus remain valid
+   * after Blob has been freed or transaction has ended, until spool is closed.
+   *
+   * @param blob containing data to be spooled
+   * @return spool owning temporary file with content of Blob
+   */
+  public static BinaryDataSpool of(Blob blob) {
+    return new BinaryDataSpool(BinaryStorages.spool(blob));
+  }
+
+  /**
+   * Binary data backed by temporary file of this spool.
+   *
+   * @return binary data with spooled content
+   * @throws InternalException if spool has already been closed
+   */
+  public DtBinaryData getData() {
+    if (closed) {
+      throw new InternalException("Cannot access data of closed binary data spool");
+    }
+    return data;
+  }
+
+  /**
+   * Close spool, removing its temporary file. Binary data obtained from spool must not be used
+   * after this call. Closing already closed spool has no effect.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (fileStorage != null) {
+      fileStorage.release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryDataSpool{"
+        + "length=" + data.getLength()
+        + ", closed=" + closed
+        + '}';
+  }
+}
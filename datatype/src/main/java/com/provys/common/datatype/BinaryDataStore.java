@@ -0,0 +1,162 @@
+package com.provys.common.datatype;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content addressed store of binary data, allowing to share single instance of binary data among
+ * all holders of the same content (logos, templates, repeated attachments). Content is identified
+ * by its 128-bit digest; as digest is not cryptographic hash, content is always verified before
+ * shared instance is returned.
+ *
+ * <p>Store holds its instances weakly, thus content no longer referenced outside of store is
+ * reclaimed by garbage collector. Data backed by temporary file (e.g. obtained from {@link
+ * BinaryDataSpool}) are never shared, as their file might be removed by their owner while other
+ * holders still use them. Store is thread safe. Use of store is optional - binary data
+ * created outside of store are fully functional, they just do not share content.
+ */
+public final class BinaryDataStore {
+
+  private static final BinaryDataStore DEFAULT = new BinaryDataStore();
+
+  /**
+   * Default, application wide store.
+   *
+   * @return default store
+   */
+  public static BinaryDataStore getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Weak reference to stored data, remembering digest so it can be removed from map once data are
+   * reclaimed.
+   */
+  private static final class Entry extends WeakReference<DtBinaryData> {
+
+    private final BinaryDigest digest;
+
+    Entry(DtBinaryData value, BinaryDigest digest, ReferenceQueue<DtBinaryData> queue) {
+      super(value, queue);
+      this.digest = digest;
+    }
+  }
+
+  private final ConcurrentMap<BinaryDigest, Entry> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<DtBinaryData> queue = new ReferenceQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private void expungeStaleEntries() {
+    Entry entry;
+    while ((entry = (Entry) queue.poll()) != null) {
+      entries.remove(entry.digest, entry);
+    }
+  }
+
+  /**
+   * Return canonical instance with the same content as supplied binary data. If store already holds
+   * binary data with the same content, these are returned; otherwise supplied value is registered
+   * in store and returned. Data backed by temporary file are neither registered nor replaced by
+   * stored instance; they are returned unchanged.
+   *
+   * @param value is binary data to be deduplicated
+   * @return canonical instance with the same content as supplied value
+   */
+  public DtBinaryData intern(DtBinaryData value) {
+    if (value.isFileBacked()) {
+      misses.increment();
+      return value;
+    }
+    expungeStaleEntries();
+    var digest = value.getDigest();
+    while (true) {
+      var entry = entries.get(digest);
+      if (entry == null) {
+        if (entries.putIfAbsent(digest, new Entry(value, digest, queue)) == null) {
+          misses.increment();
+          return value;
+        }
+        continue;
+      }
+      var existing = entry.get();
+      if (existing != null) {
+        if (existing.equals(value)) {
+          hits.increment();
+          return existing;
+        }
+        // digest collision - different content, supplied value is simply not shared
+        misses.increment();
+        return value;
+      }
+      // content has been reclaimed, but entry has not been expunged yet
+      if (entries.replace(digest, entry, new Entry(value, digest, queue))) {
+        misses.increment();
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Canonical binary data with given content.
+   *
+   * @param data is content of binary data; array is copied if new instance is created
+   * @return canonical instance with given content
+   */
+  public DtBinaryData of(byte[] data) {
+    return intern(new DtBinaryData(data));
+  }
+
+  /**
+   * Canonical binary data with content read from supplied stream.
+   *
+   * @param inputStream is stream with content; it is read and closed by this method
+   * @return canonical instance with content read from stream
+   * @throws IOException if reading from stream fails
+   */
+  public DtBinaryData read(InputStream inputStream) throws IOException {
+    return intern(new DtBinaryData(inputStream));
+  }
+
+  /**
+   * Number of distinct contents currently held in store.
+   *
+   * @return number of entries in store
+   */
+  public int size() {
+    expungeStaleEntries();
+    return entries.size();
+  }
+
+  /**
+   * Number of calls that returned already stored instance.
+   *
+   * @return number of hits
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Number of calls that registered (or returned unshared) supplied instance.
+   *
+   * @return number of misses
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryDataStore{"
+        + "size=" + entries.size()
+        + ", hits=" + hits.sum()
+        + ", misses=" + misses.sum()
+        + '}';
+  }
+}
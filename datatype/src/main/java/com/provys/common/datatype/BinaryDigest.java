@@ -0,0 +1,132 @@
+package com.provys.common.datatype;
+
+import com.google.errorprone.annotations.Immutable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * 128-bit digest of binary content, evaluated using MurmurHash3 (x64, 128-bit variant, seed 0).
+ * Digest is fast, non-cryptographic hash; equal digests thus do not guarantee equal content and
+ * content has to be verified when digests match.
+ */
+@Immutable
+final class BinaryDigest {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+  /**
+   * Size of chunk content is read in; must be multiple of block size (16 bytes).
+   */
+  private static final int CHUNK_SIZE = 8192;
+
+  private final long low;
+  private final long high;
+
+  BinaryDigest(long low, long high) {
+    this.low = low;
+    this.high = high;
+  }
+
+  /**
+   * Evaluate digest of content read from supplied stream.
+   *
+   * @param inputStream is stream with content; it is read till its end, but it is not closed
+   * @return digest of content
+   * @throws IOException if reading from stream fails
+   */
+  static BinaryDigest of(InputStream inputStream) throws IOException {
+    var chunk = new byte[CHUNK_SIZE];
+    var buffer = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+    long h1 = 0;
+    long h2 = 0;
+    long length = 0;
+    int read;
+    do {
+      read = inputStream.readNBytes(chunk, 0, CHUNK_SIZE);
+      length += read;
+      int blocksEnd = read & ~15;
+      for (int i = 0; i < blocksEnd; i += 16) {
+        long k1 = buffer.getLong(i);
+        long k2 = buffer.getLong(i + 8);
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+      }
+      if (read < CHUNK_SIZE) {
+        // last chunk - process tail
+        int tail = read - blocksEnd;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = tail - 1; i >= 8; i--) {
+          k2 ^= (long) (chunk[blocksEnd + i] & 0xFF) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(tail, 8) - 1; i >= 0; i--) {
+          k1 ^= (long) (chunk[blocksEnd + i] & 0xFF) << (i * 8);
+        }
+        if (tail > 8) {
+          h2 ^= mixK2(k2);
+        }
+        if (tail > 0) {
+          h1 ^= mixK1(k1);
+        }
+      }
+    } while (read == CHUNK_SIZE);
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    return new BinaryDigest(h1, h2);
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k) {
+    long result = k;
+    result ^= result >>> 33;
+    result *= 0xff51afd7ed558ccdL;
+    result ^= result >>> 33;
+    result *= 0xc4ceb9fe1a85ec53L;
+    result ^= result >>> 33;
+    return result;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BinaryDigest)) {
+      return false;
+    }
+    BinaryDigest that = (BinaryDigest) o;
+    return (low == that.low) && (high == that.high);
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) low;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", Long.reverseBytes(low), Long.reverseBytes(high));
+  }
+}
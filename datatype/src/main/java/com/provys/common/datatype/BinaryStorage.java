@@ -0,0 +1,147 @@
+package com.provys.common.datatype;
+
+import com.google.errorprone.annotations.Immutable;
+import com.provys.common.exception.InternalException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Storage backing {@link DtBinaryData}. Content of storage never changes after storage has been
+ * created; storages can thus be freely shared between threads and between instances of binary
+ * data.
+ */
+@Immutable
+interface BinaryStorage {
+
+  /**
+   * Size of buffer used when content is processed using streams.
+   */
+  int STREAM_BUFFER_SIZE = 8192;
+
+  /**
+   * Length of stored content.
+   *
+   * @return length of content in bytes
+   */
+  long getLength();
+
+  /**
+   * Open new stream reading content from its beginning.
+   *
+   * @return input stream reading stored content
+   */
+  InputStream getInputStream();
+
+  /**
+   * Copy whole content to target array.
+   *
+   * @param target is array content should be copied to
+   * @param offset is position in target array where first byte is to be copied
+   */
+  void copyTo(byte[] target, int offset);
+
+  /**
+   * Byte at given position.
+   *
+   * @param index is position of byte; caller is responsible for verifying it is within content
+   * @return byte at given position
+   */
+  byte byteAt(long index);
+
+  /**
+   * Storage representing part of content of this storage. Slice shares content with this storage,
+   * no data are copied.
+   *
+   * @param offset is position of first byte of slice; caller is responsible for verifying slice is
+   *               within content
+   * @param length is length of slice
+   * @return storage representing part of content
+   */
+  BinaryStorage slice(long offset, long length);
+
+  /**
+   * Read-only buffer with content. Buffer shares content with this storage where possible.
+   *
+   * @return read-only buffer with content, positioned at its start
+   */
+  ByteBuffer asReadOnlyBuffer();
+
+  /**
+   * Write whole content to supplied output stream.
+   *
+   * @param outputStream is stream content is written to; it is not closed
+   * @throws IOException if writing to stream fails
+   */
+  void writeTo(OutputStream outputStream) throws IOException;
+
+  /**
+   * Write whole content to supplied channel.
+   *
+   * @param channel is channel content is written to; it is not closed
+   * @throws IOException if writing to channel fails
+   */
+  default void writeTo(WritableByteChannel channel) throws IOException {
+    var buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+    try (var inputStream = getInputStream()) {
+      int read;
+      while ((read = inputStream.read(buffer.array())) >= 0) {
+        buffer.limit(read);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        buffer.clear();
+      }
+    }
+  }
+
+  /**
+   * Hash of content, evaluated using the same formula as {@link Arrays#hashCode(byte[])}.
+   *
+   * @return hash of stored content
+   */
+  default int contentHash() {
+    var buffer = new byte[STREAM_BUFFER_SIZE];
+    int result = 1;
+    try (var inputStream = getInputStream()) {
+      int read;
+      while ((read = inputStream.read(buffer)) >= 0) {
+        for (int i = 0; i < read; i++) {
+          result = 31 * result + buffer[i];
+        }
+      }
+    } catch (IOException e) {
+      throw new InternalException("Failed to read binary data", e);
+    }
+    return result;
+  }
+
+  /**
+   * Compare content of this storage with content of other storage.
+   *
+   * @param other is storage to compare content with
+   * @return true if both storages hold the same content, false otherwise
+   */
+  default boolean contentEquals(BinaryStorage other) {
+    if (getLength() != other.getLength()) {
+      return false;
+    }
+    var buffer = new byte[STREAM_BUFFER_SIZE];
+    var otherBuffer = new byte[STREAM_BUFFER_SIZE];
+    try (var inputStream = getInputStream(); var otherStream = other.getInputStream()) {
+      int read;
+      while ((read = inputStream.readNBytes(buffer, 0, buffer.length)) > 0) {
+        if ((otherStream.readNBytes(otherBuffer, 0, read) != read)
+            || (Arrays.mismatch(buffer, 0, read, otherBuffer, 0, read) >= 0)) {
+          return false;
+        }
+      }
+    } catch (IOException e) {
+      throw new InternalException("Failed to read binary data", e);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,173 @@
+package com.provys.common.datatype;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Output stream collecting content of new binary storage. Content is collected on heap until it
+ * reaches spill threshold; at that point it is spilled to temporary file and rest of content is
+ * written directly to this file, in chunks. Temporary file is opened with {@link
+ * StandardOpenOption#DELETE_ON_CLOSE} and it is closed (and thus removed) when content is mapped to
+ * memory, when file backed storage holding it becomes unreachable or when stream is closed without
+ * retrieving storage, so no temporary files are left behind.
+ *
+ * <p>Stream is not thread safe. Resulting storage is retrieved via {@link #toStorage()}; stream
+ * should always be closed to release temporary file in case storage has not been retrieved.
+ */
+final class BinaryStorageOutputStream extends OutputStream {
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int FILE_BUFFER_SIZE = 65536;
+  /**
+   * Maximal size of array that can be safely allocated.
+   */
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+  private final long heapLimit;
+  private final boolean map;
+  private byte[] data = new byte[INITIAL_CAPACITY];
+  private int count;
+  private @Nullable FileChannel channel;
+  private @Nullable ByteBuffer fileBuffer;
+  private boolean closed;
+
+  /**
+   * Create new stream, using default mapped threshold.
+   */
+  BinaryStorageOutputStream() {
+    this(BinaryStorages.MAPPED_THRESHOLD, true);
+  }
+
+  /**
+   * Create new stream with specified spill threshold.
+   *
+   * @param spillThreshold is size from which content is spilled to temporary file
+   * @param map            defines if spilled content should be mapped to memory; if false (or if
+   *                       content is bigger than 2 GB), content is read from temporary file on
+   *                       demand
+   */
+  BinaryStorageOutputStream(long spillThreshold, boolean map) {
+    this.heapLimit = Math.min(spillThreshold, MAX_ARRAY_SIZE);
+    this.map = map;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Binary storage stream already closed");
+    }
+  }
+
+  private void spill() throws IOException {
+    var file = Files.createTempFile("provys-binary", ".tmp");
+    try {
+      channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+          StandardOpenOption.DELETE_ON_CLOSE);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    fileBuffer = ByteBuffer.allocate(FILE_BUFFER_SIZE);
+    writeToFile(data, 0, count);
+    data = new byte[0];
+    count = 0;
+  }
+
+  private void flushFileBuffer(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      fileChannel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private void writeToFile(byte[] source, int offset, int length) throws IOException {
+    var fileChannel = Objects.requireNonNull(channel);
+    var buffer = Objects.requireNonNull(fileBuffer);
+    if (length >= buffer.capacity()) {
+      flushFileBuffer(fileChannel, buffer);
+      var wrapped = ByteBuffer.wrap(source, offset, length);
+      while (wrapped.hasRemaining()) {
+        fileChannel.write(wrapped);
+      }
+      return;
+    }
+    if (length > buffer.remaining()) {
+      flushFileBuffer(fileChannel, buffer);
+    }
+    buffer.put(source, offset, length);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] source, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, source.length);
+    ensureOpen();
+    if ((channel == null) && ((long) count + length >= heapLimit)) {
+      spill();
+    }
+    if (channel != null) {
+      writeToFile(source, offset, length);
+      return;
+    }
+    if (count + length > data.length) {
+      data = Arrays.copyOf(data,
+          (int) Math.min(Math.max(2L * data.length, (long) count + length), MAX_ARRAY_SIZE));
+    }
+    System.arraycopy(source, offset, data, count, length);
+    count += length;
+  }
+
+  /**
+   * Finish writing and create storage with content written to this stream. Stream is closed and
+   * cannot be used after this call.
+   *
+   * @return storage containing content written to stream
+   * @throws IOException if content cannot be moved to storage
+   */
+  BinaryStorage toStorage() throws IOException {
+    ensureOpen();
+    try {
+      var fileChannel = channel;
+      if (fileChannel != null) {
+        flushFileBuffer(fileChannel, Objects.requireNonNull(fileBuffer));
+        long size = fileChannel.size();
+        if (!map || (size > Integer.MAX_VALUE)) {
+          // channel passes to ownership of storage
+          channel = null;
+          return new FileBinaryStorage(fileChannel, size);
+        }
+        // mapping stays valid after channel is closed and file is deleted
+        return new BufferBinaryStorage(fileChannel.map(MapMode.READ_ONLY, 0, size));
+      }
+      return BinaryStorages.inMemory(data, count, true);
+    } finally {
+      close();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      data = new byte[0];
+      fileBuffer = null;
+      var fileChannel = channel;
+      channel = null;
+      if (fileChannel != null) {
+        fileChannel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Arrays;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Factory methods creating binary storages. Type of storage is chosen based on size of content -
+ * small content is kept on heap, bigger content can be moved to native memory and content above
+ * mapped threshold is moved to memory mapped temporary file (or read from temporary file on demand
+ * if it is bigger than 2 GB). Content kept in memory can be compressed. Thresholds can be
+ * configured using system properties {@value DtBinaryData#DIRECT_THRESHOLD_PROPERTY}, {@value
+ * DtBinaryData#MAPPED_THRESHOLD_PROPERTY}, {@value DtBinaryData#COMPRESSION_THRESHOLD_PROPERTY} and
+ * {@value DtBinaryData#COMPRESSION_RATIO_PROPERTY}.
+ */
+final class BinaryStorages {
+
+  private static final Logger LOG = LogManager.getLogger(BinaryStorages.class);
+
+  /**
+   * Content of this size (in bytes) or bigger is kept in direct buffer. Direct storage is disabled
+   * by default.
+   */
+  static final long DIRECT_THRESHOLD = Long.getLong(DtBinaryData.DIRECT_THRESHOLD_PROPERTY,
+      Long.MAX_VALUE);
+
+  /**
+   * Content of this size (in bytes) or bigger is kept in memory mapped temporary file. Default is
+   * 64 MiB.
+   */
+  static final long MAPPED_THRESHOLD = Long.getLong(DtBinaryData.MAPPED_THRESHOLD_PROPERTY,
+      64L * 1024 * 1024);
+
+  /**
+   * Content of this size (in bytes) or bigger, kept in memory, is compressed if it compresses well
+   * enough. Compression is disabled by default.
+   */
+  static final long COMPRESSION_THRESHOLD = Long.getLong(
+      DtBinaryData.COMPRESSION_THRESHOLD_PROPERTY, Long.MAX_VALUE);
+
+  /**
+   * Default maximal ratio of compressed to original size.
+   */
+  static final double DEFAULT_COMPRESSION_RATIO = 0.8;
+
+  /**
+   * Maximal ratio of compressed to original size for compressed form to be used. Default is 0.8.
+   */
+  static final double COMPRESSION_RATIO = parseCompressionRatio(
+      System.getProperty(DtBinaryData.COMPRESSION_RATIO_PROPERTY));
+
+  /**
+   * Parse compression ratio. Invalid value (not a number or outside of interval (0, 1]) is
+   * reported and default ratio is used instead, as failure in static initialization would make
+   * binary data unusable.
+   *
+   * @param value is value of compression ratio property, null if not set
+   * @return compression ratio
+   */
+  static double parseCompressionRatio(@Nullable String value) {
+    if (value == null) {
+      return DEFAULT_COMPRESSION_RATIO;
+    }
+    try {
+      double result = Double.parseDouble(value.trim());
+      if ((result > 0) && (result <= 1)) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    LOG.warn("Invalid value {} of property {}, expected number in interval (0, 1]; {} used instead",
+        value, DtBinaryData.COMPRESSION_RATIO_PROPERTY, DEFAULT_COMPRESSION_RATIO);
+    return DEFAULT_COMPRESSION_RATIO;
+  }
+
+  /**
+   * Create storage holding content in memory - compressed, in direct buffer or on heap, based on
+   * content size.
+   *
+   * @param data   is array with content
+   * @param length is length of content in array
+   * @param owned  indicates that array passes to ownership of created storage; if false, array is
+   *               copied if needed
+   * @return new storage with given content
+   */
+  static BinaryStorage inMemory(byte[] data, int length, boolean owned) {
+    if (length >= COMPRESSION_THRESHOLD) {
+      var compressed = CompressedBinaryStorage.compress(data, length, COMPRESSION_RATIO);
+      if (compressed != null) {
+        return compressed;
+      }
+    }
+    if (length >= DIRECT_THRESHOLD) {
+      return BufferBinaryStorage.directOf(data, length);
+    }
+    return new BufferBinaryStorage((owned && (length == data.length)) ? data
+        : Arrays.copyOf(data, length));
+  }
+
+  /**
+   * Create storage holding copy of supplied content.
+   *
+   * @param data is content of storage; array is copied
+   * @return new storage with given content
+   */
+  static BinaryStorage copyOf(byte[] data) {
+    if (data.length >= MAPPED_THRESHOLD) {
+      try (var outputStream = new BinaryStorageOutputStream()) {
+        outputStream.write(data);
+        return outputStream.toStorage();
+      } catch (IOException e) {
+        throw new InternalException("Failed to store binary data", e);
+      }
+    }
+    return inMemory(data, data.length, false);
+  }
+
+  /**
+   * Create storage holding content of supplied input stream. Stream is read in chunks, thus content
+   * is not held on heap if it is bigger than direct or mapped threshold.
+   *
+   * @param inputStream is stream to be read; it is not closed
+   * @return new storage with content read from stream
+   * @throws IOException if reading from stream fails
+   */
+  static BinaryStorage read(InputStream inputStream) throws IOException {
+    try (var outputStream = new BinaryStorageOutputStream()) {
+      inputStream.transferTo(outputStream);
+      return outputStream.toStorage();
+    }
+  }
+
+  /**
+   * Create storage holding content of supplied Blob. Big Blobs are read via stream, thus they are
+   * not held on heap.
+   *
+   * @param blob is Blob with content
+   * @return new storage with content of Blob
+   */
+  static BinaryStorage read(Blob blob) {
+    try {
+      long length = blob.length();
+      if ((length < DIRECT_THRESHOLD) && (length < MAPPED_THRESHOLD)
+          && (length <= Integer.MAX_VALUE)) {
+        var data = blob.getBytes(1, (int) length);
+        return inMemory(data, data.length, true);
+      }
+      try (var inputStream = blob.getBinaryStream()) {
+        return read(inputStream);
+      }
+    } catch (SQLException | IOException e) {
+      throw new InternalException("Failed to read BLOB", e);
+    }
+  }
+
+  /**
+   * Spool content of supplied input stream to temporary file. Stream is copied in chunks and
+   * resulting storage reads content from file on demand, thus content is never held in memory.
+   *
+   * @param inputStream is stream to be read; it is not closed
+   * @return new file backed storage with content read from stream
+   * @throws IOException if reading from stream or writing to temporary file fails
+   */
+  static BinaryStorage spool(InputStream inputStream) throws IOException {
+    try (var outputStream = new BinaryStorageOutputStream(0, false)) {
+      inputStream.transferTo(outputStream);
+      return outputStream.toStorage();
+    }
+  }
+
+  /**
+   * Spool content of supplied Blob to temporary file.
+   *
+   * @param blob is Blob with content
+   * @return new file backed storage with content of Blob
+   */
+  static BinaryStorage spool(Blob blob) {
+    try (var inputStream = blob.getBinaryStream()) {
+      return spool(inputStream);
+    } catch (SQLException | IOException e) {
+      throw new InternalException("Failed to read BLOB", e);
+    }
+  }
+
+  private BinaryStorages() {
+  }
+}
@@ -0,0 +1,90 @@
+package com.provys.common.datatype;
+
+import java.util.Arrays;
+
+/**
+ * Support for bitmaps stored in {@code long} arrays, used by columnar vectors to mark special
+ * values.
+ */
+final class Bitmaps {
+
+  /**
+   * Number of words needed to store given number of bits.
+   *
+   * @param bits is number of bits
+   * @return number of {@code long} words needed
+   */
+  static int wordCount(int bits) {
+    return (bits + Long.SIZE - 1) >>> 6;
+  }
+
+  /**
+   * Bitmap able to hold given number of bits, containing bits of supplied bitmap.
+   *
+   * @param bitmap   is original bitmap
+   * @param capacity is required capacity in bits
+   * @return original bitmap if it is big enough, its enlarged copy otherwise
+   */
+  static long[] ensureCapacity(long[] bitmap, int capacity) {
+    var words = wordCount(capacity);
+    return (bitmap.length >= words) ? bitmap : Arrays.copyOf(bitmap, words);
+  }
+
+  /**
+   * Value of bit.
+   *
+   * @param bitmap is bitmap
+   * @param index  is index of bit
+   * @return true if bit is set
+   */
+  static boolean get(long[] bitmap, int index) {
+    return (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Set or clear bit.
+   *
+   * @param bitmap is bitmap
+   * @param index  is index of bit
+   * @param value  is new value of bit
+   */
+  static void set(long[] bitmap, int index, boolean value) {
+    if (value) {
+      bitmap[index >>> 6] |= 1L << index;
+    } else {
+      bitmap[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  /**
+   * Number of set bits.
+   *
+   * @param bitmap is bitmap
+   * @return number of bits set in bitmap
+   */
+  static int count(long[] bitmap) {
+    int result = 0;
+    for (var word : bitmap) {
+      result += Long.bitCount(word);
+    }
+    return result;
+  }
+
+  /**
+   * Verify if any bit is set.
+   *
+   * @param bitmap is bitmap
+   * @return true if at least one bit is set
+   */
+  static boolean any(long[] bitmap) {
+    for (var word : bitmap) {
+      if (word != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Bitmaps() {
+  }
+}
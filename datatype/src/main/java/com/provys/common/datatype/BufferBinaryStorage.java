@@ -0,0 +1,157 @@
+package com.provys.common.datatype;
+
+import com.google.errorprone.annotations.Immutable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Binary storage backed by byte buffer. Depending on how buffer has been allocated, content is kept
+ * on heap (buffer wrapping byte array), in native memory (direct buffer) or in memory mapped
+ * file.
+ */
+@Immutable
+final class BufferBinaryStorage implements BinaryStorage {
+
+  /**
+   * Buffer holding content. Buffer is never exposed and never modified, its position is zero and
+   * limit is equal to content length. Only duplicates are used for relative operations, thus
+   * storage can be safely used from multiple threads.
+   */
+  @SuppressWarnings("Immutable") // buffer is never modified and never exposed
+  private final ByteBuffer buffer;
+
+  /**
+   * Create storage on supplied buffer. Buffer passes to ownership of created storage and must not
+   * be modified after this call.
+   *
+   * @param buffer is buffer with content; content between position and limit is used
+   */
+  BufferBinaryStorage(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  /**
+   * Create storage on supplied byte array. Array passes to ownership of created storage and must not
+   * be modified after this call.
+   *
+   * @param data is array with content
+   */
+  BufferBinaryStorage(byte[] data) {
+    this(ByteBuffer.wrap(data));
+  }
+
+  /**
+   * Create storage holding content of supplied array in native memory (direct buffer).
+   *
+   * @param data   is array with content; it is copied
+   * @param length is length of content in array
+   * @return storage holding content of supplied array
+   */
+  static BufferBinaryStorage directOf(byte[] data, int length) {
+    return new BufferBinaryStorage(ByteBuffer.allocateDirect(length).put(data, 0, length).flip());
+  }
+
+  /**
+   * Compress content kept on heap. Content in native memory or in memory mapped file is not
+   * compressed, as compressed copy would move it to heap.
+   *
+   * @param maxRatio is maximal ratio of compressed to original size for compression to be used
+   * @return compressed storage, null if content is not kept on heap or does not compress well
+   *     enough
+   */
+  @Nullable CompressedBinaryStorage compress(double maxRatio) {
+    if (!buffer.hasArray()) {
+      return null;
+    }
+    int length = buffer.limit();
+    byte[] data;
+    if (buffer.arrayOffset() == 0) {
+      data = buffer.array();
+    } else {
+      data = new byte[length];
+      copyTo(data, 0);
+    }
+    return CompressedBinaryStorage.compress(data, length, maxRatio);
+  }
+
+  @Override
+  public long getLength() {
+    return buffer.limit();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return new ByteBufferInputStream(buffer);
+  }
+
+  @Override
+  public void copyTo(byte[] target, int offset) {
+    buffer.duplicate().get(target, offset, buffer.limit());
+  }
+
+  @Override
+  public void writeTo(OutputStream outputStream) throws IOException {
+    new ByteBufferInputStream(buffer).transferTo(outputStream);
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    var source = buffer.duplicate();
+    while (source.hasRemaining()) {
+      channel.write(source);
+    }
+  }
+
+  @Override
+  public byte byteAt(long index) {
+    return buffer.get((int) index);
+  }
+
+  @Override
+  public BinaryStorage slice(long offset, long length) {
+    return new BufferBinaryStorage(
+        buffer.duplicate().position((int) offset).limit((int) (offset + length)));
+  }
+
+  @Override
+  public ByteBuffer asReadOnlyBuffer() {
+    return buffer.asReadOnlyBuffer();
+  }
+
+  @Override
+  public int contentHash() {
+    if (buffer.hasArray()) {
+      int from = buffer.arrayOffset();
+      if ((from == 0) && (buffer.limit() == buffer.array().length)) {
+        return Arrays.hashCode(buffer.array());
+      }
+    }
+    int result = 1;
+    for (int i = 0; i < buffer.limit(); i++) {
+      result = 31 * result + buffer.get(i);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean contentEquals(BinaryStorage other) {
+    if (other instanceof BufferBinaryStorage) {
+      // ByteBuffer comparison uses vectorized mismatch
+      return buffer.equals(((BufferBinaryStorage) other).buffer);
+    }
+    return BinaryStorage.super.contentEquals(other);
+  }
+
+  @Override
+  public String toString() {
+    return "BufferBinaryStorage{"
+        + "length=" + buffer.limit()
+        + ", direct=" + buffer.isDirect()
+        + '}';
+  }
+}
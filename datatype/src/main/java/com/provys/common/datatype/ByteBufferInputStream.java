@@ -0,0 +1,88 @@
+package com.provys.common.datatype;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading content of byte buffer. Stream works on its own view of the buffer, thus
+ * reading does not affect position of supplied buffer.
+ */
+final class ByteBufferInputStream extends InputStream {
+
+  private final ByteBuffer buffer;
+  private int mark;
+
+  /**
+   * Create stream reading remaining content of supplied buffer.
+   *
+   * @param buffer is buffer with content to be read
+   */
+  ByteBufferInputStream(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  @Override
+  public int read() {
+    return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+  }
+
+  @Override
+  public int read(byte[] target, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    int count = Math.min(length, buffer.remaining());
+    buffer.get(target, offset, count);
+    return count;
+  }
+
+  @Override
+  public long skip(long n) {
+    int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+    buffer.position(buffer.position() + count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    mark = buffer.position();
+  }
+
+  @Override
+  public synchronized void reset() {
+    buffer.position(mark);
+  }
+
+  @Override
+  public long transferTo(OutputStream outputStream) throws IOException {
+    long count = buffer.remaining();
+    if (buffer.hasArray()) {
+      outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+      buffer.position(buffer.limit());
+    } else {
+      var chunk = new byte[(int) Math.min(BinaryStorage.STREAM_BUFFER_SIZE, count)];
+      while (buffer.hasRemaining()) {
+        int length = Math.min(chunk.length, buffer.remaining());
+        buffer.get(chunk, 0, length);
+        outputStream.write(chunk, 0, length);
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,184 @@
+package com.provys.common.datatype;
+
+import com.google.errorprone.annotations.Immutable;
+import com.provys.common.exception.InternalException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Binary storage holding content compressed using Deflater. Content is decompressed on the fly when
+ * read via stream or copied to array; random access operations (byte access, slices, buffer view)
+ * decompress content up to requested position and return decompressed copy on heap, thus they
+ * should be avoided on compressed data.
+ */
+@Immutable
+final class CompressedBinaryStorage implements BinaryStorage {
+
+  /**
+   * Compression level; favours speed as compression is applied transparently when data are created.
+   */
+  private static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+  @SuppressWarnings("Immutable") // array is never modified and never exposed
+  private final byte[] compressed;
+  private final long length;
+
+  private CompressedBinaryStorage(byte[] compressed, long length) {
+    this.compressed = compressed;
+    this.length = length;
+  }
+
+  /**
+   * Compress supplied content. Compression is abandoned as soon as compressed output exceeds given
+   * ratio of original size; content with high entropy (already compressed images, archives etc.)
+   * is thus rejected without compressing it whole.
+   *
+   * @param data     is array with content
+   * @param length   is length of content in array
+   * @param maxRatio is maximal ratio of compressed to original size for compression to be used
+   * @return compressed storage, null if content does not compress well enough
+   */
+  static @Nullable CompressedBinaryStorage compress(byte[] data, int length, double maxRatio) {
+    var statistics = BinaryCompressionStatistics.getInstance();
+    var output = new byte[(int) (length * maxRatio)];
+    var deflater = new Deflater(COMPRESSION_LEVEL);
+    try {
+      deflater.setInput(data, 0, length);
+      deflater.finish();
+      int position = 0;
+      while (!deflater.finished() && (position < output.length)) {
+        position += deflater.deflate(output, position, output.length - position);
+      }
+      if (!deflater.finished()) {
+        statistics.recordSkipped(length);
+        return null;
+      }
+      statistics.recordCompressed(length, position);
+      return new CompressedBinaryStorage(Arrays.copyOf(output, position), length);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Length of compressed representation of content.
+   *
+   * @return length of compressed data in bytes
+   */
+  int getCompressedLength() {
+    return compressed.length;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    BinaryCompressionStatistics.getInstance().recordDecompression();
+    return new InflaterInputStream(new ByteArrayInputStream(compressed));
+  }
+
+  @Override
+  public void copyTo(byte[] target, int offset) {
+    BinaryCompressionStatistics.getInstance().recordDecompression();
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      int position = 0;
+      while ((position < length) && !inflater.finished()) {
+        int inflated = inflater.inflate(target, offset + position, (int) length - position);
+        if ((inflated == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        position += inflated;
+      }
+      if (position != length) {
+        throw new InternalException("Compressed binary data are corrupted");
+      }
+    } catch (DataFormatException e) {
+      throw new InternalException("Compressed binary data are corrupted", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Override
+  public void writeTo(OutputStream outputStream) throws IOException {
+    try (var inputStream = getInputStream()) {
+      inputStream.transferTo(outputStream);
+    }
+  }
+
+  private BufferBinaryStorage decompress() {
+    var data = new byte[(int) length];
+    copyTo(data, 0);
+    return new BufferBinaryStorage(data);
+  }
+
+  /**
+   * Decompress part of content to heap. Decompression stops at the end of requested part.
+   */
+  private BufferBinaryStorage decompress(long offset, int partLength) {
+    try (var inputStream = getInputStream()) {
+      long skipped = 0;
+      while (skipped < offset) {
+        long count = inputStream.skip(offset - skipped);
+        if (count <= 0) {
+          throw new InternalException("Compressed binary data are corrupted");
+        }
+        skipped += count;
+      }
+      var data = inputStream.readNBytes(partLength);
+      if (data.length != partLength) {
+        throw new InternalException("Compressed binary data are corrupted");
+      }
+      return new BufferBinaryStorage(data);
+    } catch (IOException e) {
+      throw new InternalException("Failed to decompress binary data", e);
+    }
+  }
+
+  @Override
+  public byte byteAt(long index) {
+    return decompress(index, 1).byteAt(0);
+  }
+
+  @Override
+  public BinaryStorage slice(long offset, long sliceLength) {
+    return decompress(offset, (int) sliceLength);
+  }
+
+  @Override
+  public ByteBuffer asReadOnlyBuffer() {
+    return decompress().asReadOnlyBuffer();
+  }
+
+  @Override
+  public boolean contentEquals(BinaryStorage other) {
+    // compression is deterministic, equal compressed form thus means equal content
+    if ((other instanceof CompressedBinaryStorage)
+        && Arrays.equals(compressed, ((CompressedBinaryStorage) other).compressed)) {
+      return length == other.getLength();
+    }
+    return BinaryStorage.super.contentEquals(other);
+  }
+
+  @Override
+  public String toString() {
+    return "CompressedBinaryStorage{"
+        + "length=" + length
+        + ", compressedLength=" + compressed.length
+        + '}';
+  }
+}
@@ -1,63 +1,187 @@
 package com.provys.common.datatype;
 
+import static org.checkerframework.checker.nullness.NullnessUtil.castNonNull;
+
 import com.google.errorprone.annotations.Immutable;
 import com.provys.common.exception.InternalException;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.sql.Blob;
-import java.sql.SQLException;
 import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
- * Immutable envelope around binary data. Given that it is backed by byte array (kept in memory), it
- * should not be used for too big binary files. On the other hand its advantage is immutability of
- * data - unlike streams that are stateful and thus not serializable.
+ * Immutable envelope around binary data. Its advantage is immutability of data - unlike streams
+ * that are stateful and thus not serializable.
+ *
+ * <p>Data are kept in storage chosen based on their size. Small data are kept on heap in byte
+ * array. Data of size given by system property {@value #DIRECT_THRESHOLD_PROPERTY} or bigger are
+ * kept in native memory (direct buffer); this is disabled by default. Data of size given by system
+ * property {@value #MAPPED_THRESHOLD_PROPERTY} (64 MiB by default) or bigger are written to
+ * temporary file and mapped to memory. Temporary file is deleted as soon as it is mapped, thus
+ * no files are left behind even if application is terminated abruptly; memory is released when
+ * binary data are garbage collected. Data bigger than 2 GB and data created via {@link
+ * #spool(InputStream)} or {@link #spool(Blob)} stay in temporary file and are read on demand; file
+ * is deleted when binary data are garbage collected. Use {@link BinaryDataSpool} when temporary
+ * file should be removed as soon as data are no longer needed.
+ *
+ * <p>Data kept in memory of size given by system property {@value #COMPRESSION_THRESHOLD_PROPERTY}
+ * or bigger are compressed (disabled by default), provided they compress at least to ratio given by
+ * {@value #COMPRESSION_RATIO_PROPERTY} (0.8 by default). Compression is transparent - stream access
+ * decompresses data on the fly, equals and hashCode work on original content. Statistics are
+ * available via {@link BinaryCompressionStatistics}.
+ *
+ * <p>Data can be streamed out with bounded memory using {@link #getInputStream()}, {@link
+ * #writeTo(OutputStream)} or {@link #transferTo(WritableByteChannel)}. Zero-copy access is
+ * available via {@link #asReadOnlyByteBuffer()}, {@link #slice(long, long)} and {@link
+ * #byteAt(long)}; {@link #getData()} should only be used when caller needs its own copy of data.
  */
+@SuppressWarnings("CyclicClassDependency") // Dependency between class and its serialization proxy
 @Immutable
 public final class DtBinaryData implements Serializable {
 
+  /**
+   * System property defining size (in bytes) from which data are kept in native memory.
+   */
+  public static final String DIRECT_THRESHOLD_PROPERTY = "provys.datatype.binary.direct-threshold";
+  /**
+   * System property defining size (in bytes) from which data are kept in memory mapped temporary
+   * file.
+   */
+  public static final String MAPPED_THRESHOLD_PROPERTY = "provys.datatype.binary.mapped-threshold";
+  /**
+   * System property defining size (in bytes) from which data kept in memory are compressed.
+   */
+  public static final String COMPRESSION_THRESHOLD_PROPERTY =
+      "provys.datatype.binary.compression-threshold";
+  /**
+   * System property defining maximal ratio of compressed to original size for compressed form to
+   * be used.
+   */
+  public static final String COMPRESSION_RATIO_PROPERTY =
+      "provys.datatype.binary.compression-ratio";
+
   private static final long serialVersionUID = -7205192074604076761L;
 
-  @SuppressWarnings("Immutable") // data are never accessed directly, copy supplied by getter
-  private final byte[] data;
+  private final BinaryStorage storage;
+  /**
+   * Cached hash code, evaluated on first use. Zero means not evaluated yet (or hash is zero, if
+   * {@link #hashIsZero} is set).
+   */
+  @SuppressWarnings("Immutable") // lazily evaluated cache, benign race as in String
+  private transient int hash;
+  @SuppressWarnings("Immutable") // lazily evaluated cache, benign race as in String
+  private transient boolean hashIsZero;
+  /**
+   * Cached 128-bit digest of content, evaluated on first use.
+   */
+  @SuppressWarnings("Immutable") // lazily evaluated cache, digest itself is immutable
+  private transient @MonotonicNonNull BinaryDigest digest;
+  /**
+   * Content read from legacy serialized form (serialized before introduction of serialization
+   * proxy), replaced by properly initialized instance in {@link #readResolve()}.
+   */
+  @SuppressWarnings("Immutable") // only set during deserialization of legacy form
+  private transient byte @Nullable [] legacyData;
+
+  DtBinaryData(BinaryStorage storage) {
+    this.storage = storage;
+  }
 
   /**
-   * Create binary data (byte array) as clone of supplied byte array.
+   * Create binary data as clone of supplied byte array.
    *
    * @param data is byte array containing data
    */
   public DtBinaryData(byte[] data) {
-    this.data = Arrays.copyOf(data, data.length);
+    this(BinaryStorages.copyOf(data));
   }
 
   /**
-   * Create binary data (byte array) from supplied input stream.
+   * Create binary data from supplied input stream. Stream is read in chunks, big data are thus
+   * never held on heap.
    *
    * @param inputStream is stream containing binary data to be stored in this object. Stream is read
    *                    and closed by this object
    */
   public DtBinaryData(InputStream inputStream) throws IOException {
-    this.data = inputStream.readAllBytes();
-    inputStream.close();
+    try (inputStream) {
+      this.storage = BinaryStorages.read(inputStream);
+    }
   }
 
   /**
-   * Create binary data (byte array) from supplied Blob.
+   * Create binary data from supplied Blob. Big Blobs are read via stream, thus they are never held
+   * on heap.
    *
    * @param blob containing data to be represented by this object
    */
   public DtBinaryData(Blob blob) {
-    try {
-      if (blob.length() > Integer.MAX_VALUE) {
-        throw new InternalException("Cannot read BLOB bigger than 2 GB to memory");
-      }
-      this.data = blob.getBytes(1, Integer.MAX_VALUE);
-    } catch (SQLException e) {
-      throw new InternalException("Failed to read BLOB", e);
+    this(BinaryStorages.read(blob));
+  }
+
+  /**
+   * Create binary data by spooling supplied stream to temporary file. Stream is copied in chunks
+   * and data are read from the file on demand, thus they are never held in memory. Suitable for big
+   * content that is only passed through (e.g. document downloads); {@link BinaryDataSpool} should
+   * be used if temporary file is to be removed without waiting for garbage collection.
+   *
+   * @param inputStream is stream containing binary data; it is read and closed by this method
+   * @return binary data backed by temporary file
+   * @throws IOException if reading from stream or writing to temporary file fails
+   */
+  public static DtBinaryData spool(InputStream inputStream) throws IOException {
+    try (inputStream) {
+      return new DtBinaryData(BinaryStorages.spool(inputStream));
+    }
+  }
+
+  /**
+   * Create binary data by spooling supplied Blob to temporary file. Blob is read once, in chunks,
+   * and data are read from the file on demand; binary data thus remain valid after Blob has been
+   * freed or transaction has ended.
+   *
+   * @param blob containing data to be represented by created object
+   * @return binary data backed by temporary file
+   */
+  public static DtBinaryData spool(Blob blob) {
+    return new DtBinaryData(BinaryStorages.spool(blob));
+  }
+
+  /**
+   * Binary data with the same content, kept in compressed form. Compression is applied regardless
+   * of compression threshold, but only if data compress at least to configured ratio. Useful for
+   * data that are kept for long time (e.g. in caches), but accessed rarely. Only data kept on heap
+   * are compressed; data kept in native memory, mapped to memory or read from temporary file are
+   * not moved to heap and this object is returned for them.
+   *
+   * @return compressed binary data, or this object if data are not kept on heap, do not compress
+   *     well enough or are already compressed
+   */
+  public DtBinaryData compress() {
+    if (!(storage instanceof BufferBinaryStorage) || (storage.getLength() == 0)) {
+      return this;
     }
+    var compressed = ((BufferBinaryStorage) storage).compress(BinaryStorages.COMPRESSION_RATIO);
+    return (compressed == null) ? this : new DtBinaryData(compressed);
+  }
+
+  /**
+   * Length of data.
+   *
+   * @return length of data in bytes
+   */
+  public long getLength() {
+    return storage.getLength();
   }
 
   /**
@@ -66,16 +190,250 @@ public final class DtBinaryData implements Serializable {
    * @return data as byte array
    */
   public byte[] getData() {
-    return Arrays.copyOf(data, data.length);
+    long length = storage.getLength();
+    if (length > Integer.MAX_VALUE) {
+      throw new InternalException("Cannot return binary data bigger than 2 GB as byte array");
+    }
+    var result = new byte[(int) length];
+    storage.copyTo(result, 0);
+    return result;
   }
 
   /**
-   * Get input stream accessing data held by this object.
+   * Get input stream accessing data held by this object. Each call returns new stream, reading data
+   * from the beginning.
    *
    * @return input stream with data
    */
-  public ByteArrayInputStream getInputStream() {
-    return new ByteArrayInputStream(data);
+  public InputStream getInputStream() {
+    return storage.getInputStream();
+  }
+
+  /**
+   * Byte at given position.
+   *
+   * @param index is position of byte
+   * @return byte at given position
+   * @throws IndexOutOfBoundsException if index is outside of data
+   */
+  public byte byteAt(long index) {
+    if ((index < 0) || (index >= storage.getLength())) {
+      throw new IndexOutOfBoundsException(
+          "Index " + index + " out of bounds for length " + storage.getLength());
+    }
+    return storage.byteAt(index);
+  }
+
+  /**
+   * Copy data to supplied array. Unlike {@link #getData()}, it allows to reuse existing array.
+   *
+   * @param target is array data are copied to
+   * @param offset is position in target array where first byte of data is written
+   * @throws IndexOutOfBoundsException if data do not fit to target array on given position
+   */
+  public void copyTo(byte[] target, int offset) {
+    if ((offset < 0) || (storage.getLength() > target.length - offset)) {
+      throw new IndexOutOfBoundsException("Data of length " + storage.getLength()
+          + " do not fit to array of length " + target.length + " from offset " + offset);
+    }
+    storage.copyTo(target, offset);
+  }
+
+  /**
+   * Part of data. Returned binary data share backing storage with this object, no data are copied.
+   *
+   * @param offset is position of first byte of slice
+   * @param length is length of slice
+   * @return binary data representing given part of this object
+   * @throws IndexOutOfBoundsException if slice is not within data
+   */
+  public DtBinaryData slice(long offset, long length) {
+    if ((offset < 0) || (length < 0) || (offset > storage.getLength() - length)) {
+      throw new IndexOutOfBoundsException("Slice from " + offset + " of length " + length
+          + " out of bounds for length " + storage.getLength());
+    }
+    if ((offset == 0) && (length == storage.getLength())) {
+      return this;
+    }
+    return new DtBinaryData(storage.slice(offset, length));
+  }
+
+  /**
+   * Read-only view of data. Buffer shares memory with this object (file backed data are mapped to
+   * memory), thus no copy of data is created.
+   *
+   * @return read-only buffer with data, positioned at start of data
+   */
+  public ByteBuffer asReadOnlyByteBuffer() {
+    return storage.asReadOnlyBuffer();
+  }
+
+  /**
+   * Write data to supplied output stream. Data are written directly from backing storage - heap
+   * data are written in single call, other data in chunks - thus no copy of whole data is created
+   * on heap.
+   *
+   * @param outputStream is stream data are written to; it is not closed
+   * @throws IOException if writing to stream fails
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    storage.writeTo(outputStream);
+  }
+
+  /**
+   * Write data to supplied output stream. Same as {@link #writeTo(OutputStream)}, but returns
+   * number of bytes written.
+   *
+   * @param outputStream is stream data are written to; it is not closed
+   * @return number of bytes written
+   * @throws IOException if writing to stream fails
+   */
+  public long transferTo(OutputStream outputStream) throws IOException {
+    writeTo(outputStream);
+    return storage.getLength();
+  }
+
+  /**
+   * Write data to supplied channel. File backed data are transferred using {@link
+   * java.nio.channels.FileChannel#transferTo}, allowing zero-copy transfer where platform supports
+   * it. Channel must be in blocking mode; non-blocking channel might accept no data and writing
+   * would turn into busy loop.
+   *
+   * @param channel is channel data are written to; it is not closed
+   * @return number of bytes written
+   * @throws IOException if writing to channel fails
+   * @throws InternalException if channel is selectable channel in non-blocking mode
+   */
+  public long transferTo(WritableByteChannel channel) throws IOException {
+    if ((channel instanceof SelectableChannel) && !((SelectableChannel) channel).isBlocking()) {
+      throw new InternalException("Cannot write binary data to non-blocking channel");
+    }
+    storage.writeTo(channel);
+    return storage.getLength();
+  }
+
+  /**
+   * Verify if data are read from temporary file on demand (as opposed to being kept in memory or
+   * mapped to memory).
+   *
+   * @return true if data are backed by temporary file
+   */
+  boolean isFileBacked() {
+    return storage instanceof FileBinaryStorage;
+  }
+
+  /**
+   * 128-bit digest of data; evaluated on first use and cached.
+   *
+   * @return digest of data
+   */
+  BinaryDigest getDigest() {
+    var result = digest;
+    if (result == null) {
+      try (var inputStream = storage.getInputStream()) {
+        result = BinaryDigest.of(inputStream);
+      } catch (IOException e) {
+        throw new InternalException("Failed to read binary data", e);
+      }
+      digest = result;
+    }
+    return result;
+  }
+
+  /**
+   * Supports serialization via SerializationProxy.
+   *
+   * @return proxy, corresponding to this DtBinaryData
+   */
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  /**
+   * Binary data are serialized via SerializationProxy. Direct deserialization only occurs for
+   * streams written by older versions, when data were serialized as byte array in field {@code
+   * data}; such streams are still accepted.
+   *
+   * @param stream is stream from which object is to be read
+   * @throws IOException if reading from stream fails or stream does not contain legacy form
+   * @throws ClassNotFoundException if class of serialized field cannot be found
+   */
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    var fields = stream.readFields();
+    if (fields.defaulted("data")) {
+      throw new InvalidObjectException("Use Serialization Proxy instead.");
+    }
+    var data = (byte @Nullable []) fields.get("data", null);
+    if (data == null) {
+      throw new InvalidObjectException("Data missing in legacy form of DtBinaryData");
+    }
+    legacyData = data;
+  }
+
+  /**
+   * Replaces instance read from legacy serialized form by instance with initialized storage.
+   *
+   * @return binary data with content read from stream
+   * @throws InvalidObjectException if instance was not read from legacy form
+   */
+  private Object readResolve() throws InvalidObjectException {
+    var data = legacyData;
+    if (data == null) {
+      throw new InvalidObjectException("Use Serialization Proxy instead.");
+    }
+    return new DtBinaryData(BinaryStorages.inMemory(data, data.length, true));
+  }
+
+  /**
+   * Serialization proxy writes length of data, followed by data themselves. Data are streamed in
+   * both directions, big data are thus never held on heap.
+   */
+  private static final class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = 5186434217781564530L;
+    private transient @Nullable DtBinaryData value;
+
+    SerializationProxy() {
+    }
+
+    SerializationProxy(DtBinaryData value) {
+      this.value = value;
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+      var data = castNonNull(value); // proxy used for serialization is always created with value
+      stream.defaultWriteObject();
+      stream.writeLong(data.storage.getLength());
+      data.writeTo(stream);
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+      stream.defaultReadObject();
+      long length = stream.readLong();
+      if (length < 0) {
+        throw new InvalidObjectException("Invalid length of DtBinaryData " + length);
+      }
+      try (var outputStream = new BinaryStorageOutputStream()) {
+        var buffer = new byte[(int) Math.min(BinaryStorage.STREAM_BUFFER_SIZE, length)];
+        long remaining = length;
+        while (remaining > 0) {
+          int read = stream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+          if (read < 0) {
+            throw new InvalidObjectException("Unexpected end of DtBinaryData content");
+          }
+          outputStream.write(buffer, 0, read);
+          remaining -= read;
+        }
+        value = new DtBinaryData(outputStream.toStorage());
+      }
+    }
+
+    private Object readResolve() throws InvalidObjectException {
+      if (value == null) {
+        throw new InvalidObjectException("Value not read during DtBinaryData deserialization");
+      }
+      return value;
+    }
   }
 
   @Override
@@ -87,19 +445,46 @@ public final class DtBinaryData implements Serializable {
       return false;
     }
     DtBinaryData that = (DtBinaryData) o;
-    return Arrays.equals(data, that.data);
+    if (storage == that.storage) {
+      return true;
+    }
+    if (storage.getLength() != that.storage.getLength()) {
+      return false;
+    }
+    // use cached hashes / digests to short-circuit comparison of different content
+    if (((hash != 0) || hashIsZero) && ((that.hash != 0) || that.hashIsZero)
+        && (hash != that.hash)) {
+      return false;
+    }
+    var thisDigest = digest;
+    var thatDigest = that.digest;
+    if ((thisDigest != null) && (thatDigest != null) && !thisDigest.equals(thatDigest)) {
+      return false;
+    }
+    return storage.contentEquals(that.storage);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(data);
+    int result = hash;
+    if ((result == 0) && !hashIsZero) {
+      result = storage.contentHash();
+      if (result == 0) {
+        hashIsZero = true;
+      } else {
+        hash = result;
+      }
+    }
+    return result;
   }
 
   @Override
   public String toString() {
+    var prefix = new byte[30];
+    storage.slice(0, Math.min(prefix.length, storage.getLength())).copyTo(prefix, 0);
     return "DtBinaryData{"
-        + "length=" + data.length
-        + ", data=" + Arrays.toString(Arrays.copyOf(data, 30))
+        + "length=" + storage.getLength()
+        + ", data=" + Arrays.toString(prefix)
         + '}';
   }
 }
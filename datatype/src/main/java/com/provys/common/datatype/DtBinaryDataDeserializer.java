@@ -0,0 +1,36 @@
+package com.provys.common.datatype;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import java.io.IOException;
+
+/**
+ * Jackson deserializer for {@link DtBinaryData} class. Base64 encoded value is decoded directly to
+ * binary storage; data exceeding mapped threshold are spilled to temporary file instead of being
+ * collected on heap.
+ */
+@SuppressWarnings("CyclicClassDependency") // cyclic dependency with adapters is to be expected
+public class DtBinaryDataDeserializer extends StdScalarDeserializer<DtBinaryData> {
+
+  private static final long serialVersionUID = 3546129484117064720L;
+
+  protected DtBinaryDataDeserializer() {
+    super(DtBinaryData.class);
+  }
+
+  @Override
+  public DtBinaryData deserialize(JsonParser parser,
+      DeserializationContext deserializationContext) throws IOException {
+    var base64Variant = deserializationContext.getBase64Variant();
+    try (var outputStream = new BinaryStorageOutputStream()) {
+      try {
+        parser.readBinaryValue(base64Variant, outputStream);
+      } catch (UnsupportedOperationException e) {
+        // parser does not support streaming of binary values (e.g. Xml parser, token buffer)
+        outputStream.write(parser.getBinaryValue(base64Variant));
+      }
+      return new DtBinaryData(outputStream.toStorage());
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.provys.common.datatype;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import java.io.IOException;
+
+/**
+ * Jackson serializer for {@link DtBinaryData} class. Data are written as Base64 encoded binary
+ * value, streamed from backing storage; no copy of whole data is created on heap.
+ */
+@SuppressWarnings("CyclicClassDependency") // cyclic dependency with adapters is to be expected
+public class DtBinaryDataSerializer extends StdScalarSerializer<DtBinaryData> {
+
+  private static final long serialVersionUID = -2395165338746311823L;
+
+  protected DtBinaryDataSerializer() {
+    super(DtBinaryData.class);
+  }
+
+  @Override
+  public boolean isEmpty(SerializerProvider provider, DtBinaryData value) {
+    return value.getLength() == 0;
+  }
+
+  @Override
+  public void serialize(DtBinaryData value, JsonGenerator generator,
+      SerializerProvider serializerProvider) throws IOException {
+    long length = value.getLength();
+    try (var inputStream = value.getInputStream()) {
+      // length -1 means unknown length, supported by generators for stream input
+      generator.writeBinary(serializerProvider.getConfig().getBase64Variant(), inputStream,
+          (length > Integer.MAX_VALUE) ? -1 : (int) length);
+    }
+  }
+}
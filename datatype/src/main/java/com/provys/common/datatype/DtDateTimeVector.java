@@ -0,0 +1,567 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Columnar vector of {@link DtDateTime} values, intended for bulk processing of date-time columns.
+ * Values are held in {@code long} array as seconds since 1970-01-01T00:00 of local date-time (no
+ * time zone is applied); special values (PRIV, ME, MIN, MAX) are held as midnight of their
+ * respective dates and are additionally marked in bitmaps. Bulk operations follow rules of
+ * corresponding {@link DtDateTime} methods (including propagation of special values), but work
+ * directly on primitive arrays without creating {@code DtDateTime} instances for individual values.
+ *
+ * <p>Vector is growable until it is frozen; mutating operations on frozen vector throw {@link
+ * InternalException}. Vector is not thread safe and freezing does not publish its content to other
+ * threads: frozen vector can be read from multiple threads only after it has been safely
+ * published (e.g. via final or volatile field, concurrent collection or thread start).
+ */
+public final class DtDateTimeVector {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final int SECONDS_PER_HOUR = 3600;
+  private static final long PRIV_SECONDS = toEpochSecond(DtDate.PRIV);
+  private static final long ME_SECONDS = toEpochSecond(DtDate.ME);
+  private static final long MIN_SECONDS = toEpochSecond(DtDate.MIN);
+  private static final long MAX_SECONDS = toEpochSecond(DtDate.MAX);
+
+  private static long toEpochSecond(DtDate date) {
+    return date.getLocalDate().toEpochDay() * SECONDS_PER_DAY;
+  }
+
+  /**
+   * Vector containing supplied values.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtDateTimeVector of(DtDateTime... values) {
+    var result = new DtDateTimeVector(values.length);
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /**
+   * Vector containing supplied values, in order of collection's iterator.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtDateTimeVector of(Collection<DtDateTime> values) {
+    var result = new DtDateTimeVector(values.size());
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  private static long toEpochSecond(DtDateTime value) {
+    var epochSecond = toEpochSecond(value.getDate());
+    if (value.isRegular()) {
+      // time of regular value is in canonical form (0-24h)
+      epochSecond += (long) value.getTime().toSeconds();
+    }
+    return epochSecond;
+  }
+
+  private static DtDateTime ofEpochSecond(long epochSecond) {
+    if (epochSecond == PRIV_SECONDS) {
+      return DtDateTime.PRIV;
+    }
+    if (epochSecond == ME_SECONDS) {
+      return DtDateTime.ME;
+    }
+    if (epochSecond == MIN_SECONDS) {
+      return DtDateTime.MIN;
+    }
+    if (epochSecond == MAX_SECONDS) {
+      return DtDateTime.MAX;
+    }
+    return DtDateTime.ofDateTime(
+        DtDate.ofLocalDate(LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY))),
+        DtTimeS.ofSeconds((int) Math.floorMod(epochSecond, SECONDS_PER_DAY)));
+  }
+
+  /**
+   * Seconds representation of result of date-time arithmetic. Value that falls on date of special
+   * value is replaced by that special value, same as in {@link DtDateTime#ofDateTime(DtDate,
+   * DtTimeS)}.
+   *
+   * @throws DateTimeException if value is outside of range supported by DtDate
+   */
+  private static long canonical(long epochSecond) {
+    if ((epochSecond >= MIN_SECONDS + SECONDS_PER_DAY) && (epochSecond < MAX_SECONDS)) {
+      return epochSecond;
+    }
+    if ((epochSecond < ME_SECONDS) || (epochSecond >= MAX_SECONDS + SECONDS_PER_DAY)) {
+      throw new DateTimeException("Date-time is outside of range supported by DtDateTime");
+    }
+    return Math.floorDiv(epochSecond, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+  }
+
+  /**
+   * Difference of values in days; evaluated as {@link DtDateTime#minus(DtDateTime)}.
+   */
+  private static double minus(long value, long minusValue) {
+    if ((value == PRIV_SECONDS) || (minusValue == PRIV_SECONDS)) {
+      return DtDouble.PRIV;
+    }
+    if ((value == ME_SECONDS) || (minusValue == ME_SECONDS)) {
+      return DtDouble.ME;
+    }
+    if (value == MAX_SECONDS) {
+      return (minusValue == MAX_SECONDS) ? 0 : DtDouble.MAX;
+    }
+    if (value == MIN_SECONDS) {
+      return (minusValue == MIN_SECONDS) ? 0 : DtDouble.MIN;
+    }
+    if (minusValue == MAX_SECONDS) {
+      return DtDouble.MIN;
+    }
+    if (minusValue == MIN_SECONDS) {
+      return DtDouble.MAX;
+    }
+    return (value - minusValue) / (double) SECONDS_PER_DAY;
+  }
+
+  private long[] epochSeconds;
+  private long[] priv;
+  private long[] me;
+  private long[] min;
+  private long[] max;
+  private int size;
+  private boolean frozen;
+
+  /**
+   * Create empty vector with default capacity.
+   */
+  public DtDateTimeVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create empty vector with given initial capacity.
+   *
+   * @param capacity is number of values vector can hold before it has to grow
+   */
+  public DtDateTimeVector(int capacity) {
+    if (capacity < 0) {
+      throw new InternalException("Capacity of vector cannot be negative: " + capacity);
+    }
+    this.epochSeconds = new long[capacity];
+    var words = Bitmaps.wordCount(capacity);
+    this.priv = new long[words];
+    this.me = new long[words];
+    this.min = new long[words];
+    this.max = new long[words];
+    this.size = 0;
+    this.frozen = false;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new InternalException("Cannot modify frozen DtDateTimeVector");
+    }
+  }
+
+  private void checkIndex(int index) {
+    if ((index < 0) || (index >= size)) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  private void checkSameSize(DtDateTimeVector other) {
+    if (other.size != size) {
+      throw new InternalException("Vectors of different size (" + size + ", " + other.size
+          + ") cannot be combined");
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > epochSeconds.length) {
+      var newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, epochSeconds.length * 2));
+      epochSeconds = Arrays.copyOf(epochSeconds, newCapacity);
+      priv = Bitmaps.ensureCapacity(priv, newCapacity);
+      me = Bitmaps.ensureCapacity(me, newCapacity);
+      min = Bitmaps.ensureCapacity(min, newCapacity);
+      max = Bitmaps.ensureCapacity(max, newCapacity);
+    }
+  }
+
+  private void markSpecial(int index, long value) {
+    Bitmaps.set(priv, index, value == PRIV_SECONDS);
+    Bitmaps.set(me, index, value == ME_SECONDS);
+    Bitmaps.set(min, index, value == MIN_SECONDS);
+    Bitmaps.set(max, index, value == MAX_SECONDS);
+  }
+
+  private void addEpochSecond(long value) {
+    ensureCapacity(size + 1);
+    epochSeconds[size] = value;
+    markSpecial(size, value);
+    size++;
+  }
+
+  /**
+   * Append value to the end of vector.
+   *
+   * @param value is value to be appended
+   * @throws InternalException if vector is frozen
+   */
+  public void add(DtDateTime value) {
+    checkNotFrozen();
+    addEpochSecond(toEpochSecond(value));
+  }
+
+  /**
+   * Replace value on given position.
+   *
+   * @param index is position of value to be replaced
+   * @param value is new value
+   * @throws InternalException if vector is frozen
+   */
+  public void set(int index, DtDateTime value) {
+    checkNotFrozen();
+    checkIndex(index);
+    long newValue = toEpochSecond(value);
+    epochSeconds[index] = newValue;
+    markSpecial(index, newValue);
+  }
+
+  /**
+   * Freeze vector; frozen vector cannot be modified any more. Vector has to be safely published
+   * after freezing before it is read by other threads.
+   *
+   * @return this vector
+   */
+  public DtDateTimeVector freeze() {
+    frozen = true;
+    return this;
+  }
+
+  /**
+   * Value of field frozen.
+   *
+   * @return true if vector is frozen and cannot be modified
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Number of values in vector.
+   *
+   * @return number of values in vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Value on given position. Special values are returned as corresponding DtDateTime constants.
+   *
+   * @param index is position of value
+   * @return value on given position
+   */
+  public DtDateTime get(int index) {
+    checkIndex(index);
+    return ofEpochSecond(epochSeconds[index]);
+  }
+
+  /**
+   * Value on given position as seconds since 1970-01-01T00:00.
+   *
+   * @param index is position of value
+   * @return value on given position as seconds since 1970-01-01T00:00 (without time zone)
+   */
+  public long getEpochSecond(int index) {
+    checkIndex(index);
+    return epochSeconds[index];
+  }
+
+  /**
+   * Indicates if value on given position is PRIV.
+   *
+   * @param index is position of value
+   * @return true if value is PRIV
+   */
+  public boolean isPriv(int index) {
+    checkIndex(index);
+    return Bitmaps.get(priv, index);
+  }
+
+  /**
+   * Indicates if value on given position is ME.
+   *
+   * @param index is position of value
+   * @return true if value is ME
+   */
+  public boolean isME(int index) {
+    checkIndex(index);
+    return Bitmaps.get(me, index);
+  }
+
+  /**
+   * Indicates if value on given position is MIN.
+   *
+   * @param index is position of value
+   * @return true if value is MIN
+   */
+  public boolean isMin(int index) {
+    checkIndex(index);
+    return Bitmaps.get(min, index);
+  }
+
+  /**
+   * Indicates if value on given position is MAX.
+   *
+   * @param index is position of value
+   * @return true if value is MAX
+   */
+  public boolean isMax(int index) {
+    checkIndex(index);
+    return Bitmaps.get(max, index);
+  }
+
+  private boolean isSpecial(int index) {
+    return ((priv[index >>> 6] | me[index >>> 6] | min[index >>> 6] | max[index >>> 6])
+        & (1L << index)) != 0;
+  }
+
+  /**
+   * Indicates if value on given position is regular value (not PRIV, ME, MIN or MAX).
+   *
+   * @param index is position of value
+   * @return true if value is regular date-time value
+   */
+  public boolean isRegular(int index) {
+    checkIndex(index);
+    return !isSpecial(index);
+  }
+
+  /**
+   * Number of regular values in vector.
+   *
+   * @return number of values that are not PRIV, ME, MIN or MAX
+   */
+  public int countRegular() {
+    return size - Bitmaps.count(priv) - Bitmaps.count(me) - Bitmaps.count(min)
+        - Bitmaps.count(max);
+  }
+
+  /**
+   * Values of vector as array of DtDateTime objects.
+   *
+   * @return array containing values of vector
+   */
+  public DtDateTime[] toArray() {
+    var result = new DtDateTime[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = ofEpochSecond(epochSeconds[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Element-wise difference of values in days; evaluated as {@link DtDateTime#minus(DtDateTime)},
+   * including propagation of special values.
+   *
+   * @param minusValues are values to be subtracted; must have same size as this vector
+   * @return array of differences in days, special values represented by {@link DtDouble} values
+   */
+  public double[] minus(DtDateTimeVector minusValues) {
+    checkSameSize(minusValues);
+    var result = new double[size];
+    for (int i = 0; i < size; i++) {
+      if (isSpecial(i) || minusValues.isSpecial(i)) {
+        result[i] = minus(epochSeconds[i], minusValues.epochSeconds[i]);
+      } else {
+        result[i] = (epochSeconds[i] - minusValues.epochSeconds[i]) / (double) SECONDS_PER_DAY;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Difference of values and supplied date-time in days; evaluated as {@link
+   * DtDateTime#minus(DtDateTime)}, including propagation of special values.
+   *
+   * @param minusValue is value to be subtracted from all values
+   * @return array of differences in days, special values represented by {@link DtDouble} values
+   */
+  public double[] minus(DtDateTime minusValue) {
+    long minusSecond = toEpochSecond(minusValue);
+    var result = new double[size];
+    if (!minusValue.isRegular()) {
+      for (int i = 0; i < size; i++) {
+        result[i] = minus(epochSeconds[i], minusSecond);
+      }
+      return result;
+    }
+    for (int i = 0; i < size; i++) {
+      if (isSpecial(i)) {
+        result[i] = minus(epochSeconds[i], minusSecond);
+      } else {
+        result[i] = (epochSeconds[i] - minusSecond) / (double) SECONDS_PER_DAY;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Values shifted by given number of days; evaluated as {@link DtDateTime#plusDays(double)}.
+   * Special values are kept; special values of {@code daysToAdd} ({@link DtDouble} PRIV, ME, MIN,
+   * MAX) are propagated to regular values (PRIV and ME also to MIN and MAX values). Shifted value
+   * that falls on date of special value is replaced by that special value.
+   *
+   * @param daysToAdd is number of days to be added, can have fractional part
+   * @return new (not frozen) vector of shifted values
+   * @throws DateTimeException if any of shifted values exceeds supported range
+   */
+  public DtDateTimeVector plusDays(double daysToAdd) {
+    var result = new DtDateTimeVector(size);
+    if ((daysToAdd == DtDouble.PRIV) || (daysToAdd == DtDouble.ME)
+        || (daysToAdd == DtDouble.MIN) || (daysToAdd == DtDouble.MAX)) {
+      long special;
+      if (daysToAdd == DtDouble.PRIV) {
+        special = PRIV_SECONDS;
+      } else if (daysToAdd == DtDouble.ME) {
+        special = ME_SECONDS;
+      } else {
+        special = (daysToAdd == DtDouble.MIN) ? MIN_SECONDS : MAX_SECONDS;
+      }
+      for (int i = 0; i < size; i++) {
+        long value = epochSeconds[i];
+        if ((value == PRIV_SECONDS) || ((value == ME_SECONDS) && (special != PRIV_SECONDS))
+            || (isSpecial(i) && (special != PRIV_SECONDS) && (special != ME_SECONDS))) {
+          result.addEpochSecond(value);
+        } else {
+          result.addEpochSecond(special);
+        }
+      }
+      return result;
+    }
+    if (daysToAdd == 0) {
+      result.addAll(this);
+      return result;
+    }
+    // same rounding as DtDateTime - whole days are added to date, remainder to time
+    long wholeDays = Math.round(daysToAdd);
+    long offset = wholeDays * SECONDS_PER_DAY;
+    double remainder = (daysToAdd - wholeDays) * SECONDS_PER_DAY;
+    if (Math.abs(remainder) >= 0.5) {
+      offset += Math.round(remainder);
+    }
+    for (int i = 0; i < size; i++) {
+      long value = epochSeconds[i];
+      result.addEpochSecond(isSpecial(i) ? value : canonical(value + offset));
+    }
+    return result;
+  }
+
+  private void addAll(DtDateTimeVector other) {
+    ensureCapacity(size + other.size);
+    for (int i = 0; i < other.size; i++) {
+      addEpochSecond(other.epochSeconds[i]);
+    }
+  }
+
+  /**
+   * Date parts of values, usable for bucketing of values by day; evaluated as {@link
+   * DtDateTime#getDate()}. Special values are mapped to corresponding special date values.
+   *
+   * @return new (not frozen) vector of dates
+   */
+  public DtDateVector getDate() {
+    var result = new DtDateVector(size);
+    for (int i = 0; i < size; i++) {
+      result.addEpochDay((int) Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY));
+    }
+    return result;
+  }
+
+  /**
+   * Time parts of values; evaluated as {@link DtDateTime#getTime()}. PRIV and ME values are mapped
+   * to PRIV and ME times, MIN and MAX values to zero time.
+   *
+   * @return new (not frozen) vector of times in 0-24 hours interval
+   */
+  public DtTimeSVector getTime() {
+    var result = new DtTimeSVector(size);
+    for (int i = 0; i < size; i++) {
+      long value = epochSeconds[i];
+      if (value == PRIV_SECONDS) {
+        result.addSeconds(DtInteger.PRIV);
+      } else if (value == ME_SECONDS) {
+        result.addSeconds(DtInteger.ME);
+      } else {
+        result.addSeconds((int) Math.floorMod(value, SECONDS_PER_DAY));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Values truncated to whole hours, usable for bucketing of values by hour. Special values are
+   * kept, as they are always on whole hour.
+   *
+   * @return new (not frozen) vector of values truncated to whole hours
+   */
+  public DtDateTimeVector truncatedToHours() {
+    var result = new DtDateTimeVector(size);
+    for (int i = 0; i < size; i++) {
+      result.addEpochSecond(Math.floorDiv(epochSeconds[i], SECONDS_PER_HOUR) * SECONDS_PER_HOUR);
+    }
+    return result;
+  }
+
+  /**
+   * Values truncated to midnight, usable for bucketing of values by day. Special values are kept,
+   * as they are always on midnight.
+   *
+   * @return new (not frozen) vector of values truncated to whole days
+   */
+  public DtDateTimeVector truncatedToDays() {
+    var result = new DtDateTimeVector(size);
+    for (int i = 0; i < size; i++) {
+      result.addEpochSecond(Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY) * SECONDS_PER_DAY);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DtDateTimeVector)) {
+      return false;
+    }
+    DtDateTimeVector that = (DtDateTimeVector) o;
+    return Arrays.equals(epochSeconds, 0, size, that.epochSeconds, 0, that.size);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + Long.hashCode(epochSeconds[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "DtDateTimeVector{"
+        + "size=" + size
+        + ", frozen=" + frozen
+        + '}';
+  }
+}
@@ -0,0 +1,624 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Columnar vector of {@link DtDate} values, intended for bulk processing of date columns. Values
+ * are held as epoch days in {@code int} array; special values (PRIV, ME, MIN, MAX) are additionally
+ * marked in bitmaps, so they can be recognised without comparing values. Bulk operations work
+ * directly on primitive arrays and do not create {@code DtDate} or {@code LocalDate} instances for
+ * individual values.
+ *
+ * <p>Vector is growable until it is frozen; mutating operations on frozen vector throw {@link
+ * InternalException}. Vector is not thread safe and freezing does not publish its content to other
+ * threads: frozen vector can be read from multiple threads only after it has been safely
+ * published (e.g. via final or volatile field, concurrent collection or thread start).
+ */
+public final class DtDateVector {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  /**
+   * Days from 0000-01-01 to 1970-01-01, used to convert between calendar date and epoch day.
+   */
+  private static final long DAYS_0000_TO_1970 = 719528L;
+  /**
+   * Days in 400 year cycle of Gregorian calendar.
+   */
+  private static final long DAYS_PER_CYCLE = 146097L;
+  private static final int ME_EPOCH_DAY = (int) DtDate.ME.getLocalDate().toEpochDay();
+  private static final int PRIV_EPOCH_DAY = (int) DtDate.PRIV.getLocalDate().toEpochDay();
+  private static final int MIN_EPOCH_DAY = (int) DtDate.MIN.getLocalDate().toEpochDay();
+  private static final int MAX_EPOCH_DAY = (int) DtDate.MAX.getLocalDate().toEpochDay();
+
+  /**
+   * Vector containing supplied values.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtDateVector of(DtDate... values) {
+    var result = new DtDateVector(values.length);
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /**
+   * Vector containing supplied values, in order of collection's iterator.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtDateVector of(Collection<DtDate> values) {
+    var result = new DtDateVector(values.size());
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  private static boolean isDigit(char c) {
+    return (c >= '0') && (c <= '9');
+  }
+
+  private static int digit(String text, int pos) {
+    return text.charAt(pos) - '0';
+  }
+
+  private static boolean isLeapYear(int year) {
+    return ((year & 3) == 0) && (((year % 100) != 0) || ((year % 400) == 0));
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * Epoch day of given date; same calculation as {@link LocalDate#toEpochDay()}, limited to
+   * positive years.
+   */
+  private static int toEpochDay(int year, int month, int day) {
+    long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400
+        + (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year)) {
+        total--;
+      }
+    }
+    return (int) (total - DAYS_0000_TO_1970);
+  }
+
+  /**
+   * Parse date in strict form YYYY-MM-DD without going through {@link StringParser}.
+   *
+   * @return epoch day of parsed date, {@code Integer.MIN_VALUE} if text is not in strict form or
+   *     its value is not valid DtDate value
+   */
+  private static int parseStrictIso(String text) {
+    if ((text.length() != 10) || (text.charAt(4) != '-') || (text.charAt(7) != '-')) {
+      return Integer.MIN_VALUE;
+    }
+    for (int i = 0; i < 10; i++) {
+      if ((i != 4) && (i != 7) && !isDigit(text.charAt(i))) {
+        return Integer.MIN_VALUE;
+      }
+    }
+    int year = digit(text, 0) * 1000 + digit(text, 1) * 100 + digit(text, 2) * 10
+        + digit(text, 3);
+    int month = digit(text, 5) * 10 + digit(text, 6);
+    int day = digit(text, 8) * 10 + digit(text, 9);
+    if ((month < 1) || (month > 12) || (day < 1) || (day > lengthOfMonth(year, month))) {
+      return Integer.MIN_VALUE;
+    }
+    int epochDay = toEpochDay(year, month, day);
+    if ((epochDay < ME_EPOCH_DAY) || (epochDay > MAX_EPOCH_DAY)) {
+      return Integer.MIN_VALUE;
+    }
+    return epochDay;
+  }
+
+  /**
+   * Parse texts in ISO format to vector of dates. Texts in strict form YYYY-MM-DD are parsed
+   * directly to epoch days; other forms accepted by {@link DtDate#parseIso(String)} are delegated
+   * to it. Special values are recognised by their ISO representation, same as in {@link
+   * DtDate#parseIso(String)}.
+   *
+   * @param texts are texts to be parsed
+   * @return new (not frozen) vector containing parsed values
+   * @throws java.time.DateTimeException if any of texts is not valid ISO date or is outside of
+   *     range supported by DtDate
+   */
+  public static DtDateVector parse(String[] texts) {
+    var result = new DtDateVector(texts.length);
+    for (var text : texts) {
+      int epochDay = parseStrictIso(text);
+      if (epochDay == Integer.MIN_VALUE) {
+        epochDay = (int) DtDate.parseIso(text).getLocalDate().toEpochDay();
+      }
+      result.addEpochDay(epochDay);
+    }
+    return result;
+  }
+
+  private int[] epochDays;
+  private long[] priv;
+  private long[] me;
+  private long[] min;
+  private long[] max;
+  private int size;
+  private boolean frozen;
+
+  /**
+   * Create empty vector with default capacity.
+   */
+  public DtDateVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create empty vector with given initial capacity.
+   *
+   * @param capacity is number of values vector can hold before it has to grow
+   */
+  public DtDateVector(int capacity) {
+    if (capacity < 0) {
+      throw new InternalException("Capacity of vector cannot be negative: " + capacity);
+    }
+    this.epochDays = new int[capacity];
+    var words = Bitmaps.wordCount(capacity);
+    this.priv = new long[words];
+    this.me = new long[words];
+    this.min = new long[words];
+    this.max = new long[words];
+    this.size = 0;
+    this.frozen = false;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new InternalException("Cannot modify frozen DtDateVector");
+    }
+  }
+
+  private void checkIndex(int index) {
+    if ((index < 0) || (index >= size)) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > epochDays.length) {
+      var newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, epochDays.length * 2));
+      epochDays = Arrays.copyOf(epochDays, newCapacity);
+      priv = Bitmaps.ensureCapacity(priv, newCapacity);
+      me = Bitmaps.ensureCapacity(me, newCapacity);
+      min = Bitmaps.ensureCapacity(min, newCapacity);
+      max = Bitmaps.ensureCapacity(max, newCapacity);
+    }
+  }
+
+  private void markSpecial(int index, int epochDay) {
+    Bitmaps.set(priv, index, epochDay == PRIV_EPOCH_DAY);
+    Bitmaps.set(me, index, epochDay == ME_EPOCH_DAY);
+    Bitmaps.set(min, index, epochDay == MIN_EPOCH_DAY);
+    Bitmaps.set(max, index, epochDay == MAX_EPOCH_DAY);
+  }
+
+  /**
+   * Append value as epoch day, without checking if vector is frozen.
+   *
+   * @param epochDay is value to be appended, as number of days since 1970-01-01
+   */
+  void addEpochDay(int epochDay) {
+    ensureCapacity(size + 1);
+    epochDays[size] = epochDay;
+    markSpecial(size, epochDay);
+    size++;
+  }
+
+  /**
+   * Append value to the end of vector.
+   *
+   * @param value is value to be appended
+   * @throws InternalException if vector is frozen
+   */
+  public void add(DtDate value) {
+    checkNotFrozen();
+    addEpochDay((int) value.getLocalDate().toEpochDay());
+  }
+
+  /**
+   * Replace value on given position.
+   *
+   * @param index is position of value to be replaced
+   * @param value is new value
+   * @throws InternalException if vector is frozen
+   */
+  public void set(int index, DtDate value) {
+    checkNotFrozen();
+    checkIndex(index);
+    int epochDay = (int) value.getLocalDate().toEpochDay();
+    epochDays[index] = epochDay;
+    markSpecial(index, epochDay);
+  }
+
+  /**
+   * Freeze vector; frozen vector cannot be modified any more. Vector has to be safely published
+   * after freezing before it is read by other threads.
+   *
+   * @return this vector
+   */
+  public DtDateVector freeze() {
+    frozen = true;
+    return this;
+  }
+
+  /**
+   * Value of field frozen.
+   *
+   * @return true if vector is frozen and cannot be modified
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Number of values in vector.
+   *
+   * @return number of values in vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Value on given position. Special values are returned as corresponding DtDate constants.
+   *
+   * @param index is position of value
+   * @return value on given position
+   */
+  public DtDate get(int index) {
+    checkIndex(index);
+    if (Bitmaps.get(priv, index)) {
+      return DtDate.PRIV;
+    }
+    if (Bitmaps.get(me, index)) {
+      return DtDate.ME;
+    }
+    if (Bitmaps.get(min, index)) {
+      return DtDate.MIN;
+    }
+    if (Bitmaps.get(max, index)) {
+      return DtDate.MAX;
+    }
+    return DtDate.ofLocalDate(LocalDate.ofEpochDay(epochDays[index]));
+  }
+
+  /**
+   * Value on given position as epoch day.
+   *
+   * @param index is position of value
+   * @return value on given position as number of days since 1970-01-01
+   */
+  public int getEpochDay(int index) {
+    checkIndex(index);
+    return epochDays[index];
+  }
+
+  /**
+   * Indicates if value on given position is PRIV.
+   *
+   * @param index is position of value
+   * @return true if value is PRIV
+   */
+  public boolean isPriv(int index) {
+    checkIndex(index);
+    return Bitmaps.get(priv, index);
+  }
+
+  /**
+   * Indicates if value on given position is ME.
+   *
+   * @param index is position of value
+   * @return true if value is ME
+   */
+  public boolean isME(int index) {
+    checkIndex(index);
+    return Bitmaps.get(me, index);
+  }
+
+  /**
+   * Indicates if value on given position is MIN.
+   *
+   * @param index is position of value
+   * @return true if value is MIN
+   */
+  public boolean isMin(int index) {
+    checkIndex(index);
+    return Bitmaps.get(min, index);
+  }
+
+  /**
+   * Indicates if value on given position is MAX.
+   *
+   * @param index is position of value
+   * @return true if value is MAX
+   */
+  public boolean isMax(int index) {
+    checkIndex(index);
+    return Bitmaps.get(max, index);
+  }
+
+  private long specialWord(int word) {
+    return priv[word] | me[word] | min[word] | max[word];
+  }
+
+  /**
+   * Indicates if value on given position is regular value (not PRIV, ME, MIN or MAX).
+   *
+   * @param index is position of value
+   * @return true if value is regular date value
+   */
+  public boolean isRegular(int index) {
+    checkIndex(index);
+    return (specialWord(index >>> 6) & (1L << index)) == 0;
+  }
+
+  /**
+   * Number of regular values in vector.
+   *
+   * @return number of values that are not PRIV, ME, MIN or MAX
+   */
+  public int countRegular() {
+    return size - Bitmaps.count(priv) - Bitmaps.count(me) - Bitmaps.count(min)
+        - Bitmaps.count(max);
+  }
+
+  /**
+   * Values of vector as array of DtDate objects.
+   *
+   * @return array containing values of vector
+   */
+  public DtDate[] toArray() {
+    var result = new DtDate[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = get(i);
+    }
+    return result;
+  }
+
+  /**
+   * ISO representations of values in vector, as produced by {@link DtDate#toIso()}.
+   *
+   * @return array of texts in format YYYY-MM-DD
+   */
+  public String[] toIsoStrings() {
+    var result = new String[size];
+    var buffer = new char[10];
+    buffer[4] = '-';
+    buffer[7] = '-';
+    for (int i = 0; i < size; i++) {
+      // same calculation as LocalDate.ofEpochDay, limited to positive years
+      long zeroDay = epochDays[i] + DAYS_0000_TO_1970 - 60;
+      long year = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+      long doy = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+      if (doy < 0) {
+        year--;
+        doy = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+      }
+      int marchMonth0 = ((int) doy * 5 + 2) / 153;
+      int month = (marchMonth0 + 2) % 12 + 1;
+      int day = (int) doy - (marchMonth0 * 306 + 5) / 10 + 1;
+      int y = (int) year + marchMonth0 / 10;
+      buffer[0] = (char) ('0' + y / 1000);
+      buffer[1] = (char) ('0' + y / 100 % 10);
+      buffer[2] = (char) ('0' + y / 10 % 10);
+      buffer[3] = (char) ('0' + y % 10);
+      buffer[5] = (char) ('0' + month / 10);
+      buffer[6] = (char) ('0' + month % 10);
+      buffer[8] = (char) ('0' + day / 10);
+      buffer[9] = (char) ('0' + day % 10);
+      result[i] = new String(buffer);
+    }
+    return result;
+  }
+
+  private void rebuildBitmaps() {
+    Arrays.fill(priv, 0L);
+    Arrays.fill(me, 0L);
+    Arrays.fill(min, 0L);
+    Arrays.fill(max, 0L);
+    for (int i = 0; i < size; i++) {
+      markSpecial(i, epochDays[i]);
+    }
+  }
+
+  /**
+   * Sort values in ascending order, consistent with {@link DtDate#compareTo(DtDate)}.
+   *
+   * @throws InternalException if vector is frozen
+   */
+  public void sort() {
+    checkNotFrozen();
+    Arrays.sort(epochDays, 0, size);
+    rebuildBitmaps();
+  }
+
+  /**
+   * Search for value in vector; vector must be sorted (see {@link #sort()}), otherwise result is
+   * undefined.
+   *
+   * @param key is value to be searched for
+   * @return index of value if it is present in vector, {@code (-(insertion point) - 1)} otherwise,
+   *     same as {@link Arrays#binarySearch(int[], int)}
+   */
+  public int binarySearch(DtDate key) {
+    return Arrays.binarySearch(epochDays, 0, size, (int) key.getLocalDate().toEpochDay());
+  }
+
+  private int minEpochDay() {
+    if (size == 0) {
+      throw new NoSuchElementException("Cannot evaluate minimum of empty DtDateVector");
+    }
+    int result = epochDays[0];
+    for (int i = 1; i < size; i++) {
+      if (epochDays[i] < result) {
+        result = epochDays[i];
+      }
+    }
+    return result;
+  }
+
+  private int maxEpochDay() {
+    if (size == 0) {
+      throw new NoSuchElementException("Cannot evaluate maximum of empty DtDateVector");
+    }
+    int result = epochDays[0];
+    for (int i = 1; i < size; i++) {
+      if (epochDays[i] > result) {
+        result = epochDays[i];
+      }
+    }
+    return result;
+  }
+
+  private static DtDate ofEpochDay(int epochDay) {
+    if (epochDay == PRIV_EPOCH_DAY) {
+      return DtDate.PRIV;
+    }
+    if (epochDay == ME_EPOCH_DAY) {
+      return DtDate.ME;
+    }
+    if (epochDay == MIN_EPOCH_DAY) {
+      return DtDate.MIN;
+    }
+    if (epochDay == MAX_EPOCH_DAY) {
+      return DtDate.MAX;
+    }
+    return DtDate.ofLocalDate(LocalDate.ofEpochDay(epochDay));
+  }
+
+  /**
+   * Minimal value in vector, using ordering of {@link DtDate#compareTo(DtDate)}; note that special
+   * values ME, PRIV and MIN precede all regular values.
+   *
+   * @return minimal value in vector
+   * @throws NoSuchElementException if vector is empty
+   */
+  public DtDate min() {
+    return ofEpochDay(minEpochDay());
+  }
+
+  /**
+   * Maximal value in vector, using ordering of {@link DtDate#compareTo(DtDate)}; note that special
+   * value MAX follows all regular values.
+   *
+   * @return maximal value in vector
+   * @throws NoSuchElementException if vector is empty
+   */
+  public DtDate max() {
+    return ofEpochDay(maxEpochDay());
+  }
+
+  /**
+   * Number of values in given range.
+   *
+   * @param fromInclusive is lower bound of range (inclusive)
+   * @param toExclusive   is upper bound of range (exclusive)
+   * @return number of values that fall into range
+   */
+  public int countRange(DtDate fromInclusive, DtDate toExclusive) {
+    int from = (int) fromInclusive.getLocalDate().toEpochDay();
+    int to = (int) toExclusive.getLocalDate().toEpochDay();
+    int result = 0;
+    for (int i = 0; i < size; i++) {
+      int epochDay = epochDays[i];
+      if ((epochDay >= from) && (epochDay < to)) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Values in given range, in their original order. Range is evaluated using ordering of {@link
+   * DtDate#compareTo(DtDate)}, thus special values are included if they fall into range.
+   *
+   * @param fromInclusive is lower bound of range (inclusive)
+   * @param toExclusive   is upper bound of range (exclusive)
+   * @return new (not frozen) vector containing values that fall into range
+   */
+  public DtDateVector filterRange(DtDate fromInclusive, DtDate toExclusive) {
+    int from = (int) fromInclusive.getLocalDate().toEpochDay();
+    int to = (int) toExclusive.getLocalDate().toEpochDay();
+    var result = new DtDateVector(countRange(fromInclusive, toExclusive));
+    for (int i = 0; i < size; i++) {
+      int epochDay = epochDays[i];
+      if ((epochDay >= from) && (epochDay < to)) {
+        result.addEpochDay(epochDay);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Regular values (not PRIV, ME, MIN or MAX), in their original order.
+   *
+   * @return new (not frozen) vector containing regular values
+   */
+  public DtDateVector filterRegular() {
+    var result = new DtDateVector(countRegular());
+    for (int i = 0; i < size; i++) {
+      if ((specialWord(i >>> 6) & (1L << i)) == 0) {
+        result.addEpochDay(epochDays[i]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DtDateVector)) {
+      return false;
+    }
+    DtDateVector that = (DtDateVector) o;
+    return Arrays.equals(epochDays, 0, size, that.epochDays, 0, that.size);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + epochDays[i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "DtDateVector{"
+        + "size=" + size
+        + ", frozen=" + frozen
+        + '}';
+  }
+}
@@ -0,0 +1,456 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import java.util.Arrays;
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Columnar vector of {@link DtTimeS} values, intended for bulk processing of time columns. Values
+ * are held as seconds in {@code int} array, special values (PRIV, ME, MIN, MAX) as their {@link
+ * DtInteger} counterparts; special values are additionally marked in bitmaps. Bulk operations
+ * follow rules of corresponding {@link DtTimeS} methods (including propagation of special values),
+ * but work directly on primitive arrays without creating {@code DtTimeS} instances for individual
+ * values.
+ *
+ * <p>Vector is growable until it is frozen; mutating operations on frozen vector throw {@link
+ * InternalException}. Vector is not thread safe and freezing does not publish its content to other
+ * threads: frozen vector can be read from multiple threads only after it has been safely
+ * published (e.g. via final or volatile field, concurrent collection or thread start).
+ */
+public final class DtTimeSVector {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final int SECONDS_PER_HOUR = 3600;
+  private static final int PRIV_SECONDS = DtInteger.PRIV;
+  private static final int ME_SECONDS = DtInteger.ME;
+  private static final int MIN_SECONDS = DtInteger.MIN;
+  private static final int MAX_SECONDS = DtInteger.MAX;
+
+  /**
+   * Vector containing supplied values.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtTimeSVector of(DtTimeS... values) {
+    var result = new DtTimeSVector(values.length);
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /**
+   * Vector containing supplied values, in order of collection's iterator.
+   *
+   * @param values are values to be placed in vector
+   * @return new (not frozen) vector containing supplied values
+   */
+  public static DtTimeSVector of(Collection<DtTimeS> values) {
+    var result = new DtTimeSVector(values.size());
+    for (var value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /**
+   * Seconds representation of time value, special values are represented by corresponding {@link
+   * DtInteger} values.
+   */
+  private static int toSeconds(DtTimeS value) {
+    if (value.isPriv()) {
+      return PRIV_SECONDS;
+    }
+    if (value.isME()) {
+      return ME_SECONDS;
+    }
+    if (value.isMin()) {
+      return MIN_SECONDS;
+    }
+    if (value.isMax()) {
+      return MAX_SECONDS;
+    }
+    return (int) value.toSeconds();
+  }
+
+  /**
+   * Seconds representation of result of time arithmetic; same evaluation as {@link
+   * DtTimeS#ofSeconds(int)}, values outside of regular range are replaced by MIN or MAX.
+   */
+  private static int canonical(long seconds) {
+    if ((seconds > MIN_SECONDS) && (seconds < MAX_SECONDS)) {
+      return (int) seconds;
+    }
+    if ((seconds == PRIV_SECONDS) || (seconds == ME_SECONDS)) {
+      return (int) seconds;
+    }
+    return (seconds <= MIN_SECONDS) ? MIN_SECONDS : MAX_SECONDS;
+  }
+
+  /**
+   * Number of days in regular time value; same evaluation as {@link DtTimeS#getDays()}.
+   */
+  private static int days(int seconds) {
+    if (seconds >= 0) {
+      return seconds / SECONDS_PER_DAY;
+    }
+    return (seconds - 86359) / SECONDS_PER_DAY;
+  }
+
+  private int[] seconds;
+  private long[] priv;
+  private long[] me;
+  private long[] min;
+  private long[] max;
+  private int size;
+  private boolean frozen;
+
+  /**
+   * Create empty vector with default capacity.
+   */
+  public DtTimeSVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create empty vector with given initial capacity.
+   *
+   * @param capacity is number of values vector can hold before it has to grow
+   */
+  public DtTimeSVector(int capacity) {
+    if (capacity < 0) {
+      throw new InternalException("Capacity of vector cannot be negative: " + capacity);
+    }
+    this.seconds = new int[capacity];
+    var words = Bitmaps.wordCount(capacity);
+    this.priv = new long[words];
+    this.me = new long[words];
+    this.min = new long[words];
+    this.max = new long[words];
+    this.size = 0;
+    this.frozen = false;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new InternalException("Cannot modify frozen DtTimeSVector");
+    }
+  }
+
+  private void checkIndex(int index) {
+    if ((index < 0) || (index >= size)) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > seconds.length) {
+      var newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, seconds.length * 2));
+      seconds = Arrays.copyOf(seconds, newCapacity);
+      priv = Bitmaps.ensureCapacity(priv, newCapacity);
+      me = Bitmaps.ensureCapacity(me, newCapacity);
+      min = Bitmaps.ensureCapacity(min, newCapacity);
+      max = Bitmaps.ensureCapacity(max, newCapacity);
+    }
+  }
+
+  private void markSpecial(int index, int value) {
+    Bitmaps.set(priv, index, value == PRIV_SECONDS);
+    Bitmaps.set(me, index, value == ME_SECONDS);
+    Bitmaps.set(min, index, value == MIN_SECONDS);
+    Bitmaps.set(max, index, value == MAX_SECONDS);
+  }
+
+  /**
+   * Append value in seconds, without checking if vector is frozen; special values are expected in
+   * their {@link DtInteger} representation.
+   *
+   * @param value is time in seconds to be appended
+   */
+  void addSeconds(int value) {
+    ensureCapacity(size + 1);
+    seconds[size] = value;
+    markSpecial(size, value);
+    size++;
+  }
+
+  /**
+   * Append value to the end of vector.
+   *
+   * @param value is value to be appended
+   * @throws InternalException if vector is frozen
+   */
+  public void add(DtTimeS value) {
+    checkNotFrozen();
+    addSeconds(toSeconds(value));
+  }
+
+  /**
+   * Replace value on given position.
+   *
+   * @param index is position of value to be replaced
+   * @param value is new value
+   * @throws InternalException if vector is frozen
+   */
+  public void set(int index, DtTimeS value) {
+    checkNotFrozen();
+    checkIndex(index);
+    int newValue = toSeconds(value);
+    seconds[index] = newValue;
+    markSpecial(index, newValue);
+  }
+
+  /**
+   * Freeze vector; frozen vector cannot be modified any more. Vector has to be safely published
+   * after freezing before it is read by other threads.
+   *
+   * @return this vector
+   */
+  public DtTimeSVector freeze() {
+    frozen = true;
+    return this;
+  }
+
+  /**
+   * Value of field frozen.
+   *
+   * @return true if vector is frozen and cannot be modified
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Number of values in vector.
+   *
+   * @return number of values in vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Value on given position. Special values are returned as corresponding DtTimeS constants.
+   *
+   * @param index is position of value
+   * @return value on given position
+   */
+  public DtTimeS get(int index) {
+    checkIndex(index);
+    return DtTimeS.ofSeconds(seconds[index]);
+  }
+
+  /**
+   * Value on given position in seconds; special values are returned as corresponding {@link
+   * DtInteger} values.
+   *
+   * @param index is position of value
+   * @return value on given position in seconds
+   */
+  public int getSeconds(int index) {
+    checkIndex(index);
+    return seconds[index];
+  }
+
+  /**
+   * Indicates if value on given position is PRIV.
+   *
+   * @param index is position of value
+   * @return true if value is PRIV
+   */
+  public boolean isPriv(int index) {
+    checkIndex(index);
+    return Bitmaps.get(priv, index);
+  }
+
+  /**
+   * Indicates if value on given position is ME.
+   *
+   * @param index is position of value
+   * @return true if value is ME
+   */
+  public boolean isME(int index) {
+    checkIndex(index);
+    return Bitmaps.get(me, index);
+  }
+
+  /**
+   * Indicates if value on given position is MIN.
+   *
+   * @param index is position of value
+   * @return true if value is MIN
+   */
+  public boolean isMin(int index) {
+    checkIndex(index);
+    return Bitmaps.get(min, index);
+  }
+
+  /**
+   * Indicates if value on given position is MAX.
+   *
+   * @param index is position of value
+   * @return true if value is MAX
+   */
+  public boolean isMax(int index) {
+    checkIndex(index);
+    return Bitmaps.get(max, index);
+  }
+
+  private boolean isSpecial(int index) {
+    return ((priv[index >>> 6] | me[index >>> 6] | min[index >>> 6] | max[index >>> 6])
+        & (1L << index)) != 0;
+  }
+
+  /**
+   * Indicates if value on given position is regular value (not PRIV, ME, MIN or MAX).
+   *
+   * @param index is position of value
+   * @return true if value is regular time value
+   */
+  public boolean isRegular(int index) {
+    checkIndex(index);
+    return !isSpecial(index);
+  }
+
+  /**
+   * Number of regular values in vector.
+   *
+   * @return number of values that are not PRIV, ME, MIN or MAX
+   */
+  public int countRegular() {
+    return size - Bitmaps.count(priv) - Bitmaps.count(me) - Bitmaps.count(min)
+        - Bitmaps.count(max);
+  }
+
+  /**
+   * Values of vector as array of DtTimeS objects.
+   *
+   * @return array containing values of vector
+   */
+  public DtTimeS[] toArray() {
+    var result = new DtTimeS[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = DtTimeS.ofSeconds(seconds[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Add or subtract given amount of days from all values; evaluated as {@link
+   * DtTimeS#plusDays(double)}. PRIV and ME values are kept, as are MIN and MAX values; special
+   * values of {@code daysToAdd} ({@link DtDouble} PRIV, ME, MIN, MAX) are propagated to result.
+   *
+   * @param daysToAdd is number of days that should be added to values, can have fractional part
+   * @return new (not frozen) vector of shifted values
+   */
+  public DtTimeSVector plusDays(double daysToAdd) {
+    var result = new DtTimeSVector(size);
+    if ((daysToAdd == DtDouble.PRIV) || (daysToAdd == DtDouble.ME)
+        || (daysToAdd == DtDouble.MIN) || (daysToAdd == DtDouble.MAX)) {
+      int special = (int) daysToAdd;
+      for (int i = 0; i < size; i++) {
+        int value = seconds[i];
+        if ((value == PRIV_SECONDS) || ((value == ME_SECONDS) && (special != PRIV_SECONDS))
+            || ((value == MIN_SECONDS) && (special == MAX_SECONDS))
+            || ((value == MAX_SECONDS) && (special == MIN_SECONDS))) {
+          result.addSeconds(value);
+        } else {
+          result.addSeconds(special);
+        }
+      }
+      return result;
+    }
+    double offset = daysToAdd * SECONDS_PER_DAY;
+    boolean shift = Math.abs(offset) >= 0.5;
+    for (int i = 0; i < size; i++) {
+      int value = seconds[i];
+      if (shift && !isSpecial(i)) {
+        value = canonical(Math.round(value + offset));
+      }
+      result.addSeconds(value);
+    }
+    return result;
+  }
+
+  /**
+   * Values with whole days removed; evaluated as {@link DtTimeS#getTime24()}. PRIV and ME values
+   * are kept, MIN and MAX values are replaced by zero.
+   *
+   * @return new (not frozen) vector of values clipped to 0-24 hours interval
+   */
+  public DtTimeSVector getTime24() {
+    var result = new DtTimeSVector(size);
+    for (int i = 0; i < size; i++) {
+      int value = seconds[i];
+      if ((value == MIN_SECONDS) || (value == MAX_SECONDS)) {
+        value = 0;
+      } else if (!isSpecial(i)) {
+        value -= SECONDS_PER_DAY * days(value);
+      }
+      result.addSeconds(value);
+    }
+    return result;
+  }
+
+  /**
+   * Number of days in each value, usable for bucketing of values by day; evaluated as {@link
+   * DtTimeS#getDays()}. Special values are returned as corresponding {@link DtInteger} values.
+   *
+   * @return array with number of days for each value
+   */
+  public int[] getDays() {
+    var result = new int[size];
+    for (int i = 0; i < size; i++) {
+      int value = seconds[i];
+      result[i] = isSpecial(i) ? value : days(value);
+    }
+    return result;
+  }
+
+  /**
+   * Number of hours in each value, usable for bucketing of values by hour; evaluated as {@link
+   * DtTimeS#getHours()}. Special values are returned as corresponding {@link DtInteger} values.
+   *
+   * @return array with number of hours for each value
+   */
+  public int[] getHours() {
+    var result = new int[size];
+    for (int i = 0; i < size; i++) {
+      int value = seconds[i];
+      result[i] = isSpecial(i) ? value : (value / SECONDS_PER_HOUR);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DtTimeSVector)) {
+      return false;
+    }
+    DtTimeSVector that = (DtTimeSVector) o;
+    return Arrays.equals(seconds, 0, size, that.seconds, 0, that.size);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + seconds[i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "DtTimeSVector{"
+        + "size=" + size
+        + ", frozen=" + frozen
+        + '}';
+  }
+}
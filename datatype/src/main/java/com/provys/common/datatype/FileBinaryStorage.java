@@ -0,0 +1,255 @@
+package com.provys.common.datatype;
+
+import com.google.errorprone.annotations.Immutable;
+import com.provys.common.exception.InternalException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Binary storage backed by temporary file. Unlike memory mapped storage, content is not mapped to
+ * memory and is read on demand using positional reads; file storage is thus not limited by 2 GB
+ * and does not consume address space. Channel is opened with delete on close option and it is
+ * closed - and temporary file removed - when storage is released via {@link #release()} (by owning
+ * {@link BinaryDataSpool}) or when storage and all its slices become unreachable, whichever comes
+ * first.
+ */
+@Immutable
+final class FileBinaryStorage implements BinaryStorage {
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  /**
+   * Handle of temporary file. Handle is shared by storage and all its slices and file is closed
+   * when handle is released or becomes unreachable.
+   */
+  @Immutable
+  private static final class FileHandle {
+
+    @SuppressWarnings("Immutable") // channel is only used for positional reads
+    private final FileChannel channel;
+    @SuppressWarnings("Immutable") // cleanable is thread safe and runs its action at most once
+    private final Cleaner.Cleanable cleanable;
+
+    FileHandle(FileChannel channel) {
+      this.channel = channel;
+      this.cleanable = CLEANER.register(this, new ChannelCloser(channel));
+    }
+
+    void release() {
+      cleanable.clean();
+    }
+  }
+
+  /**
+   * Closes channel when file handle becomes unreachable. Must not reference handle itself.
+   */
+  private static final class ChannelCloser implements Runnable {
+
+    private final FileChannel channel;
+
+    ChannelCloser(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void run() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // nothing we can do in cleaner, file is removed on JVM exit at the latest
+      }
+    }
+  }
+
+  private final FileHandle handle;
+  private final long offset;
+  private final long length;
+
+  private FileBinaryStorage(FileHandle handle, long offset, long length) {
+    this.handle = handle;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Create storage on supplied channel. Channel passes to ownership of created storage, it must
+   * not be written to after this call.
+   *
+   * @param channel is channel to file with content
+   * @param length  is length of content
+   */
+  FileBinaryStorage(FileChannel channel, long length) {
+    this(new FileHandle(channel), 0, length);
+  }
+
+  private int read(ByteBuffer target, long position) throws IOException {
+    try {
+      int read = handle.channel.read(target, offset + position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of binary storage file");
+      }
+      return read;
+    } finally {
+      Reference.reachabilityFence(handle);
+    }
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Stream reading content of storage. References storage, thus it keeps storage reachable and
+   * channel open while stream is used.
+   */
+  private final class StorageInputStream extends InputStream {
+
+    private long position;
+
+    @Override
+    public int read() throws IOException {
+      var target = new byte[1];
+      return (read(target, 0, 1) < 0) ? -1 : (target[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int count) throws IOException {
+      Objects.checkFromIndexSize(offset, count, target.length);
+      if (count == 0) {
+        return 0;
+      }
+      if (position >= length) {
+        return -1;
+      }
+      int read = FileBinaryStorage.this.read(
+          ByteBuffer.wrap(target, offset, (int) Math.min(count, length - position)), position);
+      position += read;
+      return read;
+    }
+
+    @Override
+    public long skip(long n) {
+      long count = Math.max(0, Math.min(n, length - position));
+      position += count;
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(length - position, Integer.MAX_VALUE);
+    }
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return new StorageInputStream();
+  }
+
+  @Override
+  public void copyTo(byte[] target, int offset) {
+    Objects.checkFromIndexSize(offset, (int) length, target.length);
+    var buffer = ByteBuffer.wrap(target, offset, (int) length);
+    try {
+      while (buffer.hasRemaining()) {
+        read(buffer, buffer.position() - offset);
+      }
+    } catch (IOException e) {
+      throw new InternalException("Failed to read binary data from temporary file", e);
+    }
+  }
+
+  @Override
+  public void writeTo(OutputStream outputStream) throws IOException {
+    getInputStream().transferTo(outputStream);
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel target) throws IOException {
+    try {
+      long position = 0;
+      while (position < length) {
+        // transferTo can use zero-copy transfer (e.g. sendfile) when supported by target
+        long transferred = handle.channel.transferTo(offset + position, length - position,
+            target);
+        if (transferred == 0) {
+          // target does not accept direct transfer, write rest via buffer
+          writeBuffered(target, position);
+          return;
+        }
+        position += transferred;
+      }
+    } finally {
+      Reference.reachabilityFence(handle);
+    }
+  }
+
+  private void writeBuffered(WritableByteChannel target, long from) throws IOException {
+    var buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+    long position = from;
+    while (position < length) {
+      buffer.limit((int) Math.min(buffer.capacity(), length - position));
+      position += read(buffer, position);
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        target.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  @Override
+  public byte byteAt(long index) {
+    var target = ByteBuffer.allocate(1);
+    try {
+      read(target, index);
+    } catch (IOException e) {
+      throw new InternalException("Failed to read binary data from temporary file", e);
+    }
+    return target.get(0);
+  }
+
+  @Override
+  public BinaryStorage slice(long sliceOffset, long sliceLength) {
+    return new FileBinaryStorage(handle, offset + sliceOffset, sliceLength);
+  }
+
+  @Override
+  public ByteBuffer asReadOnlyBuffer() {
+    if (length > Integer.MAX_VALUE) {
+      throw new InternalException("Cannot map binary data bigger than 2 GB to memory");
+    }
+    try {
+      // mapping stays valid even after channel is closed
+      return handle.channel.map(MapMode.READ_ONLY, offset, length);
+    } catch (IOException e) {
+      throw new InternalException("Failed to map binary data from temporary file", e);
+    } finally {
+      Reference.reachabilityFence(handle);
+    }
+  }
+
+  /**
+   * Close temporary file, thus removing it. As file is shared by all slices of storage, they are
+   * released too. Only to be called by owner of storage ({@link BinaryDataSpool}).
+   */
+  void release() {
+    handle.release();
+  }
+
+  @Override
+  public String toString() {
+    return "FileBinaryStorage{"
+        + "length=" + length
+        + '}';
+  }
+}
@@ -20,5 +20,7 @@ public class JacksonModule extends SimpleModule {
     addDeserializer(DtTimeS.class, new DtTimeSDeserializer());
     addSerializer(new DtUidSerializer());
     addDeserializer(DtUid.class, new DtUidDeserializer());
+    addSerializer(new DtBinaryDataSerializer());
+    addDeserializer(DtBinaryData.class, new DtBinaryDataDeserializer());
   }
 }
@@ -2,6 +2,7 @@ package com.provys.common.types;
 
 import com.google.errorprone.annotations.Immutable;
 import java.io.Serializable;
+import java.util.Set;
 import org.checkerframework.checker.nullness.qual.PolyNull;
 
 /**
@@ -58,6 +59,17 @@ public interface TypeMap extends Serializable {
    */
   <T> @PolyNull T convert(Class<T> targetType, @PolyNull Object value);
 
+  /**
+   * Retrieve all types registered in this type map. Does not include type representing any value.
+   * Default implementation returns empty set; implementations that can enumerate their types
+   * should override it.
+   *
+   * @return set of registered types
+   */
+  default Set<Class<? extends Serializable>> getTypes() {
+    return Set.of();
+  }
+
   /**
    * Retrieve name representing supplied class. Without irregular mapping, used for Object.class.
    *
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.ServiceLoader.Provider;
 import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
@@ -276,6 +277,11 @@ public final class TypeMapImpl implements TypeMap {
     return convertInt(targetType, value);
   }
 
+  @Override
+  public Set<Class<? extends Serializable>> getTypes() {
+    return Set.copyOf(typesByName.values());
+  }
+
   @Override
   public String getName(Class<?> type) {
     var result = namesByType.get(type);
@@ -0,0 +1,65 @@
+package com.provys.common.datatype;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.provys.common.exception.InternalException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class BinaryDataSpoolTest {
+
+  private static byte[] content(int length) {
+    var result = new byte[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = (byte) (i * 13 + 5);
+    }
+    return result;
+  }
+
+  @Test
+  void getDataTest() throws IOException {
+    var data = content(10_000);
+    try (var spool = BinaryDataSpool.of(new ByteArrayInputStream(data))) {
+      assertThat(spool.getData().getData()).isEqualTo(data);
+      assertThat(spool.getData()).isEqualTo(new DtBinaryData(data));
+    }
+  }
+
+  @Test
+  void closeTest() throws IOException {
+    var spool = BinaryDataSpool.of(new ByteArrayInputStream(content(10_000)));
+    var value = spool.getData();
+    var slice = value.slice(10, 100);
+    spool.close();
+    assertThatThrownBy(spool::getData).isInstanceOf(InternalException.class);
+    assertThatThrownBy(value::getData).isInstanceOf(InternalException.class);
+    assertThatThrownBy(() -> slice.byteAt(0)).isInstanceOf(InternalException.class);
+    assertThatCode(spool::close).doesNotThrowAnyException();
+  }
+
+  @Test
+  void closeEmptyTest() throws IOException {
+    var spool = BinaryDataSpool.of(new ByteArrayInputStream(new byte[0]));
+    var value = spool.getData();
+    spool.close();
+    assertThat(value.getLength()).isZero();
+  }
+
+  @Test
+  void internTest() throws IOException {
+    var data = content(10_000);
+    var store = new BinaryDataStore();
+    var spool = BinaryDataSpool.of(new ByteArrayInputStream(data));
+    var spooled = spool.getData();
+    // file backed data are neither registered nor replaced by stored instance
+    assertThat(store.intern(spooled)).isSameAs(spooled);
+    assertThat(store.size()).isZero();
+    var stored = store.of(data);
+    assertThat(store.intern(spooled)).isSameAs(spooled);
+    spool.close();
+    // closing spool does not affect data held by store
+    assertThat(store.of(data)).isSameAs(stored);
+    assertThat(stored.getData()).isEqualTo(data);
+  }
+}
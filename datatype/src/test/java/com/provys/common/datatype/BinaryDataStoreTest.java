@@ -0,0 +1,55 @@
+package com.provys.common.datatype;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class BinaryDataStoreTest {
+
+  private static byte[] content(int length) {
+    var result = new byte[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = (byte) (i * 17 + 3);
+    }
+    return result;
+  }
+
+  static Stream<Object[]> digestTest() {
+    return Stream.of(
+        new Object[]{"", "00000000000000000000000000000000"}
+        , new Object[]{"hello", "029bbd41b3a7d8cb191dae486a901e5b"}
+        , new Object[]{"The quick brown fox jumps over the lazy dog",
+            "6c1b07bc7bbc4be347939ac4a93c437a"}
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void digestTest(String value, String digest) throws IOException {
+    assertThat(BinaryDigest.of(new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8)))
+        .toString()).isEqualTo(digest);
+  }
+
+  @Test
+  void internTest() throws IOException {
+    var store = new BinaryDataStore();
+    var data = content(20_000);
+    var first = store.of(data);
+    assertThat(store.of(data.clone())).isSameAs(first);
+    assertThat(store.read(new ByteArrayInputStream(data))).isSameAs(first);
+    assertThat(store.intern(DtBinaryData.spool(new ByteArrayInputStream(data)))).isSameAs(first);
+    var other = data.clone();
+    other[5]++;
+    var second = store.of(other);
+    assertThat(second).isNotSameAs(first).isNotEqualTo(first);
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.getHitCount()).isEqualTo(3);
+    assertThat(store.getMissCount()).isEqualTo(2);
+  }
+}
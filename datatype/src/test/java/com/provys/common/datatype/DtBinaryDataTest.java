@@ -0,0 +1,436 @@
+package com.provys.common.datatype;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.provys.common.exception.InternalException;
+import com.provys.common.jackson.JacksonMappers;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class DtBinaryDataTest {
+
+  private static byte[] content(int length) {
+    var result = new byte[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = (byte) (i * 31 + 7);
+    }
+    return result;
+  }
+
+  private static byte[] xmlContent(int count) {
+    var builder = new StringBuilder("<rows>");
+    for (int i = 0; i < count; i++) {
+      builder.append("<row><id>").append(i).append("</id><name>Name ").append(i % 7)
+          .append("</name></row>");
+    }
+    return builder.append("</rows>").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static DtBinaryData mapped(byte[] data) throws IOException {
+    try (var outputStream = new BinaryStorageOutputStream(0, true)) {
+      outputStream.write(data);
+      return new DtBinaryData(outputStream.toStorage());
+    }
+  }
+
+  static Stream<Object[]> storageTest() throws IOException {
+    var data = content(100_000);
+    return Stream.of(
+        new Object[]{new DtBinaryData(data), data}
+        , new Object[]{new DtBinaryData(BufferBinaryStorage.directOf(data, data.length)), data}
+        , new Object[]{mapped(data), data}
+        , new Object[]{new DtBinaryData(new ByteArrayInputStream(data)), data}
+        , new Object[]{DtBinaryData.spool(new ByteArrayInputStream(data)), data}
+        , new Object[]{new DtBinaryData(new byte[0]), new byte[0]}
+        , new Object[]{DtBinaryData.spool(new ByteArrayInputStream(new byte[0])), new byte[0]}
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void storageTest(DtBinaryData value, byte[] data) throws IOException {
+    assertThat(value.getLength()).isEqualTo(data.length);
+    assertThat(value.getData()).isEqualTo(data);
+    assertThat(value.getInputStream().readAllBytes()).isEqualTo(data);
+    assertThat(value.hashCode()).isEqualTo(Arrays.hashCode(data));
+    assertThat(value).isEqualTo(new DtBinaryData(data));
+  }
+
+  static Stream<Object[]> transferToTest() throws IOException {
+    var data = content(100_000);
+    return Stream.of(
+        new Object[]{new DtBinaryData(data), data}
+        , new Object[]{mapped(data), data}
+        , new Object[]{DtBinaryData.spool(new ByteArrayInputStream(data)), data}
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void transferToTest(DtBinaryData value, byte[] data) throws IOException {
+    var outputStream = new ByteArrayOutputStream();
+    assertThat(value.transferTo(outputStream)).isEqualTo(data.length);
+    assertThat(outputStream.toByteArray()).isEqualTo(data);
+    var channelStream = new ByteArrayOutputStream();
+    try (var channel = Channels.newChannel(channelStream)) {
+      assertThat(value.transferTo(channel)).isEqualTo(data.length);
+    }
+    assertThat(channelStream.toByteArray()).isEqualTo(data);
+  }
+
+  @Test
+  void transferToNonBlockingTest() throws IOException {
+    var value = new DtBinaryData(content(100));
+    var pipe = Pipe.open();
+    try (var sink = pipe.sink(); var source = pipe.source()) {
+      sink.configureBlocking(false);
+      assertThatThrownBy(() -> value.transferTo(sink)).isInstanceOf(InternalException.class);
+    }
+  }
+
+  @Test
+  void transferToNoProgressTest() throws IOException {
+    var data = content(100_000);
+    var value = DtBinaryData.spool(new ByteArrayInputStream(data));
+    var channelStream = new ByteArrayOutputStream();
+    var target = Channels.newChannel(channelStream);
+    // channel accepting no data on first write, file storage has to fall back to buffered write
+    var channel = new WritableByteChannel() {
+      private boolean first = true;
+
+      @Override
+      public int write(ByteBuffer source) throws IOException {
+        if (first) {
+          first = false;
+          return 0;
+        }
+        return target.write(source);
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    assertThat(value.transferTo(channel)).isEqualTo(data.length);
+    assertThat(channelStream.toByteArray()).isEqualTo(data);
+  }
+
+  static Stream<Object[]> viewTest() throws IOException {
+    var data = content(100_000);
+    return Stream.of(
+        new Object[]{new DtBinaryData(data), data}
+        , new Object[]{new DtBinaryData(BufferBinaryStorage.directOf(data, data.length)), data}
+        , new Object[]{mapped(data), data}
+        , new Object[]{DtBinaryData.spool(new ByteArrayInputStream(data)), data}
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void viewTest(DtBinaryData value, byte[] data) {
+    assertThat(value.byteAt(12345)).isEqualTo(data[12345]);
+    var buffer = value.asReadOnlyByteBuffer();
+    assertThat(buffer.isReadOnly()).isTrue();
+    assertThat(buffer).isEqualTo(ByteBuffer.wrap(data));
+    var slice = value.slice(1000, 5000);
+    assertThat(slice.getData()).isEqualTo(Arrays.copyOfRange(data, 1000, 6000));
+    assertThat(slice.slice(10, 20).getData()).isEqualTo(Arrays.copyOfRange(data, 1010, 1030));
+    assertThat(slice.byteAt(0)).isEqualTo(data[1000]);
+    assertThat(slice.asReadOnlyByteBuffer())
+        .isEqualTo(ByteBuffer.wrap(data, 1000, 5000));
+    assertThat(slice).isEqualTo(new DtBinaryData(Arrays.copyOfRange(data, 1000, 6000)));
+    var target = new byte[5010];
+    slice.copyTo(target, 10);
+    assertThat(Arrays.copyOfRange(target, 10, 5010)).isEqualTo(slice.getData());
+  }
+
+  @Test
+  void viewBoundsTest() {
+    var value = new DtBinaryData(content(100));
+    assertThatThrownBy(() -> value.byteAt(100)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> value.byteAt(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> value.slice(50, 51)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> value.copyTo(new byte[100], 1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThat(value.slice(0, 100)).isSameAs(value);
+  }
+
+  @Test
+  void parseCompressionRatioTest() {
+    assertThat(BinaryStorages.parseCompressionRatio(null))
+        .isEqualTo(BinaryStorages.DEFAULT_COMPRESSION_RATIO);
+    assertThat(BinaryStorages.parseCompressionRatio(" 0.5 ")).isEqualTo(0.5);
+    assertThat(BinaryStorages.parseCompressionRatio("1")).isEqualTo(1);
+    for (var invalid : new String[]{"abc", "", "0", "-0.5", "1.5", "NaN", "Infinity"}) {
+      assertThat(BinaryStorages.parseCompressionRatio(invalid)).as(invalid)
+          .isEqualTo(BinaryStorages.DEFAULT_COMPRESSION_RATIO);
+    }
+  }
+
+  @Test
+  void compressTest() throws IOException {
+    var data = xmlContent(2000);
+    var plain = new DtBinaryData(data);
+    var statistics = BinaryCompressionStatistics.getInstance();
+    long compressedCount = statistics.getCompressedCount();
+    var compressed = plain.compress();
+    assertThat(compressed).isNotSameAs(plain);
+    assertThat(statistics.getCompressedCount()).isEqualTo(compressedCount + 1);
+    assertThat(compressed.compress()).isSameAs(compressed);
+    assertThat(compressed.getLength()).isEqualTo(data.length);
+    assertThat(compressed.getData()).isEqualTo(data);
+    assertThat(compressed.getInputStream().readAllBytes()).isEqualTo(data);
+    assertThat(compressed).isEqualTo(plain);
+    assertThat(plain).isEqualTo(compressed);
+    assertThat(compressed.hashCode()).isEqualTo(plain.hashCode());
+    assertThat(compressed).isEqualTo(new DtBinaryData(data).compress());
+    assertThat(compressed.slice(100, 50).getData())
+        .isEqualTo(Arrays.copyOfRange(data, 100, 150));
+    assertThat(compressed.byteAt(1234)).isEqualTo(data[1234]);
+  }
+
+  @Test
+  void compressSliceTest() {
+    var data = xmlContent(2000);
+    var slice = new DtBinaryData(data).slice(1000, 20_000);
+    var compressed = slice.compress();
+    assertThat(compressed).isNotSameAs(slice);
+    assertThat(compressed.getData()).isEqualTo(Arrays.copyOfRange(data, 1000, 21_000));
+  }
+
+  @Test
+  void compressOffHeapTest() throws IOException {
+    var data = xmlContent(2000);
+    var direct = new DtBinaryData(BufferBinaryStorage.directOf(data, data.length));
+    assertThat(direct.compress()).isSameAs(direct);
+    var mapped = mapped(data);
+    assertThat(mapped.compress()).isSameAs(mapped);
+    var spooled = DtBinaryData.spool(new ByteArrayInputStream(data));
+    assertThat(spooled.compress()).isSameAs(spooled);
+  }
+
+  @Test
+  void compressIncompressibleTest() {
+    var data = new byte[10_000];
+    new Random(42).nextBytes(data);
+    var plain = new DtBinaryData(data);
+    var statistics = BinaryCompressionStatistics.getInstance();
+    long skippedCount = statistics.getSkippedCount();
+    assertThat(plain.compress()).isSameAs(plain);
+    assertThat(statistics.getSkippedCount()).isEqualTo(skippedCount + 1);
+  }
+
+  @Test
+  void spoolTest() throws IOException {
+    var data = content(10_000);
+    var value = DtBinaryData.spool(new ByteArrayInputStream(data));
+    try (var first = value.getInputStream(); var second = value.getInputStream()) {
+      assertThat(first.readNBytes(100)).isEqualTo(Arrays.copyOf(data, 100));
+      assertThat(second.readAllBytes()).isEqualTo(data);
+      assertThat(first.readAllBytes()).isEqualTo(Arrays.copyOfRange(data, 100, data.length));
+    }
+  }
+
+  @Test
+  void getDataTest() {
+    var data = content(50);
+    var value = new DtBinaryData(data);
+    data[0]++;
+    assertThat(value.getData()).isNotEqualTo(data);
+    value.getData()[1]++;
+    assertThat(value.getData()).isEqualTo(content(50));
+  }
+
+  @Test
+  void equalsTest() throws IOException {
+    var data = content(1000);
+    var other = content(1000);
+    other[999]++;
+    assertThat(mapped(data))
+        .isEqualTo(new DtBinaryData(BufferBinaryStorage.directOf(data, data.length)))
+        .isNotEqualTo(new DtBinaryData(other))
+        .isNotEqualTo(new DtBinaryData(content(999)));
+  }
+
+  static Stream<Object[]> serializationTest() throws IOException {
+    var data = content(20_000);
+    return Stream.of(
+        new Object[]{new DtBinaryData(data)}
+        , new Object[]{mapped(data)}
+        , new Object[]{new DtBinaryData(xmlContent(500)).compress()}
+        , new Object[]{new DtBinaryData(new byte[0])}
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void serializationTest(DtBinaryData value) throws IOException, ClassNotFoundException {
+    var outputStream = new ByteArrayOutputStream();
+    try (var objectOutputStream = new ObjectOutputStream(outputStream)) {
+      objectOutputStream.writeObject(value);
+    }
+    try (var objectInputStream = new ObjectInputStream(
+        new ByteArrayInputStream(outputStream.toByteArray()))) {
+      assertThat(objectInputStream.readObject()).isEqualTo(value);
+    }
+  }
+
+  /**
+   * DtBinaryData {1, 2, 3, 4, 5}, serialized by version that kept data in byte array field.
+   */
+  private static final String LEGACY_SERIALIZED =
+      "rO0ABXNyACdjb20ucHJvdnlzLmNvbW1vbi5kYXRhdHlwZS5EdEJpbmFyeURhdGGcAgP7nsOhJwIAAVsABGRhdGF0"
+      + "AAJbQnhwdXIAAltCrPMX+AYIVOACAAB4cAAAAAUBAgMEBQ==";
+
+  @Test
+  void deserializeLegacyTest() throws IOException, ClassNotFoundException {
+    try (var objectInputStream = new ObjectInputStream(
+        new ByteArrayInputStream(Base64.getDecoder().decode(LEGACY_SERIALIZED)))) {
+      var value = (DtBinaryData) objectInputStream.readObject();
+      assertThat(value).isEqualTo(new DtBinaryData(new byte[]{1, 2, 3, 4, 5}));
+      assertThat(value.getLength()).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void toStringTest() {
+    assertThat(new DtBinaryData(new byte[]{1, 2, 3}).toString())
+        .isEqualTo("DtBinaryData{length=3, data=[1, 2, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,"
+            + " 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0]}");
+  }
+
+  public static final class DtBinaryDataElement {
+
+    private @MonotonicNonNull DtBinaryData value1;
+    private @MonotonicNonNull DtBinaryData value2;
+
+    /**
+     * Value of field value1.
+     *
+     * @return value of field value1
+     */
+    public @Nullable DtBinaryData getValue1() {
+      return value1;
+    }
+
+    /**
+     * Set value of field value1.
+     *
+     * @param value1 is new value to be set
+     */
+    public DtBinaryDataElement setValue1(DtBinaryData value1) {
+      this.value1 = value1;
+      return this;
+    }
+
+    /**
+     * Value of field value2.
+     *
+     * @return value of field value2
+     */
+    public @Nullable DtBinaryData getValue2() {
+      return value2;
+    }
+
+    /**
+     * Set value of field value2.
+     *
+     * @param value2 is new value to be set
+     */
+    public DtBinaryDataElement setValue2(DtBinaryData value2) {
+      this.value2 = value2;
+      return this;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      DtBinaryDataElement that = (DtBinaryDataElement) o;
+      return Objects.equals(value1, that.value1) &&
+          Objects.equals(value2, that.value2);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = value1 != null ? value1.hashCode() : 0;
+      result = 31 * result + (value2 != null ? value2.hashCode() : 0);
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "DtBinaryDataElement{" +
+          "value1=" + value1 +
+          ", value2=" + value2 +
+          '}';
+    }
+  }
+
+  private static final DtBinaryDataElement SAMPLE_VALUE = new DtBinaryDataElement()
+      .setValue1(new DtBinaryData(new byte[]{1, 2, 3, 4, 5}));
+  private static final String SAMPLE_JSON = "{\"value1\":\"AQIDBAU=\"}";
+  private static final String SAMPLE_XML =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?><DtBinaryDataElement><value1>AQIDBAU=</value1>"
+          + "<value2/></DtBinaryDataElement>";
+
+  @Test
+  void serializeToJsonTest() throws JsonProcessingException {
+    assertThat(JacksonMappers.getJsonMapper().writeValueAsString(SAMPLE_VALUE))
+        .isEqualTo(SAMPLE_JSON);
+  }
+
+  @Test
+  void deserializeFromJsonTest() throws IOException {
+    assertThat(JacksonMappers.getJsonMapper().readValue(SAMPLE_JSON, DtBinaryDataElement.class))
+        .isEqualTo(SAMPLE_VALUE);
+  }
+
+  @Test
+  void serializeToXmlTest() throws JsonProcessingException {
+    assertThat(JacksonMappers.getXmlMapper().writeValueAsString(SAMPLE_VALUE))
+        .isEqualTo(SAMPLE_XML);
+  }
+
+  @Test
+  void deserializeFromXmlTest() throws IOException {
+    assertThat(JacksonMappers.getXmlMapper().readValue(SAMPLE_XML, DtBinaryDataElement.class))
+        .isEqualTo(SAMPLE_VALUE);
+  }
+
+  @Test
+  void jsonRoundTripTest() throws IOException {
+    var value = DtBinaryData.spool(new ByteArrayInputStream(content(100_000)));
+    var json = JacksonMappers.getJsonMapper().writeValueAsBytes(value);
+    assertThat(JacksonMappers.getJsonMapper().readValue(json, DtBinaryData.class))
+        .isEqualTo(value);
+  }
+}
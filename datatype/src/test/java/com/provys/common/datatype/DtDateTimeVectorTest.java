@@ -0,0 +1,143 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DtDateTimeVectorTest {
+
+  private static final List<DtDateTime> VALUES = List.of(DtDateTime.of(2020, 3, 5, 10, 15, 20),
+      DtDateTime.PRIV, DtDateTime.ME, DtDateTime.MIN, DtDateTime.MAX,
+      DtDateTime.of(1969, 12, 31, 23, 59, 59), DtDateTime.of(2001, 1, 1),
+      DtDateTime.of(1999, 6, 30, 6, 0, 1));
+
+  @Test
+  void ofTest() {
+    var vector = DtDateTimeVector.of(VALUES);
+    assertThat(vector.size()).isEqualTo(VALUES.size());
+    assertThat(vector.toArray()).containsExactlyElementsOf(VALUES);
+    assertThat(vector.get(1)).isSameAs(DtDateTime.PRIV);
+    assertThat(vector.getEpochSecond(5)).isEqualTo(-1);
+  }
+
+  @Test
+  void specialValuesTest() {
+    var vector = DtDateTimeVector.of(VALUES);
+    assertThat(vector.isPriv(1)).isTrue();
+    assertThat(vector.isME(2)).isTrue();
+    assertThat(vector.isMin(3)).isTrue();
+    assertThat(vector.isMax(4)).isTrue();
+    assertThat(vector.isRegular(0)).isTrue();
+    assertThat(vector.isRegular(4)).isFalse();
+    assertThat(vector.countRegular()).isEqualTo(4);
+  }
+
+  @Test
+  void freezeTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.MIN).freeze();
+    assertThat(vector.isFrozen()).isTrue();
+    assertThatThrownBy(() -> vector.add(DtDateTime.MAX)).isInstanceOf(InternalException.class);
+    assertThatThrownBy(() -> vector.set(0, DtDateTime.MAX))
+        .isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void minusTest() {
+    var minusValues = new ArrayList<>(VALUES);
+    Collections.reverse(minusValues);
+    var result = DtDateTimeVector.of(VALUES).minus(DtDateTimeVector.of(minusValues));
+    for (int i = 0; i < VALUES.size(); i++) {
+      assertThat(result[i]).isEqualTo(VALUES.get(i).minus(minusValues.get(i)));
+    }
+  }
+
+  @Test
+  void minusSizeMismatchTest() {
+    var vector = DtDateTimeVector.of(VALUES);
+    assertThatThrownBy(() -> vector.minus(DtDateTimeVector.of(DtDateTime.MIN)))
+        .isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void minusValueTest() {
+    var vector = DtDateTimeVector.of(VALUES);
+    for (var minusValue : VALUES) {
+      var result = vector.minus(minusValue);
+      for (int i = 0; i < VALUES.size(); i++) {
+        assertThat(result[i]).isEqualTo(VALUES.get(i).minus(minusValue));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0, 0.25, 1.25, -3, 1e-6, -2135412459d, -2135412458d, -2135412457d,
+      2147483647d})
+  void plusDaysTest(double daysToAdd) {
+    var expected = VALUES.stream().map(value -> value.plusDays(daysToAdd))
+        .toArray(DtDateTime[]::new);
+    assertThat(DtDateTimeVector.of(VALUES).plusDays(daysToAdd).toArray())
+        .containsExactly(expected);
+  }
+
+  @Test
+  void plusDaysNegativeFractionTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.of(2020, 3, 5, 1, 0, 0));
+    assertThat(vector.plusDays(-0.125).get(0)).isEqualTo(DtDateTime.of(2020, 3, 4, 22, 0, 0));
+  }
+
+  @Test
+  void plusDaysOutOfRangeTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.of(4999, 12, 30, 10, 0, 0));
+    assertThat(vector.plusDays(1.75).get(0)).isSameAs(DtDateTime.MAX);
+    assertThatThrownBy(() -> vector.plusDays(5)).isInstanceOf(DateTimeException.class);
+  }
+
+  @Test
+  void getDateTest() {
+    var expected = VALUES.stream().map(DtDateTime::getDate).toArray(DtDate[]::new);
+    assertThat(DtDateTimeVector.of(VALUES).getDate().toArray()).containsExactly(expected);
+  }
+
+  @Test
+  void getTimeTest() {
+    var expected = VALUES.stream().map(DtDateTime::getTime).toArray(DtTimeS[]::new);
+    assertThat(DtDateTimeVector.of(VALUES).getTime().toArray()).containsExactly(expected);
+  }
+
+  @Test
+  void truncatedToHoursTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.of(2020, 3, 5, 10, 15, 20), DtDateTime.PRIV,
+        DtDateTime.of(1969, 12, 31, 23, 59, 59));
+    assertThat(vector.truncatedToHours().toArray()).containsExactly(
+        DtDateTime.of(2020, 3, 5, 10, 0, 0), DtDateTime.PRIV,
+        DtDateTime.of(1969, 12, 31, 23, 0, 0));
+  }
+
+  @Test
+  void truncatedToDaysTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.of(2020, 3, 5, 10, 15, 20), DtDateTime.MAX,
+        DtDateTime.of(1969, 12, 31, 23, 59, 59));
+    assertThat(vector.truncatedToDays().toArray()).containsExactly(DtDateTime.of(2020, 3, 5),
+        DtDateTime.MAX, DtDateTime.of(1969, 12, 31));
+  }
+
+  @Test
+  void equalsTest() {
+    var vector = DtDateTimeVector.of(DtDateTime.of(2001, 1, 1), DtDateTime.ME);
+    var other = new DtDateTimeVector(1);
+    other.add(DtDateTime.of(2001, 1, 1));
+    other.add(DtDateTime.ME);
+    assertThat(vector).isEqualTo(other);
+    assertThat(vector.hashCode()).isEqualTo(other.hashCode());
+    other.add(DtDateTime.MAX);
+    assertThat(vector).isNotEqualTo(other);
+  }
+}
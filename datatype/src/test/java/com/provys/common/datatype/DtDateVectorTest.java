@@ -0,0 +1,186 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DtDateVectorTest {
+
+  @Test
+  void ofTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 5, 3), DtDate.PRIV, DtDate.MAX);
+    assertThat(vector.size()).isEqualTo(3);
+    assertThat(vector.get(0)).isEqualTo(DtDate.of(2020, 5, 3));
+    assertThat(vector.get(1)).isSameAs(DtDate.PRIV);
+    assertThat(vector.get(2)).isSameAs(DtDate.MAX);
+    assertThat(vector.getEpochDay(0)).isEqualTo(LocalDate.of(2020, 5, 3).toEpochDay());
+  }
+
+  @Test
+  void ofCollectionTest() {
+    var vector = DtDateVector.of(List.of(DtDate.ME, DtDate.of(1999, 12, 31)));
+    assertThat(vector.toArray()).containsExactly(DtDate.ME, DtDate.of(1999, 12, 31));
+  }
+
+  @Test
+  void addGrowTest() {
+    var vector = new DtDateVector(1);
+    for (int i = 0; i < 200; i++) {
+      vector.add(DtDate.of(2000, 1, 1).plusDays(i));
+    }
+    assertThat(vector.size()).isEqualTo(200);
+    assertThat(vector.get(199)).isEqualTo(DtDate.of(2000, 1, 1).plusDays(199));
+    assertThat(vector.countRegular()).isEqualTo(200);
+  }
+
+  @Test
+  void specialValuesTest() {
+    var vector = DtDateVector.of(DtDate.PRIV, DtDate.ME, DtDate.MIN, DtDate.MAX,
+        DtDate.of(2001, 2, 3));
+    assertThat(vector.isPriv(0)).isTrue();
+    assertThat(vector.isME(1)).isTrue();
+    assertThat(vector.isMin(2)).isTrue();
+    assertThat(vector.isMax(3)).isTrue();
+    assertThat(vector.isRegular(4)).isTrue();
+    assertThat(vector.isRegular(0)).isFalse();
+    assertThat(vector.isPriv(4)).isFalse();
+    assertThat(vector.countRegular()).isEqualTo(1);
+  }
+
+  @Test
+  void setTest() {
+    var vector = DtDateVector.of(DtDate.PRIV, DtDate.of(2001, 2, 3));
+    vector.set(0, DtDate.of(2010, 1, 1));
+    vector.set(1, DtDate.ME);
+    assertThat(vector.isPriv(0)).isFalse();
+    assertThat(vector.isME(1)).isTrue();
+    assertThat(vector.toArray()).containsExactly(DtDate.of(2010, 1, 1), DtDate.ME);
+  }
+
+  @Test
+  void freezeTest() {
+    var vector = DtDateVector.of(DtDate.of(2001, 2, 3)).freeze();
+    assertThat(vector.isFrozen()).isTrue();
+    assertThatThrownBy(() -> vector.add(DtDate.MAX)).isInstanceOf(InternalException.class);
+    assertThatThrownBy(() -> vector.set(0, DtDate.MAX)).isInstanceOf(InternalException.class);
+    assertThatThrownBy(vector::sort).isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void getOutOfBoundsTest() {
+    var vector = DtDateVector.of(DtDate.of(2001, 2, 3));
+    assertThatThrownBy(() -> vector.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void parseTest() {
+    var vector = DtDateVector.parse(new String[]{"2020-02-29", "1000-01-02", "5000-01-01",
+        "2010-01-01T00:00:00"});
+    assertThat(vector.toArray()).containsExactly(DtDate.of(2020, 2, 29), DtDate.PRIV, DtDate.MAX,
+        DtDate.of(2010, 1, 1));
+    assertThat(vector.isPriv(1)).isTrue();
+    assertThat(vector.isMax(2)).isTrue();
+  }
+
+  @Test
+  void parseInvalidTest() {
+    assertThatThrownBy(() -> DtDateVector.parse(new String[]{"2019-02-29"}))
+        .isInstanceOf(DateTimeException.class);
+    assertThatThrownBy(() -> DtDateVector.parse(new String[]{"0999-12-31"}))
+        .isInstanceOf(DateTimeException.class);
+    assertThatThrownBy(() -> DtDateVector.parse(new String[]{"5000-01-02"}))
+        .isInstanceOf(DateTimeException.class);
+  }
+
+  @Test
+  void toIsoStringsTest() {
+    var vector = DtDateVector.of(DtDate.of(1989, 11, 5), DtDate.PRIV, DtDate.ME, DtDate.MIN,
+        DtDate.MAX, DtDate.of(2000, 2, 29));
+    assertThat(vector.toIsoStrings()).containsExactly("1989-11-05", DtDate.PRIV.toIso(),
+        DtDate.ME.toIso(), DtDate.MIN.toIso(), DtDate.MAX.toIso(), "2000-02-29");
+  }
+
+  @Test
+  void toIsoStringsRoundTripTest() {
+    var texts = new String[1500];
+    var date = LocalDate.of(1999, 1, 1);
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = date.toString();
+      date = date.plusDays(1);
+    }
+    assertThat(DtDateVector.parse(texts).toIsoStrings()).containsExactly(texts);
+  }
+
+  @Test
+  void sortTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 1, 1), DtDate.MAX, DtDate.PRIV,
+        DtDate.of(1990, 6, 1));
+    vector.sort();
+    assertThat(vector.toArray()).containsExactly(DtDate.PRIV, DtDate.of(1990, 6, 1),
+        DtDate.of(2020, 1, 1), DtDate.MAX);
+    assertThat(vector.isPriv(0)).isTrue();
+    assertThat(vector.isMax(3)).isTrue();
+    assertThat(vector.isRegular(1)).isTrue();
+  }
+
+  @Test
+  void binarySearchTest() {
+    var vector = DtDateVector.of(DtDate.of(1990, 6, 1), DtDate.of(2020, 1, 1), DtDate.MAX);
+    assertThat(vector.binarySearch(DtDate.of(2020, 1, 1))).isEqualTo(1);
+    assertThat(vector.binarySearch(DtDate.of(2000, 1, 1))).isEqualTo(-2);
+  }
+
+  @Test
+  void minMaxTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 1, 1), DtDate.of(1990, 6, 1),
+        DtDate.of(2005, 3, 3));
+    assertThat(vector.min()).isEqualTo(DtDate.of(1990, 6, 1));
+    assertThat(vector.max()).isEqualTo(DtDate.of(2020, 1, 1));
+    vector.add(DtDate.ME);
+    assertThat(vector.min()).isSameAs(DtDate.ME);
+  }
+
+  @Test
+  void minEmptyTest() {
+    var vector = new DtDateVector();
+    assertThatThrownBy(vector::min).isInstanceOf(NoSuchElementException.class);
+    assertThatThrownBy(vector::max).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void filterRangeTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 1, 1), DtDate.PRIV, DtDate.of(1990, 6, 1),
+        DtDate.of(2005, 3, 3), DtDate.MAX);
+    var from = DtDate.of(1990, 6, 1);
+    var to = DtDate.of(2020, 1, 1);
+    assertThat(vector.countRange(from, to)).isEqualTo(2);
+    assertThat(vector.filterRange(from, to).toArray())
+        .containsExactly(DtDate.of(1990, 6, 1), DtDate.of(2005, 3, 3));
+  }
+
+  @Test
+  void filterRegularTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 1, 1), DtDate.PRIV, DtDate.ME, DtDate.MIN,
+        DtDate.of(2005, 3, 3), DtDate.MAX);
+    assertThat(vector.filterRegular().toArray())
+        .containsExactly(DtDate.of(2020, 1, 1), DtDate.of(2005, 3, 3));
+  }
+
+  @Test
+  void equalsTest() {
+    var vector = DtDateVector.of(DtDate.of(2020, 1, 1), DtDate.PRIV);
+    var other = new DtDateVector(100);
+    other.add(DtDate.of(2020, 1, 1));
+    other.add(DtDate.PRIV);
+    assertThat(vector).isEqualTo(other);
+    assertThat(vector.hashCode()).isEqualTo(other.hashCode());
+    other.add(DtDate.MAX);
+    assertThat(vector).isNotEqualTo(other);
+  }
+}
@@ -0,0 +1,104 @@
+package com.provys.common.datatype;
+
+import com.provys.common.exception.InternalException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DtTimeSVectorTest {
+
+  private static final List<DtTimeS> VALUES = List.of(DtTimeS.ofHourToSecond(10, 15, 20),
+      DtTimeS.PRIV, DtTimeS.ME, DtTimeS.MIN, DtTimeS.MAX, DtTimeS.ofSeconds(-5000),
+      DtTimeS.ofDayToSecond(2, 3, 0, 0), DtTimeS.zero(), DtTimeS.ofSeconds(-200000));
+
+  @Test
+  void ofTest() {
+    var vector = DtTimeSVector.of(VALUES);
+    assertThat(vector.size()).isEqualTo(VALUES.size());
+    assertThat(vector.toArray()).containsExactlyElementsOf(VALUES);
+    assertThat(vector.get(1)).isSameAs(DtTimeS.PRIV);
+    assertThat(vector.getSeconds(0)).isEqualTo(36920);
+    assertThat(vector.getSeconds(1)).isEqualTo(DtInteger.PRIV);
+  }
+
+  @Test
+  void specialValuesTest() {
+    var vector = DtTimeSVector.of(VALUES);
+    assertThat(vector.isPriv(1)).isTrue();
+    assertThat(vector.isME(2)).isTrue();
+    assertThat(vector.isMin(3)).isTrue();
+    assertThat(vector.isMax(4)).isTrue();
+    assertThat(vector.isRegular(0)).isTrue();
+    assertThat(vector.isRegular(1)).isFalse();
+    assertThat(vector.countRegular()).isEqualTo(5);
+  }
+
+  @Test
+  void setTest() {
+    var vector = DtTimeSVector.of(DtTimeS.PRIV, DtTimeS.zero());
+    vector.set(0, DtTimeS.ofSeconds(60));
+    vector.set(1, DtTimeS.MAX);
+    assertThat(vector.isPriv(0)).isFalse();
+    assertThat(vector.isMax(1)).isTrue();
+    assertThat(vector.toArray()).containsExactly(DtTimeS.ofSeconds(60), DtTimeS.MAX);
+  }
+
+  @Test
+  void freezeTest() {
+    var vector = DtTimeSVector.of(DtTimeS.zero()).freeze();
+    assertThat(vector.isFrozen()).isTrue();
+    assertThatThrownBy(() -> vector.add(DtTimeS.MAX)).isInstanceOf(InternalException.class);
+    assertThatThrownBy(() -> vector.set(0, DtTimeS.MAX)).isInstanceOf(InternalException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0, 0.25, -1.3, 1e-6, 3, -2135412459d, -2135412458d, -2135412457d,
+      2147483647d})
+  void plusDaysTest(double daysToAdd) {
+    var expected = VALUES.stream().map(value -> value.plusDays(daysToAdd))
+        .toArray(DtTimeS[]::new);
+    assertThat(DtTimeSVector.of(VALUES).plusDays(daysToAdd).toArray())
+        .containsExactly(expected);
+  }
+
+  @Test
+  void plusDaysOverflowTest() {
+    var vector = DtTimeSVector.of(DtTimeS.ofSeconds(2_000_000_000));
+    assertThat(vector.plusDays(10000).get(0)).isSameAs(DtTimeS.MAX);
+    assertThat(vector.plusDays(-50000).get(0)).isSameAs(DtTimeS.MIN);
+  }
+
+  @Test
+  void getTime24Test() {
+    var expected = VALUES.stream().map(DtTimeS::getTime24).toArray(DtTimeS[]::new);
+    assertThat(DtTimeSVector.of(VALUES).getTime24().toArray()).containsExactly(expected);
+  }
+
+  @Test
+  void getDaysTest() {
+    var expected = VALUES.stream().mapToInt(DtTimeS::getDays).toArray();
+    assertThat(DtTimeSVector.of(VALUES).getDays()).containsExactly(expected);
+  }
+
+  @Test
+  void getHoursTest() {
+    var expected = VALUES.stream().mapToInt(DtTimeS::getHours).toArray();
+    assertThat(DtTimeSVector.of(VALUES).getHours()).containsExactly(expected);
+  }
+
+  @Test
+  void equalsTest() {
+    var vector = DtTimeSVector.of(DtTimeS.zero(), DtTimeS.ME);
+    var other = new DtTimeSVector(1);
+    other.add(DtTimeS.zero());
+    other.add(DtTimeS.ME);
+    assertThat(vector).isEqualTo(other);
+    assertThat(vector.hashCode()).isEqualTo(other.hashCode());
+    other.add(DtTimeS.MAX);
+    assertThat(vector).isNotEqualTo(other);
+  }
+}
@@ -6,6 +6,7 @@ import com.provys.common.datatype.DbBoolean;
 import com.provys.common.datatype.DtDate;
 import com.provys.common.datatype.DtDateTime;
 import com.provys.common.datatype.DtUid;
+import com.provys.common.jackson.JacksonMappers;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -312,4 +313,22 @@ class TypeMapImplTest {
           .isEqualTo(result);
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void getTypesTest() {
+    assertThat(TypeMapImpl.getDefault().getTypes())
+        .contains(String.class, BigDecimal.class, DtDate.class, DtDateTime.class, DtUid.class)
+        .doesNotContain(Object.class);
+  }
+
+  @Test
+  void warmUpTest() throws Exception {
+    JacksonMappers.warmUp(TypeMapImpl.getDefault().getTypes());
+    assertThat(JacksonMappers.jsonReaderFor(DtDate.class))
+        .isSameAs(JacksonMappers.jsonReaderFor(DtDate.class));
+    var value = DtDate.of(2020, 5, 14);
+    var json = JacksonMappers.jsonWriterFor(DtDate.class).writeValueAsString(value);
+    assertThat((DtDate) JacksonMappers.jsonReaderFor(DtDate.class).readValue(json))
+        .isEqualTo(value);
+  }
+}
@@ -0,0 +1,387 @@
+package com.provys.common.exception;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Counters of errors reported by web-service exception handlers. Errors are counted per internal
+ * name, Provys status code and http status; if request timing is available, latency from start of
+ * request to error is recorded in histogram with fixed buckets. Counters are based on {@link
+ * LongAdder}, so recording from concurrent requests does not contend on single value.
+ *
+ * <p>Default instance additionally forwards recorded errors to {@link ErrorRecorder}
+ * implementations registered using {@link ServiceLoader}. Counters can be exported to monitoring
+ * system by registering counter listener via {@link #addCounterListener(Consumer)}.
+ */
+public final class ErrorMetrics implements ErrorRecorder {
+
+  private static final Logger LOG = LogManager.getLogger(ErrorMetrics.class);
+
+  /**
+   * Name of request attribute (or request context property) holding start time of request, as
+   * returned by {@link System#nanoTime()}. If present, exception handlers record latency of error.
+   */
+  public static final String REQUEST_START_ATTRIBUTE = "com.provys.common.requestStartNanos";
+  /**
+   * Internal name used for errors that do not fit to maximal number of counters.
+   */
+  public static final String OVERFLOW_NAME_NM = "OTHER";
+  /**
+   * Maximal number of distinct counters; protects against unbounded growth when error names are
+   * generated dynamically.
+   */
+  private static final int MAX_COUNTERS = 1024;
+  /**
+   * Upper bounds of latency histogram buckets, in milliseconds. Last bucket (not listed) holds
+   * latencies over the highest bound.
+   */
+  private static final long[] LATENCY_BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500,
+      5000, 10000};
+  private static final long[] LATENCY_BOUNDS_NANOS = new long[LATENCY_BOUNDS_MILLIS.length];
+
+  static {
+    for (int i = 0; i < LATENCY_BOUNDS_MILLIS.length; i++) {
+      LATENCY_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(LATENCY_BOUNDS_MILLIS[i]);
+    }
+  }
+
+  private static List<ErrorRecorder> loadRecorders() {
+    var result = new ArrayList<ErrorRecorder>(1);
+    for (var recorder : ServiceLoader.load(ErrorRecorder.class)) {
+      LOG.debug("Register error recorder {}", recorder.getClass().getName());
+      result.add(recorder);
+    }
+    return result;
+  }
+
+  private static final ErrorMetrics DEFAULT = new ErrorMetrics(loadRecorders());
+
+  /**
+   * Metrics shared by exception handlers, forwarding errors to recorders registered using {@link
+   * ServiceLoader}.
+   *
+   * @return default error metrics
+   */
+  public static ErrorMetrics getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Upper bounds of latency histogram buckets, in milliseconds. Histogram has one more bucket than
+   * the number of bounds, holding latencies over the highest bound.
+   *
+   * @return upper bounds of latency histogram buckets
+   */
+  public static long[] getLatencyBoundsMillis() {
+    return LATENCY_BOUNDS_MILLIS.clone();
+  }
+
+  /**
+   * Latency of error, measured from request start time found in request attribute {@link
+   * #REQUEST_START_ATTRIBUTE}.
+   *
+   * @param requestStart is value of request start attribute, null if not present
+   * @return time since start of request in nanoseconds, {@link #UNKNOWN_LATENCY} if start time is
+   *     not available
+   */
+  public static long latencySince(@Nullable Object requestStart) {
+    if (requestStart instanceof Long) {
+      return Math.max(0, System.nanoTime() - (Long) requestStart);
+    }
+    return UNKNOWN_LATENCY;
+  }
+
+  private final List<ErrorRecorder> recorders;
+  private final Map<CounterKey, ErrorCounter> counters = new ConcurrentHashMap<>();
+  private final ErrorCounter overflowCounter = new ErrorCounter(OVERFLOW_NAME_NM, 0, 0);
+  private final List<Consumer<? super ErrorCounter>> counterListeners =
+      new CopyOnWriteArrayList<>();
+
+  /**
+   * Create error metrics that do not forward errors to other recorders.
+   */
+  public ErrorMetrics() {
+    this(Collections.emptyList());
+  }
+
+  /**
+   * Create error metrics that forward recorded errors to supplied recorders.
+   *
+   * @param recorders are recorders that receive every recorded error
+   */
+  public ErrorMetrics(Collection<? extends ErrorRecorder> recorders) {
+    this.recorders = List.copyOf(recorders);
+  }
+
+  private ErrorCounter getCounter(String nameNm, int statusCode, int httpStatus) {
+    var key = new CounterKey(nameNm, statusCode, httpStatus);
+    var counter = counters.get(key);
+    if (counter != null) {
+      return counter;
+    }
+    if (counters.size() >= MAX_COUNTERS) {
+      return overflowCounter;
+    }
+    var created = new ErrorCounter(nameNm, statusCode, httpStatus);
+    counter = counters.putIfAbsent(key, created);
+    if (counter != null) {
+      return counter;
+    }
+    for (var listener : counterListeners) {
+      try {
+        listener.accept(created);
+      } catch (RuntimeException e) {
+        LOG.warn("Error counter listener {} failed", listener.getClass().getName(), e);
+      }
+    }
+    return created;
+  }
+
+  @Override
+  public void record(String nameNm, int statusCode, int httpStatus, long latencyNanos) {
+    getCounter(nameNm, statusCode, httpStatus).record(latencyNanos);
+    for (var recorder : recorders) {
+      try {
+        recorder.record(nameNm, statusCode, httpStatus, latencyNanos);
+      } catch (RuntimeException e) {
+        LOG.warn("Error recorder {} failed", recorder.getClass().getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Record occurrence of Provys exception.
+   *
+   * @param exception    is exception reported in error response
+   * @param latencyNanos is time from start of request to error in nanoseconds, {@link
+   *                     #UNKNOWN_LATENCY} if request timing is not available
+   */
+  public void record(ProvysException exception, long latencyNanos) {
+    record(exception.getNameNm(), exception.getStatusCode(), exception.getHttpStatus(),
+        latencyNanos);
+  }
+
+  /**
+   * Counters of errors recorded so far, including counter of errors over the limit of distinct
+   * counters.
+   *
+   * @return collection of error counters
+   */
+  public Collection<ErrorCounter> getCounters() {
+    var result = new ArrayList<ErrorCounter>(counters.size() + 1);
+    result.addAll(counters.values());
+    result.add(overflowCounter);
+    return result;
+  }
+
+  /**
+   * Register listener, notified when new counter is created. Listener is immediately notified about
+   * existing counters (including counter of errors over the limit); counter created concurrently
+   * with registration might be reported twice. Listener is called on request thread that created
+   * counter; exception thrown by listener is logged and does not affect the request.
+   *
+   * @param listener is listener to be notified about counters
+   */
+  public void addCounterListener(Consumer<? super ErrorCounter> listener) {
+    counterListeners.add(Objects.requireNonNull(listener));
+    for (var counter : getCounters()) {
+      listener.accept(counter);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ErrorMetrics{"
+        + "counters=" + counters.size()
+        + ", recorders=" + recorders.size()
+        + '}';
+  }
+
+  /**
+   * Identifies counter - combination of internal name, status code and http status.
+   */
+  private static final class CounterKey {
+
+    private final String nameNm;
+    private final int statusCode;
+    private final int httpStatus;
+
+    CounterKey(String nameNm, int statusCode, int httpStatus) {
+      this.nameNm = nameNm;
+      this.statusCode = statusCode;
+      this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CounterKey)) {
+        return false;
+      }
+      CounterKey counterKey = (CounterKey) o;
+      return statusCode == counterKey.statusCode
+          && httpStatus == counterKey.httpStatus
+          && nameNm.equals(counterKey.nameNm);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = nameNm.hashCode();
+      result = 31 * result + statusCode;
+      result = 31 * result + httpStatus;
+      return result;
+    }
+  }
+
+  /**
+   * Counter of errors with given internal name, status code and http status, with histogram of
+   * latencies.
+   */
+  public static final class ErrorCounter {
+
+    private final String nameNm;
+    private final int statusCode;
+    private final int httpStatus;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder latencyTotalNanos = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BOUNDS_NANOS.length + 1];
+
+    ErrorCounter(String nameNm, int statusCode, int httpStatus) {
+      this.nameNm = Objects.requireNonNull(nameNm);
+      this.statusCode = statusCode;
+      this.httpStatus = httpStatus;
+      for (int i = 0; i < latencyBuckets.length; i++) {
+        latencyBuckets[i] = new LongAdder();
+      }
+    }
+
+    private static int getBucket(long latencyNanos) {
+      int bucket = 0;
+      while ((bucket < LATENCY_BOUNDS_NANOS.length)
+          && (latencyNanos > LATENCY_BOUNDS_NANOS[bucket])) {
+        bucket++;
+      }
+      return bucket;
+    }
+
+    void record(long latencyNanos) {
+      count.increment();
+      if (latencyNanos >= 0) {
+        latencyTotalNanos.add(latencyNanos);
+        latencyBuckets[getBucket(latencyNanos)].increment();
+      }
+    }
+
+    /**
+     * Value of field nameNm.
+     *
+     * @return internal name of counted errors
+     */
+    public String getNameNm() {
+      return nameNm;
+    }
+
+    /**
+     * Value of field statusCode.
+     *
+     * @return Provys status code of counted errors
+     */
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    /**
+     * Value of field httpStatus.
+     *
+     * @return http status of counted errors
+     */
+    public int getHttpStatus() {
+      return httpStatus;
+    }
+
+    /**
+     * Number of recorded errors.
+     *
+     * @return number of recorded errors
+     */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /**
+     * Number of recorded errors with known latency.
+     *
+     * @return number of errors recorded in latency histogram
+     */
+    public long getLatencyCount() {
+      long result = 0;
+      for (var bucket : latencyBuckets) {
+        result += bucket.sum();
+      }
+      return result;
+    }
+
+    /**
+     * Sum of latencies of errors with known latency.
+     *
+     * @return total latency in nanoseconds
+     */
+    public long getLatencyTotalNanos() {
+      return latencyTotalNanos.sum();
+    }
+
+    /**
+     * Number of errors in each bucket of latency histogram. Bucket bounds are returned by {@link
+     * ErrorMetrics#getLatencyBoundsMillis()}; last bucket holds latencies over the highest bound.
+     *
+     * @return counts of errors in latency histogram buckets
+     */
+    public long[] getLatencyBucketCounts() {
+      var result = new long[latencyBuckets.length];
+      for (int i = 0; i < latencyBuckets.length; i++) {
+        result[i] = latencyBuckets[i].sum();
+      }
+      return result;
+    }
+
+    /**
+     * Number of errors in latency histogram buckets up to and including given bucket, as used by
+     * cumulative histograms. Avoids allocation of array of bucket counts.
+     *
+     * @param bucket is index of last bucket included in result
+     * @return number of errors with latency up to upper bound of given bucket
+     */
+    public long getCumulativeLatencyCount(int bucket) {
+      long result = 0;
+      for (int i = 0; i <= bucket; i++) {
+        result += latencyBuckets[i].sum();
+      }
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "ErrorCounter{"
+          + "nameNm='" + nameNm + '\''
+          + ", statusCode=" + statusCode
+          + ", httpStatus=" + httpStatus
+          + ", count=" + count
+          + '}';
+    }
+  }
+}
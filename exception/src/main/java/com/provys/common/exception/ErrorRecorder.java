@@ -0,0 +1,26 @@
+package com.provys.common.exception;
+
+/**
+ * Service provider interface for recording of errors reported by web-service exception handlers.
+ * Implementations registered using {@link java.util.ServiceLoader} receive every error recorded to
+ * {@link ErrorMetrics#getDefault()}; they are called on request thread and thus should be cheap and
+ * must not throw exceptions.
+ */
+public interface ErrorRecorder {
+
+  /**
+   * Latency value used when start time of request is not available.
+   */
+  long UNKNOWN_LATENCY = -1;
+
+  /**
+   * Record occurrence of error.
+   *
+   * @param nameNm       is internal name of error ({@link ProvysException#getNameNm()})
+   * @param statusCode   is Provys status code reported in error response
+   * @param httpStatus   is http status of error response
+   * @param latencyNanos is time from start of request to error in nanoseconds, {@link
+   *                     #UNKNOWN_LATENCY} if request timing is not available
+   */
+  void record(String nameNm, int statusCode, int httpStatus, long latencyNanos);
+}
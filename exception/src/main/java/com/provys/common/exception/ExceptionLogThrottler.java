@@ -0,0 +1,398 @@
+package com.provys.common.exception;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Rate limiter for logging of unhandled exceptions. Exceptions are grouped by type, internal name
+ * (for {@link ProvysException}) and top stack frame; each group has its own token bucket, allowing
+ * burst of logged occurrences followed by limited rate. Occurrences over the limit are only counted
+ * - count is reported with next logged occurrence and in periodic summaries of suppressed
+ * exceptions. Throttler is lock-free and safe for concurrent use.
+ *
+ * <p>Groups that have been idle (their bucket has been full) for longer than summary interval are
+ * evicted, so new kinds of exceptions get their own group even in long-running application. Only
+ * if {@value MAX_GROUPS} groups are active at the same time, additional exceptions are throttled as
+ * single group.
+ *
+ * <p>Default throttler is configured using system properties {@value BURST_PROPERTY} (default
+ * {@value DEFAULT_BURST}), {@value REFILL_PROPERTY} (default {@value DEFAULT_REFILL_PER_MINUTE})
+ * and {@value SUMMARY_INTERVAL_PROPERTY} (default {@value DEFAULT_SUMMARY_INTERVAL_SECONDS}).
+ */
+public final class ExceptionLogThrottler {
+
+  /**
+   * System property defining number of occurrences of the same exception that can be logged in
+   * burst.
+   */
+  public static final String BURST_PROPERTY = "provys.error.log.burst";
+  /**
+   * System property defining number of occurrences of the same exception that can be logged per
+   * minute after burst has been exhausted.
+   */
+  public static final String REFILL_PROPERTY = "provys.error.log.refill-per-minute";
+  /**
+   * System property defining interval (in seconds) between summaries of suppressed exceptions.
+   */
+  public static final String SUMMARY_INTERVAL_PROPERTY = "provys.error.log.summary-interval";
+  /**
+   * Default size of burst.
+   */
+  public static final int DEFAULT_BURST = 10;
+  /**
+   * Default number of logged occurrences per minute.
+   */
+  public static final int DEFAULT_REFILL_PER_MINUTE = 6;
+  /**
+   * Default interval between summaries of suppressed exceptions, in seconds.
+   */
+  public static final int DEFAULT_SUMMARY_INTERVAL_SECONDS = 60;
+  /**
+   * Maximal number of tracked exception groups; exceptions that do not fit are throttled as single
+   * group.
+   */
+  static final int MAX_GROUPS = 1024;
+  /**
+   * Minimal interval between attempts to evict idle groups when all groups are in use, in
+   * nanoseconds.
+   */
+  private static final long EVICTION_INTERVAL = Duration.ofSeconds(1).toNanos();
+
+  private static final Logger LOG = LogManager.getLogger(ExceptionLogThrottler.class);
+
+  private static final ExceptionLogThrottler DEFAULT = new ExceptionLogThrottler(
+      getPositiveProperty(BURST_PROPERTY, DEFAULT_BURST),
+      getPositiveProperty(REFILL_PROPERTY, DEFAULT_REFILL_PER_MINUTE),
+      Duration.ofSeconds(getPositiveProperty(SUMMARY_INTERVAL_PROPERTY,
+          DEFAULT_SUMMARY_INTERVAL_SECONDS)));
+
+  /**
+   * Read positive integer system property. Value below 1 is clamped to 1 and reported; default
+   * throttler is used by exception handlers and its initialisation must not fail.
+   *
+   * @param property     is name of property
+   * @param defaultValue is value used if property is not set or is not a valid integer
+   * @return value of property
+   */
+  static int getPositiveProperty(String property, int defaultValue) {
+    int value = Integer.getInteger(property, defaultValue);
+    if (value < 1) {
+      LOG.warn("Invalid value {} of property {}, must be positive; 1 used instead", value,
+          property);
+      return 1;
+    }
+    return value;
+  }
+
+  /**
+   * Throttler configured using system properties, shared by exception handlers.
+   *
+   * @return default throttler
+   */
+  public static ExceptionLogThrottler getDefault() {
+    return DEFAULT;
+  }
+
+  private final int burst;
+  private final int refillPerMinute;
+  private final Duration summaryInterval;
+  /**
+   * Interval between refilled tokens, in nanoseconds.
+   */
+  private final long emissionInterval;
+  /**
+   * How far theoretical arrival time can be ahead of current time for occurrence to be logged.
+   */
+  private final long tolerance;
+  private final Map<GroupKey, Group> groups = new ConcurrentHashMap<>();
+  private final Group overflowGroup = new Group("other exceptions");
+  private final AtomicLong nextSummary;
+  private final AtomicLong nextEviction;
+
+  /**
+   * Create throttler with given configuration.
+   *
+   * @param burst           is number of occurrences of the same exception that can be logged in
+   *                        burst
+   * @param refillPerMinute is number of occurrences of the same exception that can be logged per
+   *                        minute after burst has been exhausted
+   * @param summaryInterval is interval between summaries of suppressed exceptions
+   */
+  public ExceptionLogThrottler(int burst, int refillPerMinute, Duration summaryInterval) {
+    if (burst < 1) {
+      throw new InternalException("Burst of exception log throttler must be positive");
+    }
+    if (refillPerMinute < 1) {
+      throw new InternalException("Refill rate of exception log throttler must be positive");
+    }
+    this.burst = burst;
+    this.refillPerMinute = refillPerMinute;
+    this.summaryInterval = Objects.requireNonNull(summaryInterval);
+    this.emissionInterval = Duration.ofMinutes(1).toNanos() / refillPerMinute;
+    this.tolerance = (burst - 1) * emissionInterval;
+    this.nextSummary = new AtomicLong(System.nanoTime() + summaryInterval.toNanos());
+    this.nextEviction = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Value of field burst.
+   *
+   * @return number of occurrences of the same exception that can be logged in burst
+   */
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Value of field refillPerMinute.
+   *
+   * @return number of occurrences of the same exception logged per minute after burst
+   */
+  public int getRefillPerMinute() {
+    return refillPerMinute;
+  }
+
+  /**
+   * Value of field summaryInterval.
+   *
+   * @return interval between summaries of suppressed exceptions
+   */
+  public Duration getSummaryInterval() {
+    return summaryInterval;
+  }
+
+  Group getGroup(Throwable throwable) {
+    return getGroup(throwable, System.nanoTime());
+  }
+
+  /**
+   * Group of given exception. If all groups are in use, idle groups are evicted (at most once per
+   * {@link #EVICTION_INTERVAL}); overflow group is used if there is still no space for new group.
+   *
+   * @param throwable is exception whose group is to be found
+   * @param now       is current time, as returned by {@link System#nanoTime()}
+   * @return group of given exception
+   */
+  Group getGroup(Throwable throwable, long now) {
+    var key = new GroupKey(throwable);
+    var group = groups.get(key);
+    if (group != null) {
+      return group;
+    }
+    if (groups.size() >= MAX_GROUPS) {
+      var next = nextEviction.get();
+      if ((now - next >= 0) && nextEviction.compareAndSet(next, now + EVICTION_INTERVAL)) {
+        evictIdleGroups(now);
+      }
+      if (groups.size() >= MAX_GROUPS) {
+        return overflowGroup;
+      }
+    }
+    return groups.computeIfAbsent(key, k -> new Group(k.toString()));
+  }
+
+  /**
+   * Remove groups that have been idle for longer than summary interval. Evicted group is in the
+   * same state as newly created one would be, thus eviction does not change throttling.
+   *
+   * @param now is current time, as returned by {@link System#nanoTime()}
+   */
+  void evictIdleGroups(long now) {
+    groups.values().removeIf(group -> group.isIdle(now, summaryInterval.toNanos()));
+  }
+
+  /**
+   * Number of tracked groups, not including overflow group.
+   *
+   * @return number of tracked groups
+   */
+  int getGroupCount() {
+    return groups.size();
+  }
+
+  /**
+   * Decide if occurrence of given exception should be logged.
+   *
+   * @param throwable is exception that is about to be logged
+   * @return number of suppressed occurrences of similar exceptions since last logged one if
+   *     exception should be logged, -1 if it should be suppressed
+   */
+  public long acquire(Throwable throwable) {
+    return acquire(throwable, System.nanoTime());
+  }
+
+  /**
+   * Decide if occurrence of given exception at given time should be logged.
+   *
+   * @param throwable is exception that is about to be logged
+   * @param now       is current time, as returned by {@link System#nanoTime()}
+   * @return number of suppressed occurrences of similar exceptions since last logged one if
+   *     exception should be logged, -1 if it should be suppressed
+   */
+  long acquire(Throwable throwable, long now) {
+    var group = getGroup(throwable, now);
+    if (group.tryAcquire(now)) {
+      return group.suppressed.sumThenReset();
+    }
+    group.suppressed.increment();
+    return -1;
+  }
+
+  /**
+   * Log exception on error level, unless it is suppressed by throttling. If similar exceptions have
+   * been suppressed since last logged occurrence, their count is appended to message. Also emits
+   * summary of suppressed exceptions if summary interval has elapsed.
+   *
+   * @param logger    is logger exception should be logged to
+   * @param message   is message logged with exception
+   * @param throwable is exception to be logged
+   */
+  public void logError(Logger logger, String message, Throwable throwable) {
+    var suppressed = acquire(throwable);
+    if (suppressed == 0) {
+      logger.error(message, throwable);
+    } else if (suppressed > 0) {
+      logger.error("{} ({} similar exceptions suppressed)", message, suppressed, throwable);
+    }
+    logSummaryIfDue(logger);
+  }
+
+  /**
+   * Log summary of suppressed exceptions, if summary interval has elapsed since last summary. Only
+   * one thread emits summary; groups that had no suppressed occurrences are not reported.
+   *
+   * @param logger is logger summary should be logged to
+   */
+  public void logSummaryIfDue(Logger logger) {
+    logSummaryIfDue(logger, System.nanoTime());
+  }
+
+  /**
+   * Log summary of suppressed exceptions, if summary interval has elapsed at given time. Idle
+   * groups are evicted after summary has been logged.
+   *
+   * @param logger is logger summary should be logged to
+   * @param now    is current time, as returned by {@link System#nanoTime()}
+   */
+  void logSummaryIfDue(Logger logger, long now) {
+    var next = nextSummary.get();
+    if ((now - next < 0) || !nextSummary.compareAndSet(next, now + summaryInterval.toNanos())) {
+      return;
+    }
+    for (var group : groups.values()) {
+      group.logSummary(logger, summaryInterval);
+    }
+    overflowGroup.logSummary(logger, summaryInterval);
+    evictIdleGroups(now);
+  }
+
+  @Override
+  public String toString() {
+    return "ExceptionLogThrottler{"
+        + "burst=" + burst
+        + ", refillPerMinute=" + refillPerMinute
+        + ", summaryInterval=" + summaryInterval
+        + ", groups=" + groups.size()
+        + '}';
+  }
+
+  /**
+   * Identifies group of similar exceptions - exceptions with the same type, internal name and top
+   * stack frame.
+   */
+  private static final class GroupKey {
+
+    private final Class<?> type;
+    private final @Nullable String nameNm;
+    private final @Nullable StackTraceElement topFrame;
+
+    GroupKey(Throwable throwable) {
+      this.type = throwable.getClass();
+      this.nameNm = (throwable instanceof ProvysException)
+          ? ((ProvysException) throwable).getNameNm() : null;
+      var stackTrace = throwable.getStackTrace();
+      this.topFrame = (stackTrace.length > 0) ? stackTrace[0] : null;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof GroupKey)) {
+        return false;
+      }
+      GroupKey groupKey = (GroupKey) o;
+      return type.equals(groupKey.type)
+          && Objects.equals(nameNm, groupKey.nameNm)
+          && Objects.equals(topFrame, groupKey.topFrame);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(new Object[]{type, nameNm, topFrame});
+    }
+
+    @Override
+    public String toString() {
+      return type.getName()
+          + ((nameNm == null) ? "" : " (" + nameNm + ')')
+          + ((topFrame == null) ? "" : " at " + topFrame);
+    }
+  }
+
+  /**
+   * Token bucket of exception group, implemented as generic cell rate algorithm - single atomic
+   * value holds theoretical arrival time of next occurrence.
+   */
+  final class Group {
+
+    private final String description;
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressed = new LongAdder();
+
+    Group(String description) {
+      this.description = description;
+    }
+
+    boolean tryAcquire(long now) {
+      while (true) {
+        var arrival = theoreticalArrival.get();
+        var start = (arrival - now > 0) ? arrival : now;
+        if (start - now > tolerance) {
+          return false;
+        }
+        if (theoreticalArrival.compareAndSet(arrival, start + emissionInterval)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Verify if group has been idle for longer than given time - its bucket has been full for that
+     * time and no occurrence is waiting to be reported as suppressed.
+     *
+     * @param now      is current time, as returned by {@link System#nanoTime()}
+     * @param idleTime is required idle time in nanoseconds
+     * @return true if group is idle and can be evicted
+     */
+    boolean isIdle(long now, long idleTime) {
+      return (now - theoreticalArrival.get() > idleTime) && (suppressed.sum() == 0);
+    }
+
+    void logSummary(Logger logger, Duration interval) {
+      var count = suppressed.sumThenReset();
+      if (count > 0) {
+        logger.warn("Suppressed {} occurrences of {} in last {}", count, description, interval);
+      }
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.provys.common.exception;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -30,6 +31,25 @@ public final class InternalException extends ProvysException {
     super(Objects.requireNonNull(message), params, cause);
   }
 
+  /**
+   * Constructs a new PROVYS internal exception with the specified detail message, lazily evaluated
+   * parameters and cause, optionally without stack trace.
+   *
+   * @param message            the detail message; displayed to user if translations via database
+   *                           are not available. Message is prefixed with internal name
+   * @param params             is supplier of parameters and their values that can be embedded in
+   *                           error message; evaluated when parameters are first needed
+   * @param cause              the cause (which is saved for later retrieval by the
+   *                           {@link #getCause()} method). (A @{code null} value is permitted, and
+   *                           indicates that the cause is nonexistent or unknown.)
+   * @param writableStackTrace whether stack trace should be captured
+   */
+  public InternalException(String message,
+      @Nullable Supplier<? extends @Nullable Map<String, String>> params,
+      @Nullable Throwable cause, boolean writableStackTrace) {
+    super(Objects.requireNonNull(message), params, cause, writableStackTrace);
+  }
+
   /**
    * Constructs a new PROVYS internal exception with the specified detail message and parameters.
    *
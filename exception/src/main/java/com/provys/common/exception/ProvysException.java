@@ -2,9 +2,12 @@ package com.provys.common.exception;
 
 import static org.checkerframework.checker.nullness.NullnessUtil.castNonNull;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -26,7 +29,22 @@ public abstract class ProvysException extends RuntimeException {
   public static final int HTTP_STATUS = 500;
   private static final long serialVersionUID = 7155232755615842135L;
 
-  private final Map<String, String> params;
+  /**
+   * Parameters of exception; null until evaluated from parameter supplier.
+   */
+  private volatile @Nullable Map<String, String> params;
+  /**
+   * Supplier of parameters, used when parameters are evaluated lazily; released once parameters
+   * are evaluated. Parameters are always evaluated before exception is serialized
+   */
+  private transient @Nullable Supplier<? extends @Nullable Map<String, String>> paramsSupplier;
+
+  private static Map<String, String> copyParams(@Nullable Map<String, String> params) {
+    if (params == null) {
+      return Collections.emptyMap();
+    }
+    return Map.copyOf(params);
+  }
 
   /**
    * Constructs a new PROVYS runtime exception with the specified detail message, parameters and
@@ -44,10 +62,34 @@ public abstract class ProvysException extends RuntimeException {
   public ProvysException(String message, @Nullable Map<String, String> params,
       @Nullable Throwable cause) {
     super(message, cause);
+    this.params = copyParams(params);
+  }
+
+  /**
+   * Constructs a new PROVYS runtime exception with the specified detail message, lazily evaluated
+   * parameters and cause, optionally without stack trace. Exceptions without stack trace are cheap
+   * to create and are intended for validation failures thrown at high rates, where stack trace is
+   * never used; stack trace of such exception is empty and cannot be set.
+   *
+   * @param message            the detail message; displayed to user if translations via database
+   *                           are not available
+   * @param params             is supplier of additional parameters for exception. Supplier is
+   *                           only evaluated (once) when parameters are first needed; it should be
+   *                           side-effect free. Null means exception has no parameters
+   * @param cause              the cause (which is saved for later retrieval by the
+   *                           {@link #getCause()} method). (A @{code null} value is permitted, and
+   *                           indicates that the cause is nonexistent or unknown.)
+   * @param writableStackTrace whether stack trace should be captured; if false, stack trace is not
+   *                           filled in
+   */
+  protected ProvysException(String message,
+      @Nullable Supplier<? extends @Nullable Map<String, String>> params,
+      @Nullable Throwable cause, boolean writableStackTrace) {
+    super(message, cause, true, writableStackTrace);
     if (params == null) {
       this.params = Collections.emptyMap();
     } else {
-      this.params = Map.copyOf(params);
+      this.paramsSupplier = params;
     }
   }
 
@@ -121,7 +163,19 @@ public abstract class ProvysException extends RuntimeException {
    * @return empty map in this default implementation
    */
   public Map<String, String> getParams() {
-    return params;
+    var result = params;
+    if (result == null) {
+      synchronized (this) {
+        result = params;
+        if (result == null) {
+          // supplier is evaluated at most once and released afterwards
+          result = copyParams(castNonNull(paramsSupplier).get());
+          params = result;
+          paramsSupplier = null;
+        }
+      }
+    }
+    return result;
   }
 
   /**
@@ -144,18 +198,23 @@ public abstract class ProvysException extends RuntimeException {
       return false;
     }
     ProvysException that = (ProvysException) o;
-    return Objects.equals(params, that.params);
+    return Objects.equals(getParams(), that.getParams());
   }
 
   @Override
   public int hashCode() {
-    return params != null ? params.hashCode() : 0;
+    return getParams().hashCode();
   }
 
   @Override
   public String toString() {
     return "ProvysException{"
-        + "params=" + params
+        + "params=" + getParams()
         + ", " + super.toString() + '}';
   }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    getParams(); // evaluate lazy parameters before serialization
+    out.defaultWriteObject();
+  }
 }
@@ -3,6 +3,7 @@ package com.provys.common.exception;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -33,6 +34,41 @@ public final class RegularException extends ProvysException {
     this.nameNm = nameNm;
   }
 
+  /**
+   * Constructs a new PROVYS runtime exception with the specified detail message, lazily evaluated
+   * parameters and cause, optionally without stack trace. Intended for validation failures thrown
+   * at high rates, where neither stack trace nor parameters are usually needed.
+   *
+   * @param nameNm             is internal name of exception as registered in ERROR database object
+   * @param message            the detail message; displayed to user if translations via database
+   *                           are not available. Message is prefixed with internal name
+   * @param params             is supplier of parameters and their values that can be embedded in
+   *                           error message; evaluated when parameters are first needed
+   * @param cause              the cause (which is saved for later retrieval by the
+   *                           {@link #getCause()} method). (A {@code null} value is permitted, and
+   *                           indicates that the cause is nonexistent or unknown.)
+   * @param writableStackTrace whether stack trace should be captured
+   */
+  public RegularException(String nameNm, String message,
+      @Nullable Supplier<? extends @Nullable Map<String, String>> params,
+      @Nullable Throwable cause, boolean writableStackTrace) {
+    super(nameNm + ": " + message, params, cause, writableStackTrace);
+    this.nameNm = nameNm;
+  }
+
+  /**
+   * Constructs a new PROVYS runtime exception with the specified detail message, optionally without
+   * stack trace.
+   *
+   * @param nameNm             is internal name of exception as registered in ERROR database object
+   * @param message            the detail message; displayed to user if translations via database
+   *                           are not available. Message is prefixed with internal name
+   * @param writableStackTrace whether stack trace should be captured
+   */
+  public RegularException(String nameNm, String message, boolean writableStackTrace) {
+    this(nameNm, message, null, null, writableStackTrace);
+  }
+
   /**
    * Constructs a new PROVYS runtime exception with the specified detail message and parameters.
    *
@@ -0,0 +1,167 @@
+package com.provys.common.exception;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Renders stack trace of exception to String, as reported in error stack of web-service error
+ * responses. Rendering is bounded - number of frames rendered for exception and each of its causes
+ * is limited, frames that cause has in common with enclosing exception are not repeated (similar to
+ * {@link Throwable#printStackTrace()}) and stack can be omitted altogether (production mode).
+ *
+ * <p>Default renderer is configured using system properties {@value ENABLED_PROPERTY} (true /
+ * false, default true) and {@value MAX_DEPTH_PROPERTY} (default {@value DEFAULT_MAX_DEPTH}).
+ */
+public final class StackTraceRenderer {
+
+  /**
+   * System property controlling if stack is rendered; set to false in production mode to omit stack
+   * from error responses.
+   */
+  public static final String ENABLED_PROPERTY = "provys.error.stack.enabled";
+  /**
+   * System property defining maximal number of frames rendered for exception and for each of its
+   * causes.
+   */
+  public static final String MAX_DEPTH_PROPERTY = "provys.error.stack.max-depth";
+  /**
+   * Default maximal number of frames rendered for exception and for each of its causes.
+   */
+  public static final int DEFAULT_MAX_DEPTH = 64;
+  /**
+   * Maximal number of causes rendered; protects against excessive rendering of deep cause chains.
+   */
+  private static final int MAX_CAUSES = 16;
+
+  private static final StackTraceRenderer DEFAULT = new StackTraceRenderer(
+      Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")),
+      Math.max(0, Integer.getInteger(MAX_DEPTH_PROPERTY, DEFAULT_MAX_DEPTH)));
+
+  /**
+   * Renderer configured using system properties.
+   *
+   * @return default renderer
+   */
+  public static StackTraceRenderer getDefault() {
+    return DEFAULT;
+  }
+
+  private final boolean enabled;
+  private final int maxDepth;
+
+  /**
+   * Create renderer with given configuration.
+   *
+   * @param enabled  defines if stack should be rendered; if false, renderer returns null
+   * @param maxDepth is maximal number of frames rendered for exception and for each of its causes
+   */
+  public StackTraceRenderer(boolean enabled, int maxDepth) {
+    if (maxDepth < 0) {
+      throw new InternalException("Maximal depth of rendered stack cannot be negative");
+    }
+    this.enabled = enabled;
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * Value of field enabled.
+   *
+   * @return if stack is rendered
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Value of field maxDepth.
+   *
+   * @return maximal number of frames rendered for exception and for each of its causes
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Render stack trace of given exception.
+   *
+   * @param throwable is exception whose stack trace should be rendered
+   * @return rendered stack trace, null if rendering is disabled
+   */
+  public @Nullable String render(Throwable throwable) {
+    if (!enabled) {
+      return null;
+    }
+    var builder = new StringBuilder(1024);
+    renderTo(throwable, builder);
+    return builder.toString();
+  }
+
+  /**
+   * Render stack trace of given exception to supplied builder. Frames of exception are followed by
+   * frames of its causes; renders nothing if rendering is disabled.
+   *
+   * @param throwable is exception whose stack trace should be rendered
+   * @param builder   is builder rendered stack is appended to
+   */
+  public void renderTo(Throwable throwable, StringBuilder builder) {
+    if (!enabled) {
+      return;
+    }
+    int start = builder.length();
+    Set<Throwable> rendered = Collections.newSetFromMap(new IdentityHashMap<>());
+    StackTraceElement[] enclosing = new StackTraceElement[0];
+    @Nullable Throwable current = throwable;
+    int causes = 0;
+    while ((current != null) && rendered.add(current)) {
+      if (current != throwable) {
+        if (builder.length() > start) {
+          builder.append('\n');
+        }
+        if (causes++ >= MAX_CAUSES) {
+          builder.append("... further causes omitted");
+          return;
+        }
+        builder.append("Caused by: ").append(current);
+      }
+      var trace = current.getStackTrace();
+      renderFrames(trace, enclosing, builder, start);
+      enclosing = trace;
+      current = current.getCause();
+    }
+  }
+
+  private void renderFrames(StackTraceElement[] trace, StackTraceElement[] enclosing,
+      StringBuilder builder, int start) {
+    // frames in common with enclosing trace are not repeated
+    int last = trace.length - 1;
+    int enclosingLast = enclosing.length - 1;
+    while ((last >= 0) && (enclosingLast >= 0) && trace[last].equals(enclosing[enclosingLast])) {
+      last--;
+      enclosingLast--;
+    }
+    int rendered = Math.min(last + 1, maxDepth);
+    for (int i = 0; i < rendered; i++) {
+      if (builder.length() > start) {
+        builder.append('\n');
+      }
+      builder.append("at ").append(trace[i]);
+    }
+    int omitted = trace.length - rendered;
+    if (omitted > 0) {
+      if (builder.length() > start) {
+        builder.append('\n');
+      }
+      builder.append("... ").append(omitted).append(" more");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "StackTraceRenderer{"
+        + "enabled=" + enabled
+        + ", maxDepth=" + maxDepth
+        + '}';
+  }
+}
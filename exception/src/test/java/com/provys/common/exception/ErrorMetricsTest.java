@@ -0,0 +1,52 @@
+package com.provys.common.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ErrorMetricsTest {
+
+  private static final String TEST_ERROR = "TEST_ERROR";
+
+  @Test
+  void recordFailingListenerTest() {
+    var errorMetrics = new ErrorMetrics();
+    var notified = new ArrayList<String>(2);
+    errorMetrics.addCounterListener(counter -> {
+      if (counter.getNameNm().equals(TEST_ERROR)) {
+        throw new IllegalStateException("Listener failure");
+      }
+    });
+    errorMetrics.addCounterListener(counter -> notified.add(counter.getNameNm()));
+    assertThatCode(() -> errorMetrics.record(TEST_ERROR, -1, 500, ErrorMetrics.UNKNOWN_LATENCY))
+        .doesNotThrowAnyException();
+    assertThat(notified).containsExactly(ErrorMetrics.OVERFLOW_NAME_NM, TEST_ERROR);
+    assertThat(errorMetrics.getCounters())
+        .filteredOn(counter -> counter.getNameNm().equals(TEST_ERROR))
+        .extracting(ErrorMetrics.ErrorCounter::getCount)
+        .containsExactly(1L);
+  }
+
+  @Test
+  void getCumulativeLatencyCountTest() {
+    var errorMetrics = new ErrorMetrics();
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofMillis(3).toNanos());
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofMillis(40).toNanos());
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofSeconds(20).toNanos());
+    var counter = errorMetrics.getCounters().stream()
+        .filter(errorCounter -> errorCounter.getNameNm().equals(TEST_ERROR))
+        .findAny()
+        .orElseThrow();
+    var bucketCounts = counter.getLatencyBucketCounts();
+    long expected = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      expected += bucketCounts[i];
+      assertThat(counter.getCumulativeLatencyCount(i)).isEqualTo(expected);
+    }
+    assertThat(counter.getCumulativeLatencyCount(bucketCounts.length - 1))
+        .isEqualTo(counter.getLatencyCount()).isEqualTo(3);
+  }
+}
@@ -0,0 +1,220 @@
+package com.provys.common.exception;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.simple.SimpleLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExceptionLogThrottlerTest {
+
+  private static final int BURST = 3;
+  private static final int REFILL_PER_MINUTE = 6;
+  private static final long EMISSION_INTERVAL = Duration.ofSeconds(10).toNanos();
+  private static final Duration SUMMARY_INTERVAL = Duration.ofMinutes(1);
+
+  private static ExceptionLogThrottler throttler() {
+    return new ExceptionLogThrottler(BURST, REFILL_PER_MINUTE, SUMMARY_INTERVAL);
+  }
+
+  /**
+   * Exception with artificial top stack frame; exceptions with different line fall into different
+   * groups.
+   */
+  private static Exception exception(int line) {
+    var result = new IllegalStateException("Test exception");
+    result.setStackTrace(new StackTraceElement[]{
+        new StackTraceElement("com.provys.Test", "method", "Test.java", line)});
+    return result;
+  }
+
+  private static Logger logger(ByteArrayOutputStream output) {
+    return new SimpleLogger("test", Level.ALL, false, false, false, false, null, null,
+        new PropertiesUtil(new Properties()),
+        new PrintStream(output, true, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void invalidConfigurationTest() {
+    assertThatThrownBy(() -> new ExceptionLogThrottler(0, 1, SUMMARY_INTERVAL))
+        .isInstanceOf(InternalException.class);
+    assertThatThrownBy(() -> new ExceptionLogThrottler(1, 0, SUMMARY_INTERVAL))
+        .isInstanceOf(InternalException.class);
+  }
+
+  @Test
+  void burstTest() {
+    var group = throttler().getGroup(exception(1));
+    var now = System.nanoTime();
+    for (int i = 0; i < BURST; i++) {
+      assertThat(group.tryAcquire(now)).as("occurrence %d", i).isTrue();
+    }
+    assertThat(group.tryAcquire(now)).isFalse();
+    assertThat(group.tryAcquire(now + 1000)).isFalse();
+  }
+
+  @Test
+  void refillTest() {
+    var group = throttler().getGroup(exception(1));
+    var now = System.nanoTime();
+    for (int i = 0; i < BURST; i++) {
+      group.tryAcquire(now);
+    }
+    assertThat(group.tryAcquire(now + EMISSION_INTERVAL - 1)).isFalse();
+    assertThat(group.tryAcquire(now + EMISSION_INTERVAL)).isTrue();
+    assertThat(group.tryAcquire(now + EMISSION_INTERVAL)).isFalse();
+    assertThat(group.tryAcquire(now + 2 * EMISSION_INTERVAL)).isTrue();
+  }
+
+  @Test
+  void refillCappedByBurstTest() {
+    var group = throttler().getGroup(exception(1));
+    var later = System.nanoTime() + Duration.ofHours(1).toNanos();
+    // long idle period does not accumulate more than burst
+    for (int i = 0; i < BURST; i++) {
+      assertThat(group.tryAcquire(later)).as("occurrence %d", i).isTrue();
+    }
+    assertThat(group.tryAcquire(later)).isFalse();
+  }
+
+  @Test
+  void acquireSuppressedTest() {
+    var throttler = throttler();
+    var exception = exception(1);
+    throttler.getGroup(exception); // group has to exist before time is taken
+    var now = System.nanoTime();
+    for (int i = 0; i < BURST; i++) {
+      assertThat(throttler.acquire(exception, now)).isZero();
+    }
+    for (int i = 0; i < 4; i++) {
+      assertThat(throttler.acquire(exception, now)).isEqualTo(-1);
+    }
+    // count of suppressed occurrences is reported with next logged occurrence and reset
+    assertThat(throttler.acquire(exception, now + EMISSION_INTERVAL)).isEqualTo(4);
+    assertThat(throttler.acquire(exception, now + 2 * EMISSION_INTERVAL)).isZero();
+  }
+
+  @Test
+  void groupsTest() {
+    var throttler = throttler();
+    throttler.getGroup(exception(1));
+    throttler.getGroup(exception(2));
+    var now = System.nanoTime();
+    for (int i = 0; i < BURST; i++) {
+      throttler.acquire(exception(1), now);
+    }
+    assertThat(throttler.acquire(exception(1), now)).isEqualTo(-1);
+    // different top frame - different group, not affected by suppression of first one
+    assertThat(throttler.acquire(exception(2), now)).isZero();
+    assertThat(throttler.getGroup(exception(1))).isSameAs(throttler.getGroup(exception(1)))
+        .isNotSameAs(throttler.getGroup(exception(2)));
+  }
+
+  @Test
+  void maxGroupsTest() {
+    var throttler = throttler();
+    var groups = new ArrayList<ExceptionLogThrottler.Group>(ExceptionLogThrottler.MAX_GROUPS);
+    for (int i = 0; i < ExceptionLogThrottler.MAX_GROUPS; i++) {
+      groups.add(throttler.getGroup(exception(i)));
+    }
+    assertThat(groups).doesNotHaveDuplicates();
+    var overflow = throttler.getGroup(exception(ExceptionLogThrottler.MAX_GROUPS));
+    assertThat(overflow).isNotIn(groups);
+    assertThat(throttler.getGroup(exception(ExceptionLogThrottler.MAX_GROUPS + 1)))
+        .isSameAs(overflow);
+    // already tracked groups are still used
+    assertThat(throttler.getGroup(exception(0))).isSameAs(groups.get(0));
+  }
+
+  @Test
+  void evictIdleGroupsTest() {
+    var throttler = throttler();
+    var groups = new ArrayList<ExceptionLogThrottler.Group>(ExceptionLogThrottler.MAX_GROUPS);
+    for (int i = 0; i < ExceptionLogThrottler.MAX_GROUPS; i++) {
+      groups.add(throttler.getGroup(exception(i)));
+    }
+    var later = System.nanoTime() + 2 * SUMMARY_INTERVAL.toNanos();
+    // group with suppressed occurrences is kept until they are reported
+    for (int i = 0; i <= BURST; i++) {
+      throttler.acquire(exception(0), later);
+    }
+    // all groups are in use, idle groups are evicted to make space for new one
+    var group = throttler.getGroup(exception(ExceptionLogThrottler.MAX_GROUPS), later);
+    assertThat(group).isNotIn(groups);
+    assertThat(throttler.getGroup(exception(ExceptionLogThrottler.MAX_GROUPS + 1), later))
+        .isNotSameAs(group);
+    assertThat(throttler.getGroupCount()).isEqualTo(3);
+    assertThat(throttler.getGroup(exception(0), later)).isSameAs(groups.get(0));
+  }
+
+  @Test
+  void logSummaryIfDueEvictTest() {
+    var throttler = throttler();
+    var start = System.nanoTime();
+    var output = new ByteArrayOutputStream();
+    throttler.getGroup(exception(1), start);
+    throttler.getGroup(exception(2), start);
+    var due = start + 2 * SUMMARY_INTERVAL.toNanos();
+    for (int i = 0; i <= BURST; i++) {
+      throttler.acquire(exception(1), due);
+    }
+    throttler.logSummaryIfDue(logger(output), due);
+    // idle group is evicted after summary, recently active group is kept
+    assertThat(output.toString(StandardCharsets.UTF_8)).contains("Test.java:1");
+    assertThat(throttler.getGroupCount()).isEqualTo(1);
+  }
+
+  @Test
+  void getPositivePropertyTest() {
+    var property = "provys.error.log.test-property";
+    assertThat(ExceptionLogThrottler.getPositiveProperty(property, 5)).isEqualTo(5);
+    System.setProperty(property, "0");
+    try {
+      assertThat(ExceptionLogThrottler.getPositiveProperty(property, 5)).isEqualTo(1);
+      System.setProperty(property, "-7");
+      assertThat(ExceptionLogThrottler.getPositiveProperty(property, 5)).isEqualTo(1);
+      System.setProperty(property, "invalid");
+      assertThat(ExceptionLogThrottler.getPositiveProperty(property, 5)).isEqualTo(5);
+      System.setProperty(property, "12");
+      assertThat(ExceptionLogThrottler.getPositiveProperty(property, 5)).isEqualTo(12);
+    } finally {
+      System.clearProperty(property);
+    }
+  }
+
+  @Test
+  void logSummaryIfDueTest() {
+    var throttler = throttler();
+    throttler.getGroup(exception(1));
+    throttler.getGroup(exception(2));
+    var start = System.nanoTime();
+    var output = new ByteArrayOutputStream();
+    var logger = logger(output);
+    for (int i = 0; i < BURST + 2; i++) {
+      throttler.acquire(exception(1), start);
+    }
+    throttler.acquire(exception(2), start);
+    throttler.logSummaryIfDue(logger, start);
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEmpty();
+    var due = start + SUMMARY_INTERVAL.toNanos();
+    throttler.logSummaryIfDue(logger, due);
+    var summary = output.toString(StandardCharsets.UTF_8);
+    assertThat(summary).contains("Suppressed 2 occurrences of java.lang.IllegalStateException")
+        .contains("Test.java:1").doesNotContain("Test.java:2");
+    // next summary is due after another interval; suppressed counts have been reset
+    output.reset();
+    throttler.logSummaryIfDue(logger, due + 1);
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEmpty();
+    throttler.logSummaryIfDue(logger, due + SUMMARY_INTERVAL.toNanos());
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEmpty();
+  }
+}
@@ -0,0 +1,112 @@
+package com.provys.common.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProvysExceptionTest {
+
+  private static final Map<String, String> PARAMS = Map.of("ENTITY", "SUBJECT", "ID", "12");
+
+  private static Supplier<Map<String, String>> countingSupplier(AtomicInteger counter) {
+    return () -> {
+      counter.incrementAndGet();
+      return PARAMS;
+    };
+  }
+
+  @Test
+  void stacklessTest() {
+    var exception = new InternalException("Test exception", null, null, false);
+    assertThat(exception.getStackTrace()).isEmpty();
+    exception.setStackTrace(new Throwable().getStackTrace());
+    assertThat(exception.getStackTrace()).isEmpty();
+    assertThat(exception.getParams()).isEmpty();
+  }
+
+  @Test
+  void writableStackTraceTest() {
+    var exception = new InternalException("Test exception", null, null, true);
+    assertThat(exception.getStackTrace()).isNotEmpty();
+  }
+
+  @Test
+  void paramsSupplierTest() {
+    var counter = new AtomicInteger();
+    var exception = new InternalException("Test exception", countingSupplier(counter), null,
+        false);
+    assertThat(counter).hasValue(0);
+    assertThat(exception.getParams()).isEqualTo(PARAMS);
+    assertThat(exception.getParams()).isEqualTo(PARAMS);
+    assertThat(exception.hashCode()).isEqualTo(PARAMS.hashCode());
+    assertThat(exception.toString()).contains("ENTITY=SUBJECT");
+    assertThat(counter).hasValue(1);
+  }
+
+  @Test
+  void paramsSupplierNullTest() {
+    var exception = new InternalException("Test exception", () -> null, null, false);
+    assertThat(exception.getParams()).isEmpty();
+  }
+
+  @Test
+  void paramsSupplierConcurrentTest() throws InterruptedException, ExecutionException {
+    var counter = new AtomicInteger();
+    var exception = new InternalException("Test exception", countingSupplier(counter), null,
+        false);
+    int threads = 8;
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      var start = new CountDownLatch(1);
+      var futures = new ArrayList<Future<Map<String, String>>>(threads);
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit((Callable<Map<String, String>>) () -> {
+          start.await();
+          return exception.getParams();
+        }));
+      }
+      start.countDown();
+      for (var future : futures) {
+        assertThat(future.get()).isEqualTo(PARAMS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(counter).hasValue(1);
+  }
+
+  @Test
+  void serializationTest() throws IOException, ClassNotFoundException {
+    var counter = new AtomicInteger();
+    var exception = new InternalException("Test exception", countingSupplier(counter), null,
+        false);
+    var outputStream = new ByteArrayOutputStream();
+    try (var objectOutputStream = new ObjectOutputStream(outputStream)) {
+      objectOutputStream.writeObject(exception);
+    }
+    assertThat(counter).hasValue(1);
+    try (var objectInputStream = new ObjectInputStream(
+        new ByteArrayInputStream(outputStream.toByteArray()))) {
+      var result = (InternalException) objectInputStream.readObject();
+      assertThat(result.getParams()).isEqualTo(PARAMS);
+      assertThat(result.getMessage()).isEqualTo("Test exception");
+      assertThat(result.getStackTrace()).isEmpty();
+    }
+    assertThat(counter).hasValue(1);
+  }
+}
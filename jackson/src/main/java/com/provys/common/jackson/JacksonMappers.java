@@ -1,13 +1,25 @@
 package com.provys.common.jackson;
 
+import com.ctc.wstx.api.WstxInputProperties;
 import com.ctc.wstx.api.WstxOutputProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.provys.common.exception.InternalException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
 
 /**
  * Jackson mappers (Json, Xml) that should be used in standard Provys libraries. At the moment it is
@@ -21,37 +33,358 @@ import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
  */
 public final class JacksonMappers {
 
+  /**
+   * Size of input buffer (in characters) used by Woodstox parser in Xml mappers created via
+   * {@link #createXmlFactory(StaxImplementation)}. Bigger than Woodstox default to reduce number of
+   * reads from underlying stream when processing large documents.
+   */
+  public static final int XML_INPUT_BUFFER_LENGTH = 16384;
+
   private static final ObjectMapper JSON_MAPPER;
 
   static {
     JSON_MAPPER = new ObjectMapper();
-    JSON_MAPPER.setAnnotationIntrospector(
-        AnnotationIntrospector.pair(new JacksonAnnotationIntrospector(),
-            new JacksonXmlAnnotationIntrospector()))
-        .findAndRegisterModules()
-        .setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+    configureJsonMapper(JSON_MAPPER);
   }
 
   public static ObjectMapper getJsonMapper() {
     return JSON_MAPPER;
   }
 
+  private static void configureJsonMapper(ObjectMapper mapper) {
+    mapper.setAnnotationIntrospector(
+        AnnotationIntrospector.pair(new JacksonAnnotationIntrospector(),
+            new JacksonXmlAnnotationIntrospector()))
+        .findAndRegisterModules()
+        .setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+  }
+
   private static final XmlMapper XML_MAPPER;
 
   static {
     XML_MAPPER = new XmlMapper();
-    XML_MAPPER.enable(ToXmlGenerator.Feature.WRITE_XML_DECLARATION);
     XML_MAPPER.getFactory()
         .getXMLOutputFactory()
         .setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
-    XML_MAPPER.setAnnotationIntrospector(
+    configureXmlMapper(XML_MAPPER);
+  }
+
+  public static XmlMapper getXmlMapper() {
+    return XML_MAPPER;
+  }
+
+  /**
+   * Holder of Xml mapper backed by Aalto; initialized on first use as Aalto is optional dependency.
+   */
+  private static final class AaltoXmlMapperHolder {
+
+    private static final XmlMapper XML_MAPPER = createXmlMapper(StaxImplementation.AALTO);
+  }
+
+  /**
+   * Xml mapper with Provys configuration, backed by specified StAX implementation. Same rules as
+   * for default Xml mapper apply - mapper is shared and should never be modified.
+   *
+   * @param staxImplementation is StAX implementation mapper should use
+   * @return shared Xml mapper using given StAX implementation
+   * @throws InternalException if given implementation is not available on classpath
+   */
+  public static XmlMapper getXmlMapper(StaxImplementation staxImplementation) {
+    if (staxImplementation == StaxImplementation.AALTO) {
+      // check before touching holder, failed class initialization would not be reported again
+      staxImplementation.checkAvailable();
+      return AaltoXmlMapperHolder.XML_MAPPER;
+    }
+    return XML_MAPPER;
+  }
+
+  private static void configureXmlMapper(XmlMapper mapper) {
+    mapper.enable(ToXmlGenerator.Feature.WRITE_XML_DECLARATION);
+    mapper.setAnnotationIntrospector(
         AnnotationIntrospector.pair(new JacksonXmlAnnotationIntrospector(),
             new JacksonAnnotationIntrospector()))
         .findAndRegisterModules();
   }
 
-  public static XmlMapper getXmlMapper() {
-    return XML_MAPPER;
+  /**
+   * Create Xml factory, backed by specified StAX implementation. Factory produces Xml in Provys
+   * format (double quotes in Xml declaration) when implementation supports it. Useful when Xml
+   * mapper is constructed outside of this class (e.g. via Spring's mapper builder).
+   *
+   * @param staxImplementation is StAX implementation factory should use
+   * @return new Xml factory
+   * @throws InternalException if given implementation is not available on classpath
+   */
+  public static XmlFactory createXmlFactory(StaxImplementation staxImplementation) {
+    staxImplementation.checkAvailable();
+    var inputFactory = staxImplementation.createInputFactory();
+    if (inputFactory.isPropertySupported(WstxInputProperties.P_INPUT_BUFFER_LENGTH)) {
+      inputFactory.setProperty(WstxInputProperties.P_INPUT_BUFFER_LENGTH, XML_INPUT_BUFFER_LENGTH);
+    }
+    var outputFactory = staxImplementation.createOutputFactory();
+    if (outputFactory.isPropertySupported(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL)) {
+      outputFactory.setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
+    }
+    return new XmlFactory(inputFactory, outputFactory);
+  }
+
+  /**
+   * Create new Xml mapper with Provys configuration, backed by specified StAX implementation.
+   * Unlike {@link #getXmlMapper(StaxImplementation)}, returned mapper is not shared and caller can
+   * customise it.
+   *
+   * @param staxImplementation is StAX implementation mapper should use
+   * @return new Xml mapper
+   * @throws InternalException if given implementation is not available on classpath
+   */
+  public static XmlMapper createXmlMapper(StaxImplementation staxImplementation) {
+    var mapper = new XmlMapper(createXmlFactory(staxImplementation));
+    configureXmlMapper(mapper);
+    return mapper;
+  }
+
+  /**
+   * Name of Blackbird module class. Blackbird is optional dependency, thus it is only referenced by
+   * name.
+   */
+  private static final String BLACKBIRD_MODULE_CLASS =
+      "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+  /**
+   * Indicates if Blackbird module (com.fasterxml.jackson.module:jackson-module-blackbird) is
+   * present on classpath and thus performance profile can be used.
+   *
+   * @return true if Blackbird module is available, false otherwise
+   */
+  public static boolean isPerformanceProfileAvailable() {
+    try {
+      Class.forName(BLACKBIRD_MODULE_CLASS, false, JacksonMappers.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static void checkPerformanceProfileAvailable() {
+    if (!isPerformanceProfileAvailable()) {
+      throw new IllegalStateException("Blackbird module class " + BLACKBIRD_MODULE_CLASS
+          + " not found on classpath; performance profile requires jackson-module-blackbird");
+    }
+  }
+
+  private static Module createBlackbirdModule() {
+    try {
+      return (Module) Class.forName(BLACKBIRD_MODULE_CLASS, true,
+          JacksonMappers.class.getClassLoader())
+          .getDeclaredConstructor()
+          .newInstance();
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Blackbird module class " + BLACKBIRD_MODULE_CLASS
+          + " not found on classpath; performance profile requires jackson-module-blackbird", e);
+    } catch (InstantiationException | IllegalAccessException | NoSuchMethodException
+        | InvocationTargetException e) {
+      throw new IllegalStateException("Failed to instantiate Blackbird module", e);
+    }
+  }
+
+  /**
+   * Apply performance profile to supplied mapper. Profile registers Blackbird module, replacing
+   * reflective property access with accessors generated via LambdaMetafactory, and disables
+   * features that cost time on hot path without affecting produced output - flushing after each
+   * written value and keeping source reference for error locations in parser. Note that errors
+   * reported by parser will not contain source excerpt.
+   *
+   * @param mapper is mapper to be tuned; mapper is modified
+   * @param <M>    is type of mapper
+   * @return supplied mapper, to allow chaining
+   * @throws IllegalStateException if Blackbird module is not available on classpath
+   */
+  public static <M extends ObjectMapper> M tunePerformance(M mapper) {
+    mapper.registerModule(createBlackbirdModule());
+    mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    mapper.disable(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION);
+    return mapper;
+  }
+
+  /**
+   * Holder of performance tuned mappers; initialized on first use as Blackbird is optional
+   * dependency.
+   */
+  private static final class PerformanceMapperHolder {
+
+    private static final ObjectMapper JSON_MAPPER;
+
+    static {
+      JSON_MAPPER = new ObjectMapper();
+      configureJsonMapper(JSON_MAPPER);
+      tunePerformance(JSON_MAPPER);
+    }
+
+    private static final XmlMapper XML_MAPPER;
+
+    static {
+      XML_MAPPER = new XmlMapper();
+      XML_MAPPER.getFactory()
+          .getXMLOutputFactory()
+          .setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
+      configureXmlMapper(XML_MAPPER);
+      tunePerformance(XML_MAPPER);
+    }
+  }
+
+  /**
+   * Json mapper with Provys configuration and performance profile applied (see {@link
+   * #tunePerformance(ObjectMapper)}). Produces the same output as default Json mapper. Mapper is
+   * shared and should never be modified.
+   *
+   * @return shared performance tuned Json mapper
+   * @throws IllegalStateException if Blackbird module is not available on classpath
+   */
+  public static ObjectMapper getPerformanceJsonMapper() {
+    checkPerformanceProfileAvailable();
+    return PerformanceMapperHolder.JSON_MAPPER;
+  }
+
+  /**
+   * Xml mapper with Provys configuration and performance profile applied (see {@link
+   * #tunePerformance(ObjectMapper)}). Produces the same output as default Xml mapper. Mapper is
+   * shared and should never be modified.
+   *
+   * @return shared performance tuned Xml mapper
+   * @throws IllegalStateException if Blackbird module is not available on classpath
+   */
+  public static XmlMapper getPerformanceXmlMapper() {
+    checkPerformanceProfileAvailable();
+    return PerformanceMapperHolder.XML_MAPPER;
+  }
+
+  /**
+   * Create cache of values (readers, writers) bound to given root type. Readers and writers are
+   * immutable and resolve root (de)serializer when created, thus using them instead of {@code
+   * readValue(..., Class)} on mapper avoids repeated root type resolution on each call.
+   */
+  private static <T> ClassValue<T> typeCache(Function<Class<?>, T> factory) {
+    return new ClassValue<>() {
+      @Override
+      protected T computeValue(Class<?> type) {
+        return factory.apply(type);
+      }
+    };
+  }
+
+  private static final ClassValue<ObjectReader> JSON_READERS = typeCache(JSON_MAPPER::readerFor);
+  private static final ClassValue<ObjectWriter> JSON_WRITERS = typeCache(JSON_MAPPER::writerFor);
+  private static final ClassValue<ObjectReader> XML_READERS = typeCache(XML_MAPPER::readerFor);
+  private static final ClassValue<ObjectWriter> XML_WRITERS = typeCache(XML_MAPPER::writerFor);
+
+  /**
+   * Json reader for given root type, based on default Json mapper. Readers are cached, repeated
+   * calls for the same type return the same instance.
+   *
+   * @param type is root type of values being read
+   * @return reader for given type
+   */
+  public static ObjectReader jsonReaderFor(Class<?> type) {
+    return JSON_READERS.get(type);
+  }
+
+  /**
+   * Json writer for given root type, based on default Json mapper. Writers are cached, repeated
+   * calls for the same type return the same instance.
+   *
+   * @param type is root type of values being written
+   * @return writer for given type
+   */
+  public static ObjectWriter jsonWriterFor(Class<?> type) {
+    return JSON_WRITERS.get(type);
+  }
+
+  /**
+   * Xml reader for given root type, based on default Xml mapper. Readers are cached, repeated calls
+   * for the same type return the same instance.
+   *
+   * @param type is root type of values being read
+   * @return reader for given type
+   */
+  public static ObjectReader xmlReaderFor(Class<?> type) {
+    return XML_READERS.get(type);
+  }
+
+  /**
+   * Xml writer for given root type, based on default Xml mapper. Writers are cached, repeated calls
+   * for the same type return the same instance.
+   *
+   * @param type is root type of values being written
+   * @return writer for given type
+   */
+  public static ObjectWriter xmlWriterFor(Class<?> type) {
+    return XML_WRITERS.get(type);
+  }
+
+  /**
+   * Pre-build readers and writers for supplied types in both default Json and Xml mapper. Building
+   * reader / writer resolves root deserializer / serializer, thus calling this method during
+   * application startup (e.g. with types from {@code TypeMapImpl.getDefault().getTypes()}) moves
+   * cost of serializer construction from first request to startup.
+   *
+   * @param types are types readers and writers should be prepared for
+   */
+  public static void warmUp(Iterable<? extends Class<?>> types) {
+    for (var type : types) {
+      JSON_READERS.get(type);
+      JSON_WRITERS.get(type);
+      XML_READERS.get(type);
+      XML_WRITERS.get(type);
+    }
+  }
+
+  /**
+   * Resolve root deserializers and serializers for supplied types in given mapper. Mapper caches
+   * resolved (de)serializers, thus calling this method during application startup for mappers
+   * constructed outside of this class (e.g. via Spring's mapper builder) moves cost of their
+   * construction from first request to startup.
+   *
+   * @param mapper is mapper to be warmed up
+   * @param types  are types (de)serializers should be resolved for
+   */
+  public static void warmUp(ObjectMapper mapper, Iterable<? extends Class<?>> types) {
+    for (var type : types) {
+      mapper.readerFor(type);
+      mapper.writerFor(type);
+    }
+  }
+
+  /**
+   * Read repeated child elements of root element of supplied Xml document one by one, using
+   * default Xml mapper.
+   *
+   * @param source    is stream containing Xml document; it is closed when iterator is closed
+   * @param valueType is type elements are bound to
+   * @param <T>       is type elements are bound to
+   * @return iterator over values in document
+   * @throws IOException if document cannot be opened
+   */
+  public static <T> XmlValueIterator<T> readXmlValues(InputStream source, Class<T> valueType)
+      throws IOException {
+    return XmlValueIterator.of(XML_MAPPER, source, valueType);
+  }
+
+  /**
+   * Read repeated child elements of root element of supplied Xml document one by one, using Xml
+   * mapper backed by specified StAX implementation.
+   *
+   * @param staxImplementation is StAX implementation used to parse the document
+   * @param source             is stream containing Xml document; it is closed when iterator is
+   *                           closed
+   * @param valueType          is type elements are bound to
+   * @param <T>                is type elements are bound to
+   * @return iterator over values in document
+   * @throws IOException       if document cannot be opened
+   * @throws InternalException if given implementation is not available on classpath
+   */
+  public static <T> XmlValueIterator<T> readXmlValues(StaxImplementation staxImplementation,
+      InputStream source, Class<T> valueType) throws IOException {
+    return XmlValueIterator.of(getXmlMapper(staxImplementation), source, valueType);
   }
 
   private JacksonMappers() {
@@ -0,0 +1,99 @@
+package com.provys.common.jackson;
+
+import com.provys.common.exception.InternalException;
+import java.lang.reflect.InvocationTargetException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+/**
+ * StAX implementations that can be used as backend for Provys Xml mappers. Woodstox is default
+ * implementation and is always available as common-jackson depends on it; Aalto is faster
+ * (especially when parsing) and supports non-blocking parsing, but it is optional and has to be
+ * added to classpath by application that wants to use it.
+ */
+public enum StaxImplementation {
+
+  /**
+   * Woodstox StAX implementation; default implementation used by Jackson Xml mapper.
+   */
+  WOODSTOX("com.ctc.wstx.stax.WstxInputFactory", "com.ctc.wstx.stax.WstxOutputFactory"),
+  /**
+   * Aalto StAX implementation; high-throughput implementation, supporting async (non-blocking)
+   * parsing. Requires com.fasterxml:aalto-xml on classpath.
+   */
+  AALTO("com.fasterxml.aalto.stax.InputFactoryImpl", "com.fasterxml.aalto.stax.OutputFactoryImpl");
+
+  private final String inputFactoryClassName;
+  private final String outputFactoryClassName;
+
+  StaxImplementation(String inputFactoryClassName, String outputFactoryClassName) {
+    this.inputFactoryClassName = inputFactoryClassName;
+    this.outputFactoryClassName = outputFactoryClassName;
+  }
+
+  private static <T> T instantiate(String className, Class<T> type) {
+    try {
+      return type.cast(Class.forName(className, true, StaxImplementation.class.getClassLoader())
+          .getDeclaredConstructor()
+          .newInstance());
+    } catch (ClassNotFoundException e) {
+      throw new InternalException("StAX implementation class " + className
+          + " not found on classpath", e);
+    } catch (InstantiationException | IllegalAccessException | NoSuchMethodException
+        | InvocationTargetException e) {
+      throw new InternalException("Failed to instantiate StAX factory " + className, e);
+    }
+  }
+
+  /**
+   * Indicates if given implementation is present on classpath.
+   *
+   * @return true if implementation classes can be loaded, false otherwise
+   */
+  public boolean isAvailable() {
+    try {
+      Class.forName(inputFactoryClassName, false, StaxImplementation.class.getClassLoader());
+      Class.forName(outputFactoryClassName, false, StaxImplementation.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Verify that given implementation is present on classpath.
+   *
+   * @throws InternalException if implementation classes cannot be loaded
+   */
+  public void checkAvailable() {
+    if (!isAvailable()) {
+      throw new InternalException("StAX implementation " + name() + " is not available ("
+          + inputFactoryClassName + " not found on classpath)"
+          + ((this == AALTO) ? "; add com.fasterxml:aalto-xml dependency to use it" : ""));
+    }
+  }
+
+  /**
+   * Create new input factory of this implementation. Factory is configured defensively - DTD
+   * processing and external entities are disabled.
+   *
+   * @return new StAX input factory
+   * @throws InternalException if implementation is not available on classpath
+   */
+  public XMLInputFactory createInputFactory() {
+    var inputFactory = instantiate(inputFactoryClassName, XMLInputFactory.class);
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return inputFactory;
+  }
+
+  /**
+   * Create new output factory of this implementation.
+   *
+   * @return new StAX output factory
+   * @throws InternalException if implementation is not available on classpath
+   */
+  public XMLOutputFactory createOutputFactory() {
+    return instantiate(outputFactoryClassName, XMLOutputFactory.class);
+  }
+}
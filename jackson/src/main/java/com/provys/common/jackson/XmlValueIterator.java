@@ -0,0 +1,134 @@
+package com.provys.common.jackson;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Iterator reading repeated child elements of Xml document root one by one, similar to Jackson's
+ * {@code MappingIterator}. Only single element is bound at any time, making it possible to process
+ * documents with huge number of repeated elements with bounded memory.
+ *
+ * <p>Iterator is not thread safe. It should be closed after use; closing iterator also closes
+ * underlying input stream.
+ *
+ * @param <T> is type of values read from document
+ */
+public final class XmlValueIterator<T> implements Iterator<T>, Closeable {
+
+  private final XmlMapper mapper;
+  private final XMLStreamReader reader;
+  private final Class<T> valueType;
+  private final InputStream source;
+  /**
+   * Reader is positioned on start element of next value.
+   */
+  private boolean positioned;
+  /**
+   * End of root element has been reached.
+   */
+  private boolean finished;
+
+  /**
+   * Create iterator over child elements of root element in supplied stream.
+   *
+   * @param mapper    is Xml mapper used to bind elements; its StAX input factory is used to parse
+   *                  the document
+   * @param source    is stream containing Xml document
+   * @param valueType is type individual elements are bound to
+   * @param <T>       is type individual elements are bound to
+   * @return iterator over values in the document
+   * @throws IOException if document cannot be opened or does not contain root element
+   */
+  public static <T> XmlValueIterator<T> of(XmlMapper mapper, InputStream source,
+      Class<T> valueType) throws IOException {
+    try {
+      var reader = mapper.getFactory().getXMLInputFactory().createXMLStreamReader(source);
+      reader.nextTag(); // move to root element
+      return new XmlValueIterator<>(mapper, reader, valueType, source);
+    } catch (XMLStreamException e) {
+      source.close();
+      throw new IOException("Failed to open Xml document for streaming read", e);
+    }
+  }
+
+  private XmlValueIterator(XmlMapper mapper, XMLStreamReader reader, Class<T> valueType,
+      InputStream source) {
+    this.mapper = mapper;
+    this.reader = reader;
+    this.valueType = valueType;
+    this.source = source;
+  }
+
+  private void advance() throws XMLStreamException {
+    while (reader.hasNext()) {
+      var event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        positioned = true;
+        return;
+      }
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        // end of root element - no more values
+        break;
+      }
+    }
+    finished = true;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!positioned && !finished) {
+      try {
+        advance();
+      } catch (XMLStreamException e) {
+        throw new UncheckedIOException(
+            new IOException("Failed to read next element from Xml document", e));
+      }
+    }
+    return positioned;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more elements in Xml document");
+    }
+    positioned = false;
+    try {
+      return mapper.readValue(reader, valueType);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Read all remaining values to list.
+   *
+   * @return list containing all remaining values
+   */
+  public List<T> readAll() {
+    var result = new ArrayList<T>();
+    forEachRemaining(result::add);
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to close Xml stream reader", e);
+    } finally {
+      source.close();
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.provys.common.jackson;
+
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+class XmlValueIteratorTest {
+
+  @SuppressWarnings("unused") // properties accessed by Jackson
+  static final class Item {
+
+    private @Nullable String name;
+    private int value;
+
+    Item() {
+    }
+
+    Item(String name, int value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    public @Nullable String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getValue() {
+      return value;
+    }
+
+    public void setValue(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Item)) {
+        return false;
+      }
+      Item item = (Item) o;
+      return value == item.value && Objects.equals(name, item.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, value);
+    }
+  }
+
+  private static List<Item> items(int count) {
+    var result = new ArrayList<Item>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(new Item("item" + i, i));
+    }
+    return result;
+  }
+
+  private static byte[] document(List<Item> items) throws IOException {
+    var writer = JacksonMappers.getXmlMapper().writer()
+        .without(ToXmlGenerator.Feature.WRITE_XML_DECLARATION)
+        .withRootName("item");
+    var builder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<items>\n");
+    for (var item : items) {
+      builder.append("  ").append(writer.writeValueAsString(item)).append('\n');
+    }
+    builder.append("</items>\n");
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void staxImplementationAvailableTest() {
+    assertThat(StaxImplementation.WOODSTOX.isAvailable()).isTrue();
+    assertThat(StaxImplementation.AALTO.isAvailable()).isTrue();
+  }
+
+  @ParameterizedTest
+  @EnumSource(StaxImplementation.class)
+  void getXmlMapperTest(StaxImplementation staxImplementation) {
+    var inputFactory = JacksonMappers.getXmlMapper(staxImplementation).getFactory()
+        .getXMLInputFactory();
+    assertThat(inputFactory.getClass().getName())
+        .startsWith((staxImplementation == StaxImplementation.AALTO) ? "com.fasterxml.aalto"
+            : "com.ctc.wstx");
+  }
+
+  @ParameterizedTest
+  @EnumSource(StaxImplementation.class)
+  void readXmlValuesTest(StaxImplementation staxImplementation) throws IOException {
+    var items = items(1000);
+    try (var iterator = JacksonMappers.readXmlValues(staxImplementation,
+        new ByteArrayInputStream(document(items)), Item.class)) {
+      var result = new ArrayList<Item>();
+      while (iterator.hasNext()) {
+        result.add(iterator.next());
+      }
+      assertThat(result).containsExactlyElementsOf(items);
+      assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(StaxImplementation.class)
+  void readAllTest(StaxImplementation staxImplementation) throws IOException {
+    var items = items(3);
+    try (var iterator = JacksonMappers.readXmlValues(staxImplementation,
+        new ByteArrayInputStream(document(items)), Item.class)) {
+      assertThat(iterator.next()).isEqualTo(items.get(0));
+      assertThat(iterator.readAll()).containsExactlyElementsOf(items.subList(1, 3));
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(StaxImplementation.class)
+  void readEmptyTest(StaxImplementation staxImplementation) throws IOException {
+    try (var iterator = JacksonMappers.readXmlValues(staxImplementation,
+        new ByteArrayInputStream("<items/>".getBytes(StandardCharsets.UTF_8)), Item.class)) {
+      assertThat(iterator.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  void closeTest() throws IOException {
+    var closed = new boolean[1];
+    InputStream source = new ByteArrayInputStream(document(items(2))) {
+      @Override
+      public void close() throws IOException {
+        closed[0] = true;
+        super.close();
+      }
+    };
+    var iterator = JacksonMappers.readXmlValues(source, Item.class);
+    assertThat(iterator.hasNext()).isTrue();
+    iterator.close();
+    assertThat(closed[0]).isTrue();
+  }
+
+  @Test
+  void createXmlFactoryTest() throws IOException {
+    var mapper = JacksonMappers.createXmlMapper(StaxImplementation.WOODSTOX);
+    assertThat(mapper.writeValueAsString(new Item("a", 1)))
+        .startsWith("<?xml version=\"1.0\"");
+  }
+}
@@ -0,0 +1,19 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtBinaryData;
+import java.lang.reflect.Type;
+import java.util.Base64;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON-B deserializer for {@link DtBinaryData} class; value is decoded from Base64 encoded String.
+ */
+public class DtBinaryDataJsonbDeserializer implements JsonbDeserializer<DtBinaryData> {
+
+  @Override
+  public DtBinaryData deserialize(JsonParser parser, DeserializationContext context, Type type) {
+    return new DtBinaryData(Base64.getDecoder().decode(parser.getString()));
+  }
+}
@@ -0,0 +1,25 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtBinaryData;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JSON-B serializer for {@link DtBinaryData} class; data are written as Base64 encoded String.
+ * JSON-P generator does not support streaming of binary values, thus encoded value has to be
+ * created on heap; it is encoded from read-only view of data, avoiding copy of data where storage
+ * permits.
+ */
+public class DtBinaryDataJsonbSerializer implements JsonbSerializer<DtBinaryData> {
+
+  @Override
+  public void serialize(DtBinaryData value, JsonGenerator generator,
+      SerializationContext context) {
+    var encoded = Base64.getEncoder().encode(value.asReadOnlyByteBuffer());
+    generator.write(new String(encoded.array(), encoded.arrayOffset() + encoded.position(),
+        encoded.remaining(), StandardCharsets.ISO_8859_1));
+  }
+}
@@ -0,0 +1,28 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtBinaryData;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * JAXB adapter for {@link DtBinaryData} class; value is represented as byte array, encoded by JAXB
+ * as {@code base64Binary}.
+ */
+public class DtBinaryDataXmlAdapter extends XmlAdapter<byte[], DtBinaryData> {
+
+  @Override
+  public @Nullable DtBinaryData unmarshal(@Nullable byte[] value) {
+    if (value == null) {
+      return null;
+    }
+    return new DtBinaryData(value);
+  }
+
+  @Override
+  public @Nullable byte[] marshal(@Nullable DtBinaryData value) {
+    if (value == null) {
+      return null;
+    }
+    return value.getData();
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDate;
+import java.lang.reflect.Type;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON-B deserializer for {@link DtDate} class; value is parsed from ISO format.
+ */
+public class DtDateJsonbDeserializer implements JsonbDeserializer<DtDate> {
+
+  @Override
+  public DtDate deserialize(JsonParser parser, DeserializationContext context, Type type) {
+    return DtDate.parseIso(parser.getString());
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDate;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JSON-B serializer for {@link DtDate} class; value is written in ISO format, as by Jackson
+ * serializer.
+ */
+public class DtDateJsonbSerializer implements JsonbSerializer<DtDate> {
+
+  @Override
+  public void serialize(DtDate value, JsonGenerator generator, SerializationContext context) {
+    generator.write(value.toIso());
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDateTime;
+import java.lang.reflect.Type;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON-B deserializer for {@link DtDateTime} class; value is parsed from ISO format.
+ */
+public class DtDateTimeJsonbDeserializer implements JsonbDeserializer<DtDateTime> {
+
+  @Override
+  public DtDateTime deserialize(JsonParser parser, DeserializationContext context, Type type) {
+    return DtDateTime.parse(parser.getString());
+  }
+}
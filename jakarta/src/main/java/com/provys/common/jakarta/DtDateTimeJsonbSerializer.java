@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDateTime;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JSON-B serializer for {@link DtDateTime} class; value is written in ISO format, as by Jackson
+ * serializer.
+ */
+public class DtDateTimeJsonbSerializer implements JsonbSerializer<DtDateTime> {
+
+  @Override
+  public void serialize(DtDateTime value, JsonGenerator generator, SerializationContext context) {
+    generator.write(value.toIso());
+  }
+}
@@ -0,0 +1,27 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDateTime;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * JAXB adapter for {@link DtDateTime} class; value is represented in ISO format.
+ */
+public class DtDateTimeXmlAdapter extends XmlAdapter<String, DtDateTime> {
+
+  @Override
+  public @Nullable DtDateTime unmarshal(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+    return DtDateTime.parse(value);
+  }
+
+  @Override
+  public @Nullable String marshal(@Nullable DtDateTime value) {
+    if (value == null) {
+      return null;
+    }
+    return value.toIso();
+  }
+}
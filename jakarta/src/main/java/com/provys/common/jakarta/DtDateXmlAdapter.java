@@ -0,0 +1,27 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtDate;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * JAXB adapter for {@link DtDate} class; value is represented in ISO format.
+ */
+public class DtDateXmlAdapter extends XmlAdapter<String, DtDate> {
+
+  @Override
+  public @Nullable DtDate unmarshal(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+    return DtDate.parseIso(value);
+  }
+
+  @Override
+  public @Nullable String marshal(@Nullable DtDate value) {
+    if (value == null) {
+      return null;
+    }
+    return value.toIso();
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtTimeS;
+import java.lang.reflect.Type;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON-B deserializer for {@link DtTimeS} class; value is parsed from ISO format.
+ */
+public class DtTimeSJsonbDeserializer implements JsonbDeserializer<DtTimeS> {
+
+  @Override
+  public DtTimeS deserialize(JsonParser parser, DeserializationContext context, Type type) {
+    return DtTimeS.parseIso(parser.getString());
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtTimeS;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JSON-B serializer for {@link DtTimeS} class; value is written in ISO format, as by Jackson
+ * serializer.
+ */
+public class DtTimeSJsonbSerializer implements JsonbSerializer<DtTimeS> {
+
+  @Override
+  public void serialize(DtTimeS value, JsonGenerator generator, SerializationContext context) {
+    generator.write(value.toIso());
+  }
+}
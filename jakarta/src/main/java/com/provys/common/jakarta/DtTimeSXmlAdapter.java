@@ -0,0 +1,27 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtTimeS;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * JAXB adapter for {@link DtTimeS} class; value is represented in ISO format.
+ */
+public class DtTimeSXmlAdapter extends XmlAdapter<String, DtTimeS> {
+
+  @Override
+  public @Nullable DtTimeS unmarshal(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+    return DtTimeS.parseIso(value);
+  }
+
+  @Override
+  public @Nullable String marshal(@Nullable DtTimeS value) {
+    if (value == null) {
+      return null;
+    }
+    return value.toIso();
+  }
+}
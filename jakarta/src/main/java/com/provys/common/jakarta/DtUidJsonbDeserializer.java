@@ -0,0 +1,19 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtUid;
+import java.lang.reflect.Type;
+import javax.json.bind.serializer.DeserializationContext;
+import javax.json.bind.serializer.JsonbDeserializer;
+import javax.json.stream.JsonParser;
+
+/**
+ * JSON-B deserializer for {@link DtUid} class; accepts both numeric and String value.
+ */
+public class DtUidJsonbDeserializer implements JsonbDeserializer<DtUid> {
+
+  @Override
+  public DtUid deserialize(JsonParser parser, DeserializationContext context, Type type) {
+    // getString is valid for both string and number values
+    return DtUid.valueOf(parser.getString());
+  }
+}
@@ -0,0 +1,18 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtUid;
+import javax.json.bind.serializer.JsonbSerializer;
+import javax.json.bind.serializer.SerializationContext;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * JSON-B serializer for {@link DtUid} class; value is written as number, without conversion to
+ * String.
+ */
+public class DtUidJsonbSerializer implements JsonbSerializer<DtUid> {
+
+  @Override
+  public void serialize(DtUid value, JsonGenerator generator, SerializationContext context) {
+    generator.write(value.getValue());
+  }
+}
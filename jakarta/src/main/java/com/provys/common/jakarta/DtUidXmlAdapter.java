@@ -0,0 +1,29 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.datatype.DtUid;
+import java.math.BigInteger;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * JAXB adapter for {@link DtUid} class; value is represented as integer, without conversion to
+ * String.
+ */
+public class DtUidXmlAdapter extends XmlAdapter<BigInteger, DtUid> {
+
+  @Override
+  public @Nullable DtUid unmarshal(@Nullable BigInteger value) {
+    if (value == null) {
+      return null;
+    }
+    return DtUid.valueOf(value);
+  }
+
+  @Override
+  public @Nullable BigInteger marshal(@Nullable DtUid value) {
+    if (value == null) {
+      return null;
+    }
+    return value.getValue();
+  }
+}
@@ -0,0 +1,58 @@
+package com.provys.common.jakarta;
+
+import com.provys.common.exception.ErrorMetrics;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Filter for Jax-Rs that records errors produced by Provys exception mappers in {@link
+ * ErrorMetrics#getDefault()}. Exception mappers do not have portable access to request context, so
+ * request start time is stored in request property {@link ErrorMetrics#REQUEST_START_ATTRIBUTE} and
+ * error is recorded (together with its latency) when response carrying {@link WsError} is
+ * filtered. Other recorders can be plugged in via {@link com.provys.common.exception.ErrorRecorder}
+ * service provider interface.
+ */
+@Provider
+@PreMatching
+public class ErrorMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+  private final ErrorMetrics errorMetrics;
+
+  /**
+   * Create filter recording errors to default error metrics.
+   */
+  public ErrorMetricsFilter() {
+    this(ErrorMetrics.getDefault());
+  }
+
+  /**
+   * Create filter recording errors to supplied error metrics.
+   *
+   * @param errorMetrics are metrics errors are recorded to
+   */
+  public ErrorMetricsFilter(ErrorMetrics errorMetrics) {
+    this.errorMetrics = errorMetrics;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    requestContext.setProperty(ErrorMetrics.REQUEST_START_ATTRIBUTE, System.nanoTime());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext,
+      ContainerResponseContext responseContext) {
+    var entity = responseContext.getEntity();
+    if (entity instanceof WsError) {
+      var error = (WsError) entity;
+      var errorNm = error.getErrorNm();
+      errorMetrics.record((errorNm == null) ? "" : errorNm, error.getStatus(),
+          responseContext.getStatus(), ErrorMetrics.latencySince(
+              requestContext.getProperty(ErrorMetrics.REQUEST_START_ATTRIBUTE)));
+    }
+  }
+}
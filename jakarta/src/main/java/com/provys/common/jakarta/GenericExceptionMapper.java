@@ -1,6 +1,7 @@
 package com.provys.common.jakarta;
 
-import java.util.Arrays;
+import com.provys.common.exception.ExceptionLogThrottler;
+import com.provys.common.exception.StackTraceRenderer;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
@@ -9,7 +10,7 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Exception mapper for Jax-Rs that logs problem and translates generic exception to standard Provys
- * web-service error message format.
+ * web-service error message format. Produced errors are counted by {@link ErrorMetricsFilter}.
  */
 @Provider
 public class GenericExceptionMapper implements ExceptionMapper<Exception> {
@@ -18,11 +19,11 @@ public class GenericExceptionMapper implements ExceptionMapper<Exception> {
 
   @Override
   public Response toResponse(Exception e) {
-    LOG.error("Unhandled exception", e);
+    ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled exception", e);
     return Response
         .status(Response.Status.INTERNAL_SERVER_ERROR)
-        .entity(new WsError(-1, "INTERNAL_EXCEPTION", e.getMessage(),
-            Arrays.toString(e.getStackTrace())))
+        .entity(WsError.ofThrowable(-1, "INTERNAL_EXCEPTION", e.getMessage(), e,
+            StackTraceRenderer.getDefault()))
         .build();
   }
 }
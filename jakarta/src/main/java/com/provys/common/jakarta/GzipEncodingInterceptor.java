@@ -0,0 +1,100 @@
+package com.provys.common.jakarta;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Optional gzip content coding for Jax-Rs server. Request entities with content encoding gzip are
+ * decompressed while being read; response entities are compressed when client accepts gzip coding
+ * and response does not specify its own content encoding. Compression is applied on the fly, with
+ * flushes of entity stream (e.g. by streaming message body writers) passed to client.
+ *
+ * <p>Interceptor is not registered automatically (many containers provide their own content
+ * coding); it has to be registered explicitly in application.
+ */
+public class GzipEncodingInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+  private static final String GZIP = "gzip";
+  private static final String X_GZIP = "x-gzip";
+  private static final int BUFFER_SIZE = 8192;
+
+  @Context
+  private @Nullable HttpHeaders requestHeaders;
+
+  private static boolean isGzip(@Nullable Object encoding) {
+    return (encoding != null) && (GZIP.equalsIgnoreCase(encoding.toString().trim())
+        || X_GZIP.equalsIgnoreCase(encoding.toString().trim()));
+  }
+
+  /**
+   * Verify if Accept-Encoding header values allow gzip coding (with non-zero quality).
+   *
+   * @param acceptEncoding are values of Accept-Encoding header
+   * @return true if gzip coding is acceptable
+   */
+  static boolean acceptsGzip(@Nullable List<String> acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (var value : acceptEncoding) {
+      for (var coding : value.split(",")) {
+        var parameters = coding.split(";");
+        if (isGzip(parameters[0]) && !hasZeroQuality(parameters)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasZeroQuality(String[] parameters) {
+    for (int i = 1; i < parameters.length; i++) {
+      var parameter = parameters[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+    var headers = context.getHeaders();
+    if (isGzip(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+      headers.remove(HttpHeaders.CONTENT_ENCODING);
+      context.setInputStream(new GZIPInputStream(context.getInputStream(), BUFFER_SIZE));
+    }
+    return context.proceed();
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    var headers = context.getHeaders();
+    if ((requestHeaders == null) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+        || !acceptsGzip(requestHeaders.getRequestHeader(HttpHeaders.ACCEPT_ENCODING))) {
+      context.proceed();
+      return;
+    }
+    headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+    headers.remove(HttpHeaders.CONTENT_LENGTH);
+    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    // sync flush passes flushes of streaming writers to client
+    var gzipStream = new GZIPOutputStream(context.getOutputStream(), BUFFER_SIZE, true);
+    context.setOutputStream(gzipStream);
+    context.proceed();
+    gzipStream.finish();
+  }
+}
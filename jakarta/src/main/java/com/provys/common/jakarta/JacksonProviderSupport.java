@@ -0,0 +1,266 @@
+package com.provys.common.jakarta;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.provys.common.exception.InternalException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Support methods shared by Jackson based message body readers and writers. Readers and writers
+ * work directly on entity streams, without intermediate buffering, and leave entity streams open
+ * (they are managed by container).
+ */
+final class JacksonProviderSupport {
+
+  /**
+   * System property defining number of rows written between flushes when streaming rows.
+   */
+  static final String FLUSH_INTERVAL_PROPERTY = "provys.jackson.streaming.flush-interval";
+  /**
+   * Default number of rows written between flushes when streaming rows.
+   */
+  static final int DEFAULT_FLUSH_INTERVAL = 1000;
+  /**
+   * Number of rows written between flushes when streaming rows.
+   */
+  static final int FLUSH_INTERVAL = Math.max(1,
+      Integer.getInteger(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL));
+
+  /**
+   * Json-P value class, null if Json-P API is not available.
+   */
+  private static final @Nullable Class<?> JSON_VALUE_CLASS = loadClass("javax.json.JsonValue");
+
+  private static @Nullable Class<?> loadClass(String className) {
+    try {
+      return Class.forName(className, false, JacksonProviderSupport.class.getClassLoader());
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /**
+   * Verify if values of given type are left to built-in providers of container (raw content like
+   * strings, byte arrays, streams, files, and Json-P values).
+   *
+   * @param type is type of entity
+   * @return true if type should not be handled by Jackson providers
+   */
+  static boolean isRawType(Class<?> type) {
+    return CharSequence.class.isAssignableFrom(type) || (type == byte[].class)
+        || InputStream.class.isAssignableFrom(type) || Reader.class.isAssignableFrom(type)
+        || File.class.isAssignableFrom(type) || StreamingOutput.class.isAssignableFrom(type)
+        || ((JSON_VALUE_CLASS != null) && JSON_VALUE_CLASS.isAssignableFrom(type));
+  }
+
+  /**
+   * Verify if values of given type are sources of rows that are streamed.
+   *
+   * @param type is type of entity
+   * @return true if type is {@link java.util.stream.Stream}, {@link Iterator} or {@link
+   *     Spliterator}
+   */
+  static boolean isRowSource(Class<?> type) {
+    return BaseStream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type)
+        || Spliterator.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Mapper to be used for given entity. Mapper is obtained from context resolver registered in
+   * application (e.g. {@link ObjectMapperContextResolver}); default mapper is used if there is no
+   * such resolver or providers are not available (provider not created by container).
+   *
+   * @param providers     are providers of application, null if not injected
+   * @param mapperClass   is class of mapper to be resolved
+   * @param type          is class of entity
+   * @param mediaType     is media type of entity
+   * @param defaultMapper is mapper used if no mapper is resolved
+   * @param <M>           is type of mapper
+   * @return mapper for given entity
+   */
+  static <M extends ObjectMapper> M resolveMapper(@Nullable Providers providers,
+      Class<M> mapperClass, Class<?> type, @Nullable MediaType mediaType, M defaultMapper) {
+    if (providers != null) {
+      var resolver = providers.getContextResolver(mapperClass, mediaType);
+      if (resolver != null) {
+        var mapper = resolver.getContext(type);
+        if (mapper != null) {
+          return mapper;
+        }
+      }
+    }
+    return defaultMapper;
+  }
+
+  /**
+   * Reader for given type. Cached reader is used for plain classes read by default mapper, other
+   * types are resolved using mapper.
+   *
+   * @param mapper        is mapper used to read entity
+   * @param defaultMapper is mapper cached readers belong to
+   * @param cache         is function supplying cached readers for classes
+   * @param type          is class of entity
+   * @param genericType   is generic type of entity
+   * @return reader for given type
+   */
+  static ObjectReader readerFor(ObjectMapper mapper, ObjectMapper defaultMapper,
+      Function<Class<?>, ObjectReader> cache, Class<?> type, Type genericType) {
+    if ((mapper != defaultMapper) || (genericType instanceof ParameterizedType)) {
+      return mapper.readerFor(mapper.getTypeFactory().constructType(genericType));
+    }
+    return cache.apply(type);
+  }
+
+  /**
+   * Writer for given type. Cached writer is used for plain classes written by default mapper,
+   * other types are resolved using mapper.
+   *
+   * @param mapper        is mapper used to write entity
+   * @param defaultMapper is mapper cached writers belong to
+   * @param cache         is function supplying cached writers for classes
+   * @param type          is class of entity
+   * @param genericType   is generic type of entity
+   * @return writer for given type
+   */
+  static ObjectWriter writerFor(ObjectMapper mapper, ObjectMapper defaultMapper,
+      Function<Class<?>, ObjectWriter> cache, Class<?> type, Type genericType) {
+    if ((mapper != defaultMapper) || (genericType instanceof ParameterizedType)) {
+      return mapper.writerFor(mapper.getTypeFactory().constructType(genericType));
+    }
+    return cache.apply(type);
+  }
+
+  /**
+   * Create parser reading entity stream; parser does not close the stream.
+   *
+   * @param mapper       is mapper whose factory is used to create parser
+   * @param entityStream is entity stream to be read
+   * @return parser reading entity stream
+   * @throws IOException if parser cannot be created
+   */
+  static JsonParser createParser(ObjectMapper mapper, InputStream entityStream)
+      throws IOException {
+    return mapper.getFactory().createParser(entityStream)
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+  }
+
+  /**
+   * Create generator writing to entity stream; generator does not close the stream and does not
+   * complete unfinished content when closed after failure.
+   *
+   * @param mapper       is mapper whose factory is used to create generator
+   * @param entityStream is entity stream to be written to
+   * @return generator writing to entity stream
+   * @throws IOException if generator cannot be created
+   */
+  static JsonGenerator createGenerator(ObjectMapper mapper, OutputStream entityStream)
+      throws IOException {
+    return mapper.getFactory().createGenerator(entityStream)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+  }
+
+  /**
+   * Writer used to write individual rows; rows are not flushed individually.
+   *
+   * @param mapper is mapper rows are written with
+   * @return writer for rows
+   */
+  static ObjectWriter rowWriter(ObjectMapper mapper) {
+    return mapper.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(SerializationFeature.INDENT_OUTPUT);
+  }
+
+  /**
+   * Iterator over rows of supplied row source.
+   *
+   * @param rows is stream, iterator, spliterator or iterable
+   * @return iterator over rows
+   */
+  static Iterator<?> getIterator(Object rows) {
+    if (rows instanceof BaseStream) {
+      return ((BaseStream<?, ?>) rows).iterator();
+    }
+    if (rows instanceof Spliterator) {
+      return Spliterators.iterator((Spliterator<?>) rows);
+    }
+    if (rows instanceof Iterable) {
+      return ((Iterable<?>) rows).iterator();
+    }
+    return (Iterator<?>) rows;
+  }
+
+  /**
+   * Write rows one by one, flushing generator after {@link #FLUSH_INTERVAL} rows.
+   *
+   * @param rows      is iterator over rows
+   * @param rowWriter is writer used to write rows
+   * @param generator is generator rows are written to
+   * @param separator is character written after each row, 0 if none
+   * @throws IOException if write fails
+   */
+  static void writeRows(Iterator<?> rows, ObjectWriter rowWriter, JsonGenerator generator,
+      char separator) throws IOException {
+    int unflushed = 0;
+    while (rows.hasNext()) {
+      rowWriter.writeValue(generator, rows.next());
+      if (separator != 0) {
+        generator.writeRaw(separator);
+      }
+      if (++unflushed >= FLUSH_INTERVAL) {
+        generator.flush();
+        unflushed = 0;
+      }
+    }
+  }
+
+  /**
+   * Close row source, if it is closeable. If writing of rows failed, failure to close rows is
+   * added to original failure as suppressed exception, so it does not replace it.
+   *
+   * @param rows    is row source
+   * @param failure is exception thrown when writing rows, null if rows were written successfully
+   * @throws IOException if close fails and no failure has been supplied
+   */
+  static void closeRows(Object rows, @Nullable Throwable failure) throws IOException {
+    if (!(rows instanceof AutoCloseable)) {
+      return;
+    }
+    try {
+      ((AutoCloseable) rows).close();
+    } catch (Exception e) {
+      if (failure != null) {
+        failure.addSuppressed(e);
+      } else if (e instanceof IOException) {
+        throw (IOException) e;
+      } else if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      } else {
+        throw new InternalException("Failed to close streamed rows", e);
+      }
+    }
+  }
+
+  private JacksonProviderSupport() {
+  }
+}
@@ -0,0 +1,106 @@
+package com.provys.common.jakarta;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provys.common.jackson.JacksonMappers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Json message body reader and writer based on Jackson. Mapper is obtained from {@link
+ * ObjectMapper} context resolver registered in application (e.g. {@link
+ * ObjectMapperContextResolver}), default Provys Json mapper is used if there is none; cached
+ * readers and writers ({@link JacksonMappers#jsonReaderFor(Class)}, {@link
+ * JacksonMappers#jsonWriterFor(Class)}) are used with default mapper. Entities are read from and
+ * written to entity stream directly, without intermediate buffering. Entities of type {@link
+ * java.util.stream.Stream}, {@link java.util.Iterator} or {@link java.util.Spliterator} are written
+ * as Json array row by row, flushed every {@value JacksonProviderSupport#FLUSH_INTERVAL_PROPERTY}
+ * rows (default {@value JacksonProviderSupport#DEFAULT_FLUSH_INTERVAL}) and closed when written.
+ *
+ * <p>Provider handles all Json entities except raw content and Json-P values, thus it replaces
+ * Json-B provider of container (and {@link JsonbContextResolver} configuration). It is not
+ * registered automatically; it has to be registered explicitly in application.
+ */
+@Consumes({MediaType.APPLICATION_JSON, "application/*+json"})
+@Produces({MediaType.APPLICATION_JSON, "application/*+json"})
+public class JsonMessageBodyProvider implements MessageBodyReader<Object>,
+    MessageBodyWriter<Object> {
+
+  @Context
+  private @Nullable Providers providers;
+
+  private ObjectMapper getMapper(Class<?> type, @Nullable MediaType mediaType) {
+    return JacksonProviderSupport.resolveMapper(providers, ObjectMapper.class, type, mediaType,
+        JacksonMappers.getJsonMapper());
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return !JacksonProviderSupport.isRawType(type);
+  }
+
+  @Override
+  public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    try (var parser = JacksonProviderSupport.createParser(mapper, entityStream)) {
+      return JacksonProviderSupport
+          .readerFor(mapper, JacksonMappers.getJsonMapper(), JacksonMappers::jsonReaderFor, type,
+              genericType)
+          .readValue(parser);
+    }
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return !JacksonProviderSupport.isRawType(type);
+  }
+
+  @SuppressWarnings("squid:S1181") // failure is only recorded and rethrown
+  private static void writeRows(ObjectMapper mapper, Object rows, OutputStream entityStream)
+      throws IOException {
+    Throwable failure = null;
+    try (var generator = JacksonProviderSupport.createGenerator(mapper, entityStream)) {
+      generator.writeStartArray();
+      JacksonProviderSupport.writeRows(JacksonProviderSupport.getIterator(rows),
+          JacksonProviderSupport.rowWriter(mapper), generator, (char) 0);
+      generator.writeEndArray();
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      JacksonProviderSupport.closeRows(rows, failure);
+    }
+  }
+
+  @Override
+  public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    if (JacksonProviderSupport.isRowSource(type)) {
+      writeRows(mapper, value, entityStream);
+      return;
+    }
+    try (var generator = JacksonProviderSupport.createGenerator(mapper, entityStream)) {
+      JacksonProviderSupport
+          .writerFor(mapper, JacksonMappers.getJsonMapper(), JacksonMappers::jsonWriterFor, type,
+              genericType)
+          .writeValue(generator, value);
+    }
+  }
+}
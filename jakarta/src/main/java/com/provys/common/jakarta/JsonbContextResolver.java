@@ -0,0 +1,48 @@
+package com.provys.common.jakarta;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Configuration of JSON-B for Jax-Rs, with serializers and deserializers for Provys datatypes
+ * ({@link com.provys.common.datatype.DtDate}, {@link com.provys.common.datatype.DtDateTime},
+ * {@link com.provys.common.datatype.DtTimeS}, {@link com.provys.common.datatype.DtUid} and {@link
+ * com.provys.common.datatype.DtBinaryData}). Used by containers that serialise Json using JSON-B
+ * implementation (e.g. Yasson).
+ */
+@Provider
+public class JsonbContextResolver implements ContextResolver<Jsonb> {
+
+  /**
+   * Create JSON-B configuration with serializers and deserializers of Provys datatypes registered.
+   * Returned configuration can be further customised by caller.
+   *
+   * @return new JSON-B configuration
+   */
+  public static JsonbConfig createJsonbConfig() {
+    return new JsonbConfig()
+        .withSerializers(new DtDateJsonbSerializer(), new DtDateTimeJsonbSerializer(),
+            new DtTimeSJsonbSerializer(), new DtUidJsonbSerializer(),
+            new DtBinaryDataJsonbSerializer())
+        .withDeserializers(new DtDateJsonbDeserializer(), new DtDateTimeJsonbDeserializer(),
+            new DtTimeSJsonbDeserializer(), new DtUidJsonbDeserializer(),
+            new DtBinaryDataJsonbDeserializer());
+  }
+
+  private final Jsonb jsonb;
+
+  /**
+   * Create resolver supplying JSON-B instance with Provys datatypes support.
+   */
+  public JsonbContextResolver() {
+    this.jsonb = JsonbBuilder.create(createJsonbConfig());
+  }
+
+  @Override
+  public Jsonb getContext(Class<?> type) {
+    return jsonb;
+  }
+}
@@ -0,0 +1,109 @@
+package com.provys.common.jakarta;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provys.common.jackson.JacksonMappers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Newline delimited Json (NDJSON) message body reader and writer based on Jackson. Mapper is
+ * obtained from {@link ObjectMapper} context resolver registered in application (e.g. {@link
+ * ObjectMapperContextResolver}), default Provys Json mapper is used if there is none. Writes {@link
+ * java.util.stream.Stream}, {@link Iterator}, {@link java.util.Spliterator} and {@link Iterable}
+ * entities row by row, each row on single line, flushed every {@value
+ * JacksonProviderSupport#FLUSH_INTERVAL_PROPERTY} rows (default {@value
+ * JacksonProviderSupport#DEFAULT_FLUSH_INTERVAL}); closeable row sources are closed when written.
+ * Reads NDJSON content either to {@link List} or lazily to {@link Iterator}; iterator is backed by
+ * entity stream and thus must be consumed while request is being processed.
+ */
+@Provider
+@Consumes(NdjsonMessageBodyProvider.APPLICATION_NDJSON)
+@Produces(NdjsonMessageBodyProvider.APPLICATION_NDJSON)
+public class NdjsonMessageBodyProvider implements MessageBodyReader<Object>,
+    MessageBodyWriter<Object> {
+
+  /**
+   * Media type of newline delimited Json.
+   */
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  @Context
+  private @Nullable Providers providers;
+
+  private ObjectMapper getMapper(Class<?> type, @Nullable MediaType mediaType) {
+    return JacksonProviderSupport.resolveMapper(providers, ObjectMapper.class, type, mediaType,
+        JacksonMappers.getJsonMapper());
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return (type == List.class) || (type == Iterator.class);
+  }
+
+  private static JavaType getRowType(ObjectMapper mapper, Type genericType) {
+    if (genericType instanceof ParameterizedType) {
+      return mapper.getTypeFactory()
+          .constructType(((ParameterizedType) genericType).getActualTypeArguments()[0]);
+    }
+    return mapper.getTypeFactory().constructType(Object.class);
+  }
+
+  @Override
+  public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    var rows = mapper.readerFor(getRowType(mapper, genericType))
+        .readValues(JacksonProviderSupport.createParser(mapper, entityStream));
+    if (Iterator.class.equals(type)) {
+      return rows;
+    }
+    try (rows) {
+      return rows.readAll();
+    }
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return JacksonProviderSupport.isRowSource(type) || Iterable.class.isAssignableFrom(type);
+  }
+
+  @Override
+  @SuppressWarnings("squid:S1181") // failure is only recorded and rethrown
+  public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    Throwable failure = null;
+    try (var generator = JacksonProviderSupport.createGenerator(mapper, entityStream)) {
+      // rows are separated by newline written after each row
+      generator.setRootValueSeparator(null);
+      JacksonProviderSupport.writeRows(JacksonProviderSupport.getIterator(value),
+          JacksonProviderSupport.rowWriter(mapper), generator, '\n');
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      JacksonProviderSupport.closeRows(value, failure);
+    }
+  }
+}
@@ -2,19 +2,68 @@ package com.provys.common.jakarta;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.provys.common.jackson.JacksonMappers;
+import com.provys.common.types.TypeMapImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 
 /**
- * Configuration of Jackson Json mapper for Jax-Rs with Provys formatting rules
+ * Configuration of Jackson Json mapper for Jax-Rs with Provys formatting rules. Performance tuned
+ * mapper (see {@link JacksonMappers#getPerformanceJsonMapper()}) is used when system property
+ * {@code provys.jackson.performance-profile} is set to true; it requires Blackbird module on
+ * classpath.
+ *
+ * <p>Readers and writers for types registered in default type map are prepared when resolver is
+ * created (see {@link JacksonMappers#warmUp(Iterable)}), so their construction does not slow down
+ * first requests.
  */
 @Provider
 public class ObjectMapperContextResolver implements ContextResolver<ObjectMapper> {
 
+  private static final Logger LOG = LogManager.getLogger(ObjectMapperContextResolver.class);
+
+  /**
+   * Name of system property that enables performance profile.
+   */
+  public static final String PERFORMANCE_PROFILE_PROPERTY = "provys.jackson.performance-profile";
+
+  private final ObjectMapper mapper;
+
+  /**
+   * Create resolver; performance profile is used if enabled by system property.
+   */
+  public ObjectMapperContextResolver() {
+    this(Boolean.getBoolean(PERFORMANCE_PROFILE_PROPERTY));
+  }
+
+  /**
+   * Create resolver, explicitly specifying if performance profile should be used.
+   *
+   * @param performanceProfile defines if performance tuned mapper should be supplied
+   */
+  public ObjectMapperContextResolver(boolean performanceProfile) {
+    this.mapper = performanceProfile ? JacksonMappers.getPerformanceJsonMapper()
+        : JacksonMappers.getJsonMapper();
+    warmUp(mapper);
+  }
+
+  private static void warmUp(ObjectMapper mapper) {
+    try {
+      var types = TypeMapImpl.getDefault().getTypes();
+      JacksonMappers.warmUp(types);
+      JacksonMappers.warmUp(mapper, types);
+      LOG.debug("Jackson mappers warmed up for {} types", types.size());
+    } catch (RuntimeException e) {
+      // warm-up is only optimisation; failure will be reported again on first use of given type
+      LOG.warn("Warm-up of Jackson mappers failed", e);
+    }
+  }
+
   @Override
   public ObjectMapper getContext(Class<?> type) {
-    return JacksonMappers.getJsonMapper();
+    return mapper;
   }
 
-}
\ No newline at end of file
+}
@@ -1,17 +1,18 @@
 package com.provys.common.jakarta;
 
+import com.provys.common.exception.ExceptionLogThrottler;
 import com.provys.common.exception.ProvysException;
+import com.provys.common.exception.StackTraceRenderer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
-import java.util.Arrays;
 
 /**
  * Exception mapper for Jax-Rs that logs problem and translates Provys exception to standard Provys
- * web-service error message format
+ * web-service error message format. Produced errors are counted by {@link ErrorMetricsFilter}.
  */
 @Provider
 public class ProvysExceptionMapper implements ExceptionMapper<ProvysException> {
@@ -20,10 +21,11 @@ public class ProvysExceptionMapper implements ExceptionMapper<ProvysException> {
 
   @Override
   public Response toResponse(ProvysException e) {
-    LOG.error("Unhandled exception", e);
+    ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled exception", e);
     return Response
         .status(Response.Status.INTERNAL_SERVER_ERROR)
-        .entity(new WsError(-1, e.getNameNm(), e.getMessage(), Arrays.toString(e.getStackTrace())))
+        .entity(WsError.ofThrowable(-1, e.getNameNm(), e.getMessage(), e,
+            StackTraceRenderer.getDefault()))
         .build();
   }
 }
@@ -2,6 +2,7 @@ package com.provys.common.jakarta;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.provys.common.exception.StackTraceRenderer;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import javax.json.bind.annotation.JsonbCreator;
@@ -11,7 +12,10 @@ import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Class represents result of web-service call in standard PROVYS format (e.g. with data and error
@@ -28,8 +32,56 @@ public class WsError {
   private final @Nullable String errorNm;
   @XmlElement(name = "ERRORMESSAGE")
   private final @Nullable String message;
+  /**
+   * Error stack; rendered lazily if it has been supplied as stack supplier (when marshalled by JAXB
+   * or when read via getter).
+   */
   @XmlElement(name = "ERRORSTACK")
-  private final @Nullable String stack;
+  @XmlJavaTypeAdapter(LazyStackAdapter.class)
+  private final LazyStack stack;
+
+  /**
+   * Holder of error stack, evaluated from supplier on first access. Thread safe, supplier is
+   * evaluated at most once and released afterwards.
+   */
+  static final class LazyStack {
+
+    private @Nullable String value;
+    private @Nullable Supplier<? extends @Nullable String> supplier;
+
+    LazyStack(@Nullable String value) {
+      this.value = value;
+    }
+
+    LazyStack(Supplier<? extends @Nullable String> supplier) {
+      this.supplier = supplier;
+    }
+
+    synchronized @Nullable String get() {
+      var valueSupplier = supplier;
+      if (valueSupplier != null) {
+        value = valueSupplier.get();
+        supplier = null;
+      }
+      return value;
+    }
+  }
+
+  /**
+   * JAXB adapter rendering lazily evaluated stack when error is marshalled.
+   */
+  static final class LazyStackAdapter extends XmlAdapter<String, LazyStack> {
+
+    @Override
+    public LazyStack unmarshal(@Nullable String value) {
+      return new LazyStack(value);
+    }
+
+    @Override
+    public @Nullable String marshal(@Nullable LazyStack value) {
+      return (value == null) ? null : value.get();
+    }
+  }
 
   /**
    * Private constructor used for JAXB deserialization; preferably Jackson is used and it is not
@@ -39,7 +91,7 @@ public class WsError {
     status = 0;
     errorNm = null;
     message = null;
-    stack = null;
+    stack = new LazyStack((String) null);
   }
 
   @JsonCreator
@@ -51,7 +103,35 @@ public class WsError {
     this.status = status;
     this.errorNm = errorNm;
     this.message = message;
-    this.stack = stack;
+    this.stack = new LazyStack(stack);
+  }
+
+  private WsError(int status, @Nullable String errorNm, @Nullable String message,
+      Supplier<? extends @Nullable String> stackSupplier) {
+    this.status = status;
+    this.errorNm = errorNm;
+    this.message = message;
+    this.stack = new LazyStack(stackSupplier);
+  }
+
+  /**
+   * Create error for given exception. Stack is rendered lazily - only when it is actually
+   * serialized to response or otherwise read, and it is not rendered at all if renderer is
+   * disabled.
+   *
+   * @param status    is reported error status
+   * @param errorNm   is internal name of error
+   * @param message   is error message
+   * @param throwable is exception whose stack should be reported
+   * @param renderer  is renderer used to render exception stack
+   * @return error for given exception
+   */
+  public static WsError ofThrowable(int status, @Nullable String errorNm, @Nullable String message,
+      Throwable throwable, StackTraceRenderer renderer) {
+    if (!renderer.isEnabled()) {
+      return new WsError(status, errorNm, message, (String) null);
+    }
+    return new WsError(status, errorNm, message, () -> renderer.render(throwable));
   }
 
   /**
@@ -83,7 +163,7 @@ public class WsError {
    */
   @JsonbProperty("ERRORSTACK")
   public @Nullable String getStack() {
-    return stack;
+    return stack.get();
   }
 
   @Override
@@ -98,7 +178,7 @@ public class WsError {
     return status == wsError.status &&
         Objects.equals(errorNm, wsError.errorNm) &&
         Objects.equals(message, wsError.message) &&
-        Objects.equals(stack, wsError.stack);
+        Objects.equals(getStack(), wsError.getStack());
   }
 
   @Override
@@ -106,7 +186,8 @@ public class WsError {
     int result = status;
     result = 31 * result + (errorNm != null ? errorNm.hashCode() : 0);
     result = 31 * result + (message != null ? message.hashCode() : 0);
-    result = 31 * result + (stack != null ? stack.hashCode() : 0);
+    var stackValue = getStack();
+    result = 31 * result + (stackValue != null ? stackValue.hashCode() : 0);
     return result;
   }
 
@@ -116,7 +197,7 @@ public class WsError {
         "status=" + status +
         ", errorNm='" + errorNm + '\'' +
         ", message='" + message + '\'' +
-        ", stack='" + stack + '\'' +
+        ", stack='" + getStack() + '\'' +
         '}';
   }
 }
@@ -0,0 +1,90 @@
+package com.provys.common.jakarta;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.provys.common.jackson.JacksonMappers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.annotation.XmlRootElement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Xml message body reader and writer based on Jackson. Mapper is obtained from {@link XmlMapper}
+ * context resolver registered in application (e.g. {@link XmlMapperContextResolver}), default
+ * Provys Xml mapper is used if there is none; cached readers and writers ({@link
+ * JacksonMappers#xmlReaderFor(Class)}, {@link JacksonMappers#xmlWriterFor(Class)}) are used with
+ * default mapper. Entities are read from and written to entity stream directly, without
+ * intermediate buffering. Classes annotated with {@link XmlRootElement} (like {@link WsError}) are
+ * left to JAXB provider of container; streams of rows are not supported, as Xml document needs
+ * single root element.
+ *
+ * <p>Provider handles all Xml entities except raw content and JAXB root elements, thus it takes
+ * over Xml content from JAXB provider of container. It is not registered automatically; it has to
+ * be registered explicitly in application.
+ */
+@Consumes({MediaType.APPLICATION_XML, MediaType.TEXT_XML})
+@Produces({MediaType.APPLICATION_XML, MediaType.TEXT_XML})
+public class XmlMessageBodyProvider implements MessageBodyReader<Object>,
+    MessageBodyWriter<Object> {
+
+  @Context
+  private @Nullable Providers providers;
+
+  private XmlMapper getMapper(Class<?> type, @Nullable MediaType mediaType) {
+    return JacksonProviderSupport.resolveMapper(providers, XmlMapper.class, type, mediaType,
+        JacksonMappers.getXmlMapper());
+  }
+
+  private static boolean isSupported(Class<?> type) {
+    return !JacksonProviderSupport.isRawType(type) && !JacksonProviderSupport.isRowSource(type)
+        && !type.isAnnotationPresent(XmlRootElement.class);
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return isSupported(type);
+  }
+
+  @Override
+  public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    try (var parser = JacksonProviderSupport.createParser(mapper, entityStream)) {
+      return JacksonProviderSupport
+          .readerFor(mapper, JacksonMappers.getXmlMapper(), JacksonMappers::xmlReaderFor, type,
+              genericType)
+          .readValue(parser);
+    }
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return isSupported(type);
+  }
+
+  @Override
+  public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+      throws IOException {
+    var mapper = getMapper(type, mediaType);
+    try (var generator = JacksonProviderSupport.createGenerator(mapper, entityStream)) {
+      JacksonProviderSupport
+          .writerFor(mapper, JacksonMappers.getXmlMapper(), JacksonMappers::xmlWriterFor, type,
+              genericType)
+          .writeValue(generator, value);
+    }
+  }
+}
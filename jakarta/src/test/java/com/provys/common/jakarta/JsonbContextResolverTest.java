@@ -0,0 +1,61 @@
+package com.provys.common.jakarta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provys.common.datatype.DtBinaryData;
+import com.provys.common.datatype.DtDate;
+import com.provys.common.datatype.DtDateTime;
+import com.provys.common.datatype.DtUid;
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+
+class JsonbContextResolverTest {
+
+  public static class Sample {
+
+    public DtBinaryData data;
+    public DtDate date;
+    public DtDateTime dateTime;
+    public DtUid uid;
+  }
+
+  private static final String SAMPLE_JSON = "{\"data\":\"AQID\",\"date\":\"2020-05-17\","
+      + "\"dateTime\":\"2020-05-17T10:20:30\",\"uid\":123}";
+
+  private static Sample createSample() {
+    var sample = new Sample();
+    sample.data = new DtBinaryData(new byte[]{1, 2, 3});
+    sample.date = DtDate.of(2020, 5, 17);
+    sample.dateTime = DtDateTime.of(2020, 5, 17, 10, 20, 30);
+    sample.uid = DtUid.valueOf(BigInteger.valueOf(123));
+    return sample;
+  }
+
+  @Test
+  void toJsonTest() {
+    var jsonb = new JsonbContextResolver().getContext(Sample.class);
+    assertThat(jsonb.toJson(createSample())).isEqualTo(SAMPLE_JSON);
+  }
+
+  @Test
+  void fromJsonTest() {
+    var jsonb = new JsonbContextResolver().getContext(Sample.class);
+    var result = jsonb.fromJson(SAMPLE_JSON, Sample.class);
+    var expected = createSample();
+    assertThat(result.data).isEqualTo(expected.data);
+    assertThat(result.date).isEqualTo(expected.date);
+    assertThat(result.dateTime).isEqualTo(expected.dateTime);
+    assertThat(result.uid).isEqualTo(expected.uid);
+  }
+
+  @Test
+  void xmlAdapterTest() throws Exception {
+    var dateAdapter = new DtDateXmlAdapter();
+    assertThat(dateAdapter.marshal(DtDate.of(2020, 5, 17))).isEqualTo("2020-05-17");
+    assertThat(dateAdapter.unmarshal("2020-05-17")).isEqualTo(DtDate.of(2020, 5, 17));
+    var uidAdapter = new DtUidXmlAdapter();
+    assertThat(uidAdapter.unmarshal(BigInteger.TEN)).isEqualTo(DtUid.valueOf(BigInteger.TEN));
+    var binaryAdapter = new DtBinaryDataXmlAdapter();
+    assertThat(binaryAdapter.marshal(new DtBinaryData(new byte[]{1, 2}))).containsExactly(1, 2);
+  }
+}
@@ -0,0 +1,129 @@
+package com.provys.common.jakarta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provys.common.jackson.JacksonMappers;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Providers;
+import org.junit.jupiter.api.Test;
+
+class NdjsonMessageBodyProviderTest {
+
+  private static final String NDJSON = "{\"A\":1}\n\"B\"\n[1,2]\n";
+
+  @Test
+  void writeToTest() throws IOException {
+    var provider = new NdjsonMessageBodyProvider();
+    var closed = new AtomicBoolean();
+    var rows = Stream.<Object>of(Map.of("A", 1), "B", List.of(1, 2))
+        .onClose(() -> closed.set(true));
+    var output = new ByteArrayOutputStream();
+    provider.writeTo(rows, rows.getClass(), rows.getClass(), null, null, null, output);
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(NDJSON);
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void writeToCloseFailureSuppressedTest() {
+    var provider = new NdjsonMessageBodyProvider();
+    var rows = Stream.<Object>of("A")
+        .peek(value -> {
+          throw new IllegalArgumentException("Write failed");
+        })
+        .onClose(() -> {
+          throw new IllegalStateException("Close failed");
+        });
+    var output = new ByteArrayOutputStream();
+    assertThatThrownBy(() -> provider.writeTo(rows, rows.getClass(), rows.getClass(), null, null,
+        null, output))
+        .isInstanceOf(IllegalArgumentException.class)
+        .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1)
+            .hasOnlyElementsOfType(IllegalStateException.class));
+  }
+
+  @Test
+  void writeToCloseFailureTest() {
+    var provider = new NdjsonMessageBodyProvider();
+    var rows = Stream.<Object>of("A")
+        .onClose(() -> {
+          throw new IllegalStateException("Close failed");
+        });
+    var output = new ByteArrayOutputStream();
+    assertThatThrownBy(() -> provider.writeTo(rows, rows.getClass(), rows.getClass(), null, null,
+        null, output))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Test
+  void readFromTest() throws IOException {
+    var provider = new NdjsonMessageBodyProvider();
+    var result = provider.readFrom((Class) List.class, List.class, null, null, null,
+        new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8)));
+    assertThat(result).isEqualTo(List.of(Map.of("A", 1), "B", List.of(1, 2)));
+    var iterator = (Iterator<Object>) provider.readFrom((Class) Iterator.class, Iterator.class,
+        null, null, null, new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8)));
+    assertThat(iterator).toIterable().containsExactly(Map.of("A", 1), "B", List.of(1, 2));
+  }
+
+  @Test
+  void jsonWriteToRowsTest() throws IOException {
+    var provider = new JsonMessageBodyProvider();
+    var rows = List.<Object>of(Map.of("A", 1), "B").iterator();
+    var output = new ByteArrayOutputStream();
+    provider.writeTo(rows, rows.getClass(), rows.getClass(), null, null, null, output);
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"A\":1},\"B\"]");
+  }
+
+  @Test
+  void isRawTypeTest() {
+    assertThat(JacksonProviderSupport.isRawType(String.class)).isTrue();
+    assertThat(JacksonProviderSupport.isRawType(JsonValue.class)).isTrue();
+    assertThat(JacksonProviderSupport.isRawType(JsonObject.class)).isTrue();
+    assertThat(JacksonProviderSupport.isRawType(Map.class)).isFalse();
+    assertThat(new JsonMessageBodyProvider().isWriteable(JsonObject.class, JsonObject.class, null,
+        MediaType.APPLICATION_JSON_TYPE)).isFalse();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void resolveMapperTest() {
+    var mapper = new ObjectMapper();
+    var resolver = (ContextResolver<ObjectMapper>) mock(ContextResolver.class);
+    when(resolver.getContext(Map.class)).thenReturn(mapper);
+    var providers = mock(Providers.class);
+    when(providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE))
+        .thenReturn(resolver);
+    assertThat(JacksonProviderSupport.resolveMapper(providers, ObjectMapper.class, Map.class,
+        MediaType.APPLICATION_JSON_TYPE, JacksonMappers.getJsonMapper())).isSameAs(mapper);
+    assertThat(JacksonProviderSupport.resolveMapper(mock(Providers.class), ObjectMapper.class,
+        Map.class, MediaType.APPLICATION_JSON_TYPE, JacksonMappers.getJsonMapper()))
+        .isSameAs(JacksonMappers.getJsonMapper());
+    assertThat(JacksonProviderSupport.resolveMapper(null, ObjectMapper.class, Map.class,
+        MediaType.APPLICATION_JSON_TYPE, JacksonMappers.getJsonMapper()))
+        .isSameAs(JacksonMappers.getJsonMapper());
+  }
+
+  @Test
+  void acceptsGzipTest() {
+    assertThat(GzipEncodingInterceptor.acceptsGzip(List.of("deflate, gzip;q=0.5"))).isTrue();
+    assertThat(GzipEncodingInterceptor.acceptsGzip(List.of("gzip;q=0", "br"))).isFalse();
+    assertThat(GzipEncodingInterceptor.acceptsGzip(null)).isFalse();
+  }
+}
@@ -1,6 +1,7 @@
 package com.provys.common.jakarta;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.provys.common.exception.StackTraceRenderer;
 import com.provys.common.jackson.JacksonMappers;
 import org.junit.jupiter.api.Test;
 
@@ -144,4 +145,25 @@ class WsErrorTest {
     var reader = new StringReader(SAMPLE2_JAXB);
     assertThat((WsError) u.unmarshal(reader)).isEqualTo(SAMPLE2_VALUE);
   }
-}
\ No newline at end of file
+
+  @Test
+  void jaxbMarshalLazyStackTest() throws JAXBException {
+    var exception = new IllegalStateException("Test exception");
+    var value = WsError.ofThrowable(-1, "TEST_ERROR", "Test error instance", exception,
+        new StackTraceRenderer(true, 1));
+    var context = JAXBContext.newInstance(WsError.class);
+    Marshaller marshaller = context.createMarshaller();
+    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+    var resultWriter = new StringWriter();
+    marshaller.marshal(value, resultWriter);
+    assertThat(resultWriter.toString())
+        .contains("<ERRORSTACK>at " + exception.getStackTrace()[0] + "\n... ");
+  }
+
+  @Test
+  void ofThrowableDisabledTest() {
+    var value = WsError.ofThrowable(-1, "TEST_ERROR", "Test error instance",
+        new IllegalStateException("Test exception"), new StackTraceRenderer(false, 1));
+    assertThat(value.getStack()).isNull();
+  }
+}
@@ -0,0 +1,187 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.provys.common.exception.InternalException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.BaseStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Base of message converters that write values returned as {@link java.util.stream.Stream}, {@link
+ * Iterator} or {@link Spliterator} (database cursor) incrementally to response body, without
+ * buffering whole response. Rows are serialised one by one using supplied (Provys customised)
+ * object mapper; output is flushed after configured number of rows, allowing client to start
+ * processing before whole result is produced. Streams and iterators that implement {@link
+ * AutoCloseable} are closed after response has been written.
+ *
+ * <p>Converters are write-only; reading of streamed content is not supported.
+ */
+abstract class AbstractStreamingJsonHttpMessageConverter
+    extends AbstractHttpMessageConverter<Object> {
+
+  /**
+   * Property defining number of rows written between flushes of response body.
+   */
+  static final String FLUSH_INTERVAL_PROPERTY = "provys.jackson.streaming.flush-interval";
+  /**
+   * Default number of rows written between flushes of response body.
+   */
+  static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter rowWriter;
+  private final int flushInterval;
+
+  /**
+   * Create converter.
+   *
+   * @param objectMapper        is mapper used to serialise rows
+   * @param flushInterval       is number of rows written between flushes of response body
+   * @param supportedMediaTypes are media types supported by converter
+   */
+  AbstractStreamingJsonHttpMessageConverter(ObjectMapper objectMapper, int flushInterval,
+      MediaType... supportedMediaTypes) {
+    super(supportedMediaTypes);
+    if (flushInterval < 1) {
+      throw new InternalException("Flush interval of streaming converter must be positive");
+    }
+    this.objectMapper = objectMapper;
+    // flushing is controlled by converter, not after each row; rows are always written compact
+    this.rowWriter = objectMapper.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(SerializationFeature.INDENT_OUTPUT);
+    this.flushInterval = flushInterval;
+  }
+
+  /**
+   * Value of field flushInterval.
+   *
+   * @return number of rows written between flushes of response body
+   */
+  int getFlushInterval() {
+    return flushInterval;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return BaseStream.class.isAssignableFrom(clazz) || Iterator.class.isAssignableFrom(clazz)
+        || Spliterator.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException(getClass().getSimpleName()
+        + " does not support reading", inputMessage);
+  }
+
+  private static Iterator<?> getIterator(Object rows) {
+    if (rows instanceof BaseStream) {
+      return ((BaseStream<?, ?>) rows).iterator();
+    }
+    if (rows instanceof Spliterator) {
+      return Spliterators.iterator((Spliterator<?>) rows);
+    }
+    return (Iterator<?>) rows;
+  }
+
+  /**
+   * Write content preceding first row.
+   *
+   * @param generator is generator response is written to
+   * @throws IOException when write fails
+   */
+  abstract void writeStart(JsonGenerator generator) throws IOException;
+
+  /**
+   * Write content following each row.
+   *
+   * @param generator is generator response is written to
+   * @throws IOException when write fails
+   */
+  abstract void writeRowEnd(JsonGenerator generator) throws IOException;
+
+  /**
+   * Write content following last row.
+   *
+   * @param generator is generator response is written to
+   * @throws IOException when write fails
+   */
+  abstract void writeEnd(JsonGenerator generator) throws IOException;
+
+  private void writeRows(Iterator<?> rows, JsonGenerator generator) throws IOException {
+    writeStart(generator);
+    int unflushed = 0;
+    while (rows.hasNext()) {
+      rowWriter.writeValue(generator, rows.next());
+      writeRowEnd(generator);
+      if (++unflushed >= flushInterval) {
+        generator.flush();
+        unflushed = 0;
+      }
+    }
+    writeEnd(generator);
+    generator.flush();
+  }
+
+  /**
+   * Close rows, if they are closeable. If writing has already failed, failure to close rows is
+   * added to original exception as suppressed, so it does not hide cause of failure.
+   *
+   * @param rows    are rows that have been written
+   * @param failure is exception thrown when writing rows, null if they were written successfully
+   * @throws IOException if close fails and there was no previous failure
+   */
+  private static void closeRows(Object rows, @Nullable Throwable failure) throws IOException {
+    if (!(rows instanceof AutoCloseable)) {
+      return;
+    }
+    try {
+      ((AutoCloseable) rows).close();
+    } catch (Exception e) {
+      if (failure != null) {
+        failure.addSuppressed(e);
+      } else if (e instanceof IOException) {
+        throw (IOException) e;
+      } else if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      } else {
+        throw new InternalException("Failed to close streamed rows", e);
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("squid:S1181") // failure is only recorded and rethrown
+  protected void writeInternal(Object rows, HttpOutputMessage outputMessage) throws IOException {
+    Throwable failure = null;
+    try (var generator = objectMapper.getFactory()
+        .createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+      // response stream is closed by container; response broken by failure must not be completed
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+      writeRows(getIterator(rows), generator);
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      closeRows(rows, failure);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.provys.common.spring;
+
+import com.provys.common.exception.ErrorMetrics;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter storing request start time in request attribute {@link
+ * ErrorMetrics#REQUEST_START_ATTRIBUTE}, so {@link ProvysRestExceptionHandler} can record latency
+ * of errors. Servlet equivalent of Jax-Rs {@code ErrorMetricsFilter}; runs before other filters to
+ * include their time in latency.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class ErrorMetricsServletFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    request.setAttribute(ErrorMetrics.REQUEST_START_ATTRIBUTE, System.nanoTime());
+    filterChain.doFilter(request, response);
+  }
+}
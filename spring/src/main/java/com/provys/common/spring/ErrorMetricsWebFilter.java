@@ -0,0 +1,29 @@
+package com.provys.common.spring;
+
+import com.provys.common.exception.ErrorMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux filter storing request start time in exchange attribute {@link
+ * ErrorMetrics#REQUEST_START_ATTRIBUTE}, so {@link ProvysWebExceptionHandler} can record latency of
+ * errors. Reactive equivalent of {@link ErrorMetricsServletFilter}.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class ErrorMetricsWebFilter implements WebFilter {
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    exchange.getAttributes().put(ErrorMetrics.REQUEST_START_ATTRIBUTE, System.nanoTime());
+    return chain.filter(exchange);
+  }
+}
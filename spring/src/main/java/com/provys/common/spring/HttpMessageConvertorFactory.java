@@ -2,19 +2,30 @@ package com.provys.common.spring;
 
 import com.ctc.wstx.api.WstxOutputProperties;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.provys.common.jackson.JacksonMappers;
+import com.provys.common.jackson.StaxImplementation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 
 /**
- * Configures Jackson Xml mapper for use in Spring.
+ * Configures Jackson Xml mapper for use in Spring. StAX implementation used by Xml mapper can be
+ * selected using property {@code provys.jackson.xml.stax-implementation} (WOODSTOX or AALTO).
+ *
+ * <p>Also registers converters that write {@link java.util.stream.Stream}, {@link
+ * java.util.Iterator} and {@link java.util.Spliterator} results incrementally as Json array or
+ * NDJSON, using Provys customised Json mapper. Number of rows written between flushes of response
+ * can be set using property {@code provys.jackson.streaming.flush-interval}.
  */
 @SuppressWarnings("SpringFacetCodeInspection")
 @Configuration
@@ -25,17 +36,47 @@ class HttpMessageConvertorFactory {
   @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
   @Bean
   public MappingJackson2XmlHttpMessageConverter provysJackson2XmlHttpMessageConverter(
-      Jackson2ObjectMapperBuilder builder) {
-    LOG.debug("Customize Jackson XML mapper");
-    XmlMapper mapper = builder.annotationIntrospector(
+      Jackson2ObjectMapperBuilder builder,
+      @Value("${provys.jackson.xml.stax-implementation:WOODSTOX}")
+          StaxImplementation staxImplementation) {
+    LOG.debug("Customize Jackson XML mapper, StAX implementation {}", staxImplementation);
+    builder.annotationIntrospector(
         AnnotationIntrospector
             .pair(new JacksonXmlAnnotationIntrospector(), new JacksonAnnotationIntrospector()))
-        .createXmlMapper(true)
-        .build();
+        .createXmlMapper(true);
+    if (staxImplementation != StaxImplementation.WOODSTOX) {
+      builder.factory(JacksonMappers.createXmlFactory(staxImplementation));
+    }
+    XmlMapper mapper = builder.build();
     mapper.enable(ToXmlGenerator.Feature.WRITE_XML_DECLARATION);
-    mapper.getFactory()
-        .getXMLOutputFactory()
-        .setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
+    var outputFactory = mapper.getFactory().getXMLOutputFactory();
+    if (outputFactory.isPropertySupported(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL)) {
+      outputFactory.setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
+    }
     return new MappingJackson2XmlHttpMessageConverter(mapper);
   }
+
+  @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+  @Bean
+  @Order(0)
+  public JsonArrayHttpMessageConverter provysJsonArrayHttpMessageConverter(
+      ObjectMapper objectMapper,
+      @Value("${" + AbstractStreamingJsonHttpMessageConverter.FLUSH_INTERVAL_PROPERTY + ":"
+          + AbstractStreamingJsonHttpMessageConverter.DEFAULT_FLUSH_INTERVAL + "}")
+          int flushInterval) {
+    LOG.debug("Register streaming Json array converter, flush interval {}", flushInterval);
+    return new JsonArrayHttpMessageConverter(objectMapper, flushInterval);
+  }
+
+  @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+  @Bean
+  @Order(1)
+  public NdjsonHttpMessageConverter provysNdjsonHttpMessageConverter(
+      ObjectMapper objectMapper,
+      @Value("${" + AbstractStreamingJsonHttpMessageConverter.FLUSH_INTERVAL_PROPERTY + ":"
+          + AbstractStreamingJsonHttpMessageConverter.DEFAULT_FLUSH_INTERVAL + "}")
+          int flushInterval) {
+    LOG.debug("Register NDJSON converter, flush interval {}", flushInterval);
+    return new NdjsonHttpMessageConverter(objectMapper, flushInterval);
+  }
 }
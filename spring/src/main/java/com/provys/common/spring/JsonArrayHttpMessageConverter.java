@@ -0,0 +1,39 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.springframework.http.MediaType;
+
+/**
+ * Message converter that writes streamed rows as Json array, serialising and flushing rows
+ * incrementally.
+ */
+class JsonArrayHttpMessageConverter extends AbstractStreamingJsonHttpMessageConverter {
+
+  /**
+   * Create converter.
+   *
+   * @param objectMapper  is mapper used to serialise rows
+   * @param flushInterval is number of rows written between flushes of response body
+   */
+  JsonArrayHttpMessageConverter(ObjectMapper objectMapper, int flushInterval) {
+    super(objectMapper, flushInterval, MediaType.APPLICATION_JSON,
+        new MediaType("application", "*+json"));
+  }
+
+  @Override
+  void writeStart(JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+  }
+
+  @Override
+  void writeRowEnd(JsonGenerator generator) {
+    // separators between array elements are written by generator
+  }
+
+  @Override
+  void writeEnd(JsonGenerator generator) throws IOException {
+    generator.writeEndArray();
+  }
+}
@@ -0,0 +1,44 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.springframework.http.MediaType;
+
+/**
+ * Message converter that writes streamed rows as newline delimited Json (NDJSON) - each row is
+ * written as single line Json value, terminated by newline.
+ */
+class NdjsonHttpMessageConverter extends AbstractStreamingJsonHttpMessageConverter {
+
+  /**
+   * Media type of newline delimited Json.
+   */
+  static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
+  /**
+   * Create converter.
+   *
+   * @param objectMapper  is mapper used to serialise rows
+   * @param flushInterval is number of rows written between flushes of response body
+   */
+  NdjsonHttpMessageConverter(ObjectMapper objectMapper, int flushInterval) {
+    super(objectMapper, flushInterval, APPLICATION_NDJSON);
+  }
+
+  @Override
+  void writeStart(JsonGenerator generator) {
+    // rows are separated by newline written after each row
+    generator.setRootValueSeparator(null);
+  }
+
+  @Override
+  void writeRowEnd(JsonGenerator generator) throws IOException {
+    generator.writeRaw('\n');
+  }
+
+  @Override
+  void writeEnd(JsonGenerator generator) {
+    // last row is terminated by newline, nothing to add
+  }
+}
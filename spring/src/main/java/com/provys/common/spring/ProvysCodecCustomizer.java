@@ -0,0 +1,54 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.provys.common.jackson.JacksonMappers;
+import com.provys.common.jackson.StaxImplementation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configures WebFlux codecs (both server and {@code WebClient}) to use Provys customised Json
+ * mapper and registers Xml codecs based on Provys Xml mapper. Json decoder uses Jackson
+ * non-blocking parser, thus {@link reactor.core.publisher.Flux} input is parsed as data arrive,
+ * without aggregating whole body. StAX implementation used by Xml mapper can be selected using
+ * property {@code provys.jackson.xml.stax-implementation} (WOODSTOX or AALTO). Only registered
+ * when WebFlux is present on classpath.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@Order(1)
+class ProvysCodecCustomizer implements CodecCustomizer {
+
+  private static final Logger LOG = LogManager.getLogger(ProvysCodecCustomizer.class);
+
+  private final ObjectMapper objectMapper;
+  private final XmlMapper xmlMapper;
+
+  @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+  ProvysCodecCustomizer(ObjectMapper objectMapper,
+      @Value("${provys.jackson.xml.stax-implementation:WOODSTOX}")
+          StaxImplementation staxImplementation) {
+    this.objectMapper = objectMapper;
+    this.xmlMapper = JacksonMappers.getXmlMapper(staxImplementation);
+  }
+
+  @Override
+  public void customize(CodecConfigurer configurer) {
+    LOG.debug("Customize WebFlux codecs with PROVYS mappers");
+    var defaultCodecs = configurer.defaultCodecs();
+    defaultCodecs.jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+    defaultCodecs.jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    var customCodecs = configurer.customCodecs();
+    customCodecs.register(new ProvysXmlEncoder(xmlMapper));
+    customCodecs.register(new ProvysXmlDecoder(xmlMapper));
+  }
+}
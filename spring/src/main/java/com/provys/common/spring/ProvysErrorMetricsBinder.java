@@ -0,0 +1,85 @@
+package com.provys.common.spring;
+
+import com.provys.common.exception.ErrorMetrics;
+import com.provys.common.exception.ErrorMetrics.ErrorCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports error counters recorded by Provys exception handlers to Micrometer. Number of errors is
+ * published as counter {@value ERRORS_METER} and latency from start of request to error as timer
+ * {@value LATENCY_METER}, both tagged by internal name of error, Provys status code and http
+ * status. Latency histogram is published as counters {@value LATENCY_BUCKETS_METER} with
+ * additional tag {@code le} holding upper bound of bucket in seconds ({@code +Inf} for the last
+ * one); as in Prometheus histograms, bucket counts are cumulative. Binder is only registered when
+ * Micrometer is present on classpath; Spring Boot binds it to all meter registries.
+ */
+@Component
+@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+class ProvysErrorMetricsBinder implements MeterBinder {
+
+  static final String ERRORS_METER = "provys.errors";
+  static final String LATENCY_METER = "provys.errors.latency";
+  static final String LATENCY_BUCKETS_METER = "provys.errors.latency.buckets";
+  /**
+   * Values of tag {@code le} of latency buckets, in seconds.
+   */
+  private static final String[] BUCKET_BOUNDS = bucketBounds();
+
+  private final ErrorMetrics errorMetrics;
+
+  ProvysErrorMetricsBinder() {
+    this(ErrorMetrics.getDefault());
+  }
+
+  ProvysErrorMetricsBinder(ErrorMetrics errorMetrics) {
+    this.errorMetrics = errorMetrics;
+  }
+
+  private static String[] bucketBounds() {
+    var boundsMillis = ErrorMetrics.getLatencyBoundsMillis();
+    var result = new String[boundsMillis.length + 1];
+    for (int i = 0; i < boundsMillis.length; i++) {
+      result[i] = BigDecimal.valueOf(boundsMillis[i], 3).stripTrailingZeros().toPlainString();
+    }
+    result[boundsMillis.length] = "+Inf";
+    return result;
+  }
+
+  private static void register(MeterRegistry registry, ErrorCounter counter) {
+    var tags = Tags.of(
+        "error", counter.getNameNm(),
+        "status", Integer.toString(counter.getStatusCode()),
+        "http.status", Integer.toString(counter.getHttpStatus()));
+    FunctionCounter.builder(ERRORS_METER, counter, ErrorCounter::getCount)
+        .tags(tags)
+        .description("Errors reported by Provys exception handlers")
+        .register(registry);
+    FunctionTimer.builder(LATENCY_METER, counter, ErrorCounter::getLatencyCount,
+        ErrorCounter::getLatencyTotalNanos, TimeUnit.NANOSECONDS)
+        .tags(tags)
+        .description("Time from start of request to error, if request timing is available")
+        .register(registry);
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      var bucket = i;
+      FunctionCounter.builder(LATENCY_BUCKETS_METER, counter,
+          errorCounter -> errorCounter.getCumulativeLatencyCount(bucket))
+          .tags(tags)
+          .tag("le", BUCKET_BOUNDS[i])
+          .description("Errors with latency up to bound given by tag le")
+          .register(registry);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    errorMetrics.addCounterListener(counter -> register(registry, counter));
+  }
+}
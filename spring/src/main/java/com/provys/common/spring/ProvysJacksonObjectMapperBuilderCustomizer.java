@@ -4,15 +4,20 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlAnnotationIntrospector;
+import com.provys.common.jackson.JacksonMappers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 
 /**
- * Customizes Jackson Json mapper for use in Spring.
+ * Customizes Jackson Json mapper for use in Spring. Performance profile (see {@link
+ * JacksonMappers#tunePerformance(com.fasterxml.jackson.databind.ObjectMapper)}) can be enabled
+ * using property {@code provys.jackson.performance-profile}; it requires Blackbird module on
+ * classpath.
  */
 @Component
 @Order(-5)
@@ -21,6 +26,13 @@ class ProvysJacksonObjectMapperBuilderCustomizer implements Jackson2ObjectMapper
   private static final Logger LOG = LogManager
       .getLogger(ProvysJacksonObjectMapperBuilderCustomizer.class);
 
+  private final boolean performanceProfile;
+
+  ProvysJacksonObjectMapperBuilderCustomizer(
+      @Value("${provys.jackson.performance-profile:false}") boolean performanceProfile) {
+    this.performanceProfile = performanceProfile;
+  }
+
   @Override
   public void customize(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
     LOG.debug("Use PROVYS Object Mapper customizer");
@@ -29,5 +41,9 @@ class ProvysJacksonObjectMapperBuilderCustomizer implements Jackson2ObjectMapper
             .pair(new JacksonAnnotationIntrospector(), new JacksonXmlAnnotationIntrospector()));
     jacksonObjectMapperBuilder.findModulesViaServiceLoader(true);
     jacksonObjectMapperBuilder.serializationInclusion(JsonInclude.Include.NON_EMPTY);
+    if (performanceProfile) {
+      LOG.debug("Apply PROVYS performance profile to Object Mapper");
+      jacksonObjectMapperBuilder.postConfigurer(JacksonMappers::tunePerformance);
+    }
   }
 }
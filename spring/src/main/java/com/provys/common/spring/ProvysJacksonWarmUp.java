@@ -0,0 +1,51 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.provys.common.jackson.JacksonMappers;
+import com.provys.common.types.TypeMapImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares Jackson readers and writers for types registered in default type map when application
+ * context starts, so their construction does not slow down first requests. Both shared Provys
+ * mappers (see {@link JacksonMappers#warmUp(Iterable)}) and Json mapper built by Spring are warmed
+ * up. Warm-up can be disabled using property {@code provys.jackson.warm-up}.
+ */
+@Component
+class ProvysJacksonWarmUp implements SmartInitializingSingleton {
+
+  private static final Logger LOG = LogManager.getLogger(ProvysJacksonWarmUp.class);
+
+  private final ObjectProvider<ObjectMapper> objectMapper;
+  private final boolean enabled;
+
+  ProvysJacksonWarmUp(ObjectProvider<ObjectMapper> objectMapper,
+      @Value("${provys.jackson.warm-up:true}") boolean enabled) {
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      var types = TypeMapImpl.getDefault().getTypes();
+      JacksonMappers.warmUp(types);
+      var mapper = objectMapper.getIfAvailable();
+      if (mapper != null) {
+        JacksonMappers.warmUp(mapper, types);
+      }
+      LOG.debug("Jackson mappers warmed up for {} types", types.size());
+    } catch (RuntimeException e) {
+      // warm-up is only optimisation; failure will be reported again on first use of given type
+      LOG.warn("Warm-up of Jackson mappers failed", e);
+    }
+  }
+}
@@ -1,46 +1,137 @@
 package com.provys.common.spring;
 
+import com.provys.common.exception.ErrorMetrics;
+import com.provys.common.exception.ExceptionLogThrottler;
 import com.provys.common.exception.ProvysException;
+import com.provys.common.exception.StackTraceRenderer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.WebRequest;
 
 /**
  * Exception interceptor for Spring that logs exception and produces error responses in Provys
- * format.
+ * format. Errors are recorded in {@link ErrorMetrics#getDefault()}; latency of error is recorded if
+ * request start time has been stored in request attribute {@link
+ * ErrorMetrics#REQUEST_START_ATTRIBUTE}.
  */
 @ControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET) // WebFlux uses ProvysWebExceptionHandler
 @Order(0)
 class ProvysRestExceptionHandler {
 
   private static final Logger LOG = LogManager.getLogger(ProvysRestExceptionHandler.class);
 
+  /**
+   * Internal name reported for exceptions that are not Provys exceptions.
+   */
+  static final String INTERNAL_EXCEPTION_NM = "INTERNAL_EXCEPTION";
+
+  /**
+   * Format of error response, negotiated based on Accept header.
+   */
+  private enum ResponseFormat {
+    /**
+     * WsError in body, serialised to JSON or XML by container.
+     */
+    BODY,
+    /**
+     * Error message as plain text.
+     */
+    TEXT,
+    /**
+     * Empty body.
+     */
+    EMPTY
+  }
+
+  /**
+   * Maximal number of distinct Accept header values kept in negotiation cache.
+   */
+  private static final int FORMAT_CACHE_SIZE = 256;
+  /**
+   * Cache of negotiated response formats, keyed by Accept header value. Clients send only a few
+   * distinct Accept headers, so parsing is only done once per distinct value; values over the
+   * capacity are negotiated without caching.
+   */
+  private static final Map<String, ResponseFormat> FORMAT_CACHE = new ConcurrentHashMap<>();
+
+  private final StackTraceRenderer stackTraceRenderer;
+
+  /**
+   * Create exception handler. Stack reported in error response can be configured using properties
+   * {@code provys.error.stack.enabled} (set to false in production to omit stack) and
+   * {@code provys.error.stack.max-depth}.
+   *
+   * @param stackEnabled  defines if stack is reported in error response
+   * @param stackMaxDepth is maximal number of frames reported for exception and each of its causes
+   */
+  ProvysRestExceptionHandler(
+      @Value("${" + StackTraceRenderer.ENABLED_PROPERTY + ":true}") boolean stackEnabled,
+      @Value("${" + StackTraceRenderer.MAX_DEPTH_PROPERTY + ":"
+          + StackTraceRenderer.DEFAULT_MAX_DEPTH + "}") int stackMaxDepth) {
+    this.stackTraceRenderer = new StackTraceRenderer(stackEnabled, stackMaxDepth);
+  }
+
+  private static ResponseFormat negotiateFormat(List<MediaType> acceptHeader) {
+    if (acceptHeader.stream().anyMatch(
+        mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || mediaType
+            .isCompatibleWith(MediaType.APPLICATION_XML))) {
+      // JSON and XML are handled properly by container
+      return ResponseFormat.BODY;
+    }
+    if (acceptHeader.stream()
+        .anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.TEXT_PLAIN))) {
+      return ResponseFormat.TEXT;
+    }
+    return ResponseFormat.EMPTY;
+  }
+
+  private static ResponseFormat getFormat(String[] requestHeaders) {
+    var key = (requestHeaders.length == 1) ? requestHeaders[0] : String.join(",", requestHeaders);
+    var format = FORMAT_CACHE.get(key);
+    if (format == null) {
+      format = negotiateFormat(MediaType.parseMediaTypes(Arrays.asList(requestHeaders)));
+      if (FORMAT_CACHE.size() < FORMAT_CACHE_SIZE) {
+        FORMAT_CACHE.put(key, format);
+      }
+    }
+    return format;
+  }
+
+  private static long getLatency(WebRequest request) {
+    return ErrorMetrics.latencySince(request
+        .getAttribute(ErrorMetrics.REQUEST_START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+  }
+
   private static ResponseEntity<Object> buildResponse(WebRequest request, WsError error,
       int status) {
     var requestHeaders = request.getHeaderValues(HttpHeaders.ACCEPT);
     var response = ResponseEntity
         .status(status);
     if (requestHeaders != null) {
-      List<MediaType> acceptHeader = MediaType.parseMediaTypes(Arrays.asList(requestHeaders));
-      if (acceptHeader.stream().anyMatch(
-          mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || mediaType
-              .isCompatibleWith(MediaType.APPLICATION_XML))) {
-        // JSON and XML are handled properly by container
-        return response.body(error);
-      }
-      if (acceptHeader.stream()
-          .anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.TEXT_PLAIN))) {
-        return response
-            .contentType(MediaType.TEXT_PLAIN)
-            .body(error.getMessage());
+      switch (getFormat(requestHeaders)) {
+        case BODY:
+          return response.body(error);
+        case TEXT:
+          return response
+              .contentType(MediaType.TEXT_PLAIN)
+              .body(error.getMessage());
+        default:
+          break;
       }
     }
     return response.body(null);
@@ -52,16 +143,19 @@ class ProvysRestExceptionHandler {
 
   @ExceptionHandler(ProvysException.class)
   public ResponseEntity<Object> handleProvysException(ProvysException e, WebRequest request) {
-    LOG.error("Unhandled Provys exception", e);
-    return buildResponse(request, new WsError(e.getStatusCode(), e.getNameNm(), e.getMessage(),
-        Arrays.toString(e.getStackTrace())), e.getHttpStatus());
+    ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled Provys exception", e);
+    ErrorMetrics.getDefault().record(e, getLatency(request));
+    return buildResponse(request, WsError.ofThrowable(e.getStatusCode(), e.getNameNm(),
+        e.getMessage(), e, stackTraceRenderer), e.getHttpStatus());
   }
 
   @ExceptionHandler(Throwable.class)
   public ResponseEntity<Object> handleGenericException(Throwable e, WebRequest request) {
-    LOG.error("Unhandled exception", e);
+    ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled exception", e);
+    ErrorMetrics.getDefault().record(INTERNAL_EXCEPTION_NM, ProvysException.STATUS_CODE,
+        ProvysException.HTTP_STATUS, getLatency(request));
     return buildResponse(request,
-        new WsError(ProvysException.STATUS_CODE, "INTERNAL_EXCEPTION", e.getMessage(),
-            Arrays.toString(e.getStackTrace())));
+        WsError.ofThrowable(ProvysException.STATUS_CODE, INTERNAL_EXCEPTION_NM, e.getMessage(), e,
+            stackTraceRenderer));
   }
 }
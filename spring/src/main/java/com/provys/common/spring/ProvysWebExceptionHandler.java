@@ -0,0 +1,139 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.provys.common.exception.ErrorMetrics;
+import com.provys.common.exception.ExceptionLogThrottler;
+import com.provys.common.exception.ProvysException;
+import com.provys.common.exception.StackTraceRenderer;
+import com.provys.common.jackson.JacksonMappers;
+import com.provys.common.jackson.StaxImplementation;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exception handler for Spring WebFlux that logs exception and produces error responses in Provys
+ * format; reactive equivalent of {@link ProvysRestExceptionHandler}. Exceptions that carry http
+ * status ({@link ResponseStatusException}, e.g. resource not found) are left to default handler.
+ * Errors are recorded in {@link ErrorMetrics#getDefault()}; latency of error is recorded if request
+ * start time has been stored in exchange attribute {@link ErrorMetrics#REQUEST_START_ATTRIBUTE}.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Order(-2) // before Spring Boot default error handler
+class ProvysWebExceptionHandler implements WebExceptionHandler {
+
+  private static final Logger LOG = LogManager.getLogger(ProvysWebExceptionHandler.class);
+
+  private final ObjectMapper objectMapper;
+  private final XmlMapper xmlMapper;
+  private final StackTraceRenderer stackTraceRenderer;
+
+  /**
+   * Create exception handler. Stack reported in error response can be configured using properties
+   * {@code provys.error.stack.enabled} and {@code provys.error.stack.max-depth}. Xml error response
+   * is written using the same mapper as WebFlux codecs, selected by property
+   * {@code provys.jackson.xml.stax-implementation}.
+   *
+   * @param objectMapper       is Json mapper used to write error response
+   * @param staxImplementation is StAX implementation used to write Xml error response
+   * @param stackEnabled       defines if stack is reported in error response
+   * @param stackMaxDepth      is maximal number of frames reported for exception and each of its
+   *                           causes
+   */
+  @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+  ProvysWebExceptionHandler(ObjectMapper objectMapper,
+      @Value("${provys.jackson.xml.stax-implementation:WOODSTOX}")
+          StaxImplementation staxImplementation,
+      @Value("${" + StackTraceRenderer.ENABLED_PROPERTY + ":true}") boolean stackEnabled,
+      @Value("${" + StackTraceRenderer.MAX_DEPTH_PROPERTY + ":"
+          + StackTraceRenderer.DEFAULT_MAX_DEPTH + "}") int stackMaxDepth) {
+    this.objectMapper = objectMapper;
+    this.xmlMapper = JacksonMappers.getXmlMapper(staxImplementation);
+    this.stackTraceRenderer = new StackTraceRenderer(stackEnabled, stackMaxDepth);
+  }
+
+  private static boolean accepts(List<MediaType> acceptHeader, MediaType mediaType) {
+    return acceptHeader.stream().anyMatch(accepted -> accepted.isCompatibleWith(mediaType));
+  }
+
+  private @Nullable MediaType negotiateContentType(List<MediaType> acceptHeader) {
+    if (accepts(acceptHeader, MediaType.APPLICATION_JSON)) {
+      return MediaType.APPLICATION_JSON;
+    }
+    if (accepts(acceptHeader, MediaType.APPLICATION_XML)) {
+      return MediaType.APPLICATION_XML;
+    }
+    if (accepts(acceptHeader, MediaType.TEXT_PLAIN)) {
+      return MediaType.TEXT_PLAIN;
+    }
+    return null;
+  }
+
+  private byte[] getBody(WsError error, MediaType contentType) throws JsonProcessingException {
+    if (contentType.equals(MediaType.APPLICATION_JSON)) {
+      return objectMapper.writeValueAsBytes(error);
+    }
+    if (contentType.equals(MediaType.APPLICATION_XML)) {
+      return xmlMapper.writeValueAsBytes(error);
+    }
+    var message = error.getMessage();
+    return (message == null) ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private Mono<Void> writeResponse(ServerWebExchange exchange, WsError error, int httpStatus) {
+    var response = exchange.getResponse();
+    response.setStatusCode(HttpStatus.valueOf(httpStatus));
+    var contentType = negotiateContentType(exchange.getRequest().getHeaders().getAccept());
+    if (contentType == null) {
+      return response.setComplete();
+    }
+    byte[] body;
+    try {
+      body = getBody(error, contentType);
+    } catch (JsonProcessingException e) {
+      return Mono.error(e);
+    }
+    response.getHeaders().setContentType(contentType);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+  }
+
+  @Override
+  public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+    if ((ex instanceof ResponseStatusException) || exchange.getResponse().isCommitted()) {
+      return Mono.error(ex);
+    }
+    var latency = ErrorMetrics.latencySince(
+        exchange.getAttribute(ErrorMetrics.REQUEST_START_ATTRIBUTE));
+    if (ex instanceof ProvysException) {
+      var e = (ProvysException) ex;
+      ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled Provys exception", e);
+      ErrorMetrics.getDefault().record(e, latency);
+      return writeResponse(exchange, WsError.ofThrowable(e.getStatusCode(), e.getNameNm(),
+          e.getMessage(), e, stackTraceRenderer), e.getHttpStatus());
+    }
+    ExceptionLogThrottler.getDefault().logError(LOG, "Unhandled exception", ex);
+    ErrorMetrics.getDefault().record(ProvysRestExceptionHandler.INTERNAL_EXCEPTION_NM,
+        ProvysException.STATUS_CODE, ProvysException.HTTP_STATUS, latency);
+    return writeResponse(exchange,
+        WsError.ofThrowable(ProvysException.STATUS_CODE,
+            ProvysRestExceptionHandler.INTERNAL_EXCEPTION_NM, ex.getMessage(), ex,
+            stackTraceRenderer),
+        ProvysException.HTTP_STATUS);
+  }
+}
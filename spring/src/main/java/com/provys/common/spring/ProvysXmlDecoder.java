@@ -0,0 +1,40 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * WebFlux decoder reading Xml using Provys Xml mapper. Jackson does not offer non-blocking Xml
+ * parser, thus content is always aggregated (subject to in-memory size limit) and parsed once
+ * complete. When decoding {@link Flux}, document is read as list (children of root element) and
+ * its items are emitted; no streaming takes place.
+ */
+class ProvysXmlDecoder extends AbstractJackson2Decoder {
+
+  /**
+   * Create decoder using supplied Xml mapper.
+   *
+   * @param xmlMapper is mapper used to read values
+   */
+  ProvysXmlDecoder(XmlMapper xmlMapper) {
+    super(xmlMapper, MediaType.APPLICATION_XML, MediaType.TEXT_XML,
+        new MediaType("application", "*+xml"));
+  }
+
+  @Override
+  public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+      @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+    var listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+    return decodeToMono(input, listType, mimeType, hints)
+        .flatMapIterable(list -> (List<?>) list);
+  }
+}
@@ -0,0 +1,47 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux encoder writing values as Xml using Provys Xml mapper. Xml document has single root
+ * element, thus values of {@link Flux} are collected and written as single list rather than
+ * streamed.
+ */
+class ProvysXmlEncoder extends AbstractJackson2Encoder {
+
+  /**
+   * Create encoder using supplied Xml mapper.
+   *
+   * @param xmlMapper is mapper used to write values
+   */
+  ProvysXmlEncoder(XmlMapper xmlMapper) {
+    super(xmlMapper, MediaType.APPLICATION_XML, MediaType.TEXT_XML,
+        new MediaType("application", "*+xml"));
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+      ResolvableType elementType, @Nullable MimeType mimeType,
+      @Nullable Map<String, Object> hints) {
+    if (inputStream instanceof Mono) {
+      return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+    var listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+    return Flux.from(inputStream)
+        .collectList()
+        .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+        .flux();
+  }
+}
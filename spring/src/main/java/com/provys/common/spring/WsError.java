@@ -4,9 +4,13 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonRootName;
+import com.provys.common.exception.StackTraceRenderer;
 import java.util.Objects;
-import javax.annotation.concurrent.Immutable;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -21,7 +25,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
     creatorVisibility = Visibility.NONE
 )
 @JsonRootName("ERRORSTATUS")
-@Immutable
+@JsonPropertyOrder({"STATUS", "ERROR_NM", "ERRORMESSAGE", "ERRORSTACK"})
+@ThreadSafe
 public class WsError {
 
   @JsonProperty("STATUS")
@@ -30,8 +35,16 @@ public class WsError {
   private final @Nullable String errorNm;
   @JsonProperty("ERRORMESSAGE")
   private final @Nullable String message;
-  @JsonProperty("ERRORSTACK")
-  private final @Nullable String stack;
+  /**
+   * Error stack; rendered lazily if stack supplier is present.
+   */
+  @GuardedBy("this")
+  private @Nullable String stack;
+  /**
+   * Supplier of error stack, cleared once stack has been rendered.
+   */
+  @GuardedBy("this")
+  private @Nullable Supplier<? extends @Nullable String> stackSupplier;
 
   /**
    * Private constructor used for JAXB deserialization; preferably Jackson is used and it is not
@@ -63,6 +76,35 @@ public class WsError {
     this.stack = stack;
   }
 
+  private WsError(int status, @Nullable String errorNm, @Nullable String message,
+      Supplier<? extends @Nullable String> stackSupplier) {
+    this.status = status;
+    this.errorNm = errorNm;
+    this.message = message;
+    this.stack = null;
+    this.stackSupplier = stackSupplier;
+  }
+
+  /**
+   * Create error for given exception. Stack is rendered lazily - only when it is actually
+   * serialized to response or otherwise read, and it is not rendered at all if renderer is
+   * disabled.
+   *
+   * @param status    is reported error status
+   * @param errorNm   is internal name of error
+   * @param message   is error message
+   * @param throwable is exception whose stack should be reported
+   * @param renderer  is renderer used to render exception stack
+   * @return error for given exception
+   */
+  public static WsError ofThrowable(int status, @Nullable String errorNm, @Nullable String message,
+      Throwable throwable, StackTraceRenderer renderer) {
+    if (!renderer.isEnabled()) {
+      return new WsError(status, errorNm, message, (String) null);
+    }
+    return new WsError(status, errorNm, message, () -> renderer.render(throwable));
+  }
+
   /**
    * Value of property status.
    *
@@ -95,7 +137,13 @@ public class WsError {
    *
    * @return value of property stack
    */
-  public @Nullable String getStack() {
+  @JsonProperty("ERRORSTACK")
+  public synchronized @Nullable String getStack() {
+    var supplier = stackSupplier;
+    if (supplier != null) {
+      stack = supplier.get();
+      stackSupplier = null;
+    }
     return stack;
   }
 
@@ -111,7 +159,7 @@ public class WsError {
     return status == wsError.status
         && Objects.equals(errorNm, wsError.errorNm)
         && Objects.equals(message, wsError.message)
-        && Objects.equals(stack, wsError.stack);
+        && Objects.equals(getStack(), wsError.getStack());
   }
 
   @Override
@@ -119,7 +167,8 @@ public class WsError {
     int result = status;
     result = 31 * result + (errorNm != null ? errorNm.hashCode() : 0);
     result = 31 * result + (message != null ? message.hashCode() : 0);
-    result = 31 * result + (stack != null ? stack.hashCode() : 0);
+    var stackValue = getStack();
+    result = 31 * result + (stackValue != null ? stackValue.hashCode() : 0);
     return result;
   }
 
@@ -129,7 +178,7 @@ public class WsError {
         + "status=" + status
         + ", errorNm='" + errorNm + '\''
         + ", message='" + message + '\''
-        + ", stack='" + stack + '\''
+        + ", stack='" + getStack() + '\''
         + '}';
   }
 }
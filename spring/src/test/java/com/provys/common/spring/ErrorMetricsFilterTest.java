@@ -0,0 +1,34 @@
+package com.provys.common.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provys.common.exception.ErrorMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class ErrorMetricsFilterTest {
+
+  @Test
+  void servletFilterTest() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/test");
+    var before = System.nanoTime();
+    new ErrorMetricsServletFilter().doFilter(request, new MockHttpServletResponse(),
+        new MockFilterChain());
+    assertThat(request.getAttribute(ErrorMetrics.REQUEST_START_ATTRIBUTE))
+        .isInstanceOfSatisfying(Long.class, start -> assertThat(start - before).isNotNegative());
+  }
+
+  @Test
+  void webFilterTest() {
+    var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/test"));
+    var before = System.nanoTime();
+    new ErrorMetricsWebFilter().filter(exchange, filterExchange -> Mono.empty()).block();
+    assertThat(exchange.<Object>getAttribute(ErrorMetrics.REQUEST_START_ATTRIBUTE))
+        .isInstanceOfSatisfying(Long.class, start -> assertThat(start - before).isNotNegative());
+  }
+}
@@ -0,0 +1,77 @@
+package com.provys.common.spring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.MOCK,
+    classes = TestApplication.class,
+    properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class ProvysCodecCustomizerIT {
+
+  private static final String XML_VALUES = "<VALUES><VALUE><NAME>A</NAME><VALUE>1</VALUE></VALUE>"
+      + "<VALUE><NAME>B</NAME><VALUE>2</VALUE></VALUE>"
+      + "<VALUE><NAME>C</NAME><VALUE>3</VALUE></VALUE></VALUES>";
+  private final WebTestClient webTestClient;
+
+  @Autowired
+  ProvysCodecCustomizerIT(WebTestClient webTestClient) {
+    this.webTestClient = webTestClient;
+  }
+
+  @Test
+  void echoJsonTest() {
+    webTestClient.post().uri("/reactive/echo")
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"NAME\":\"A\",\"VALUE\":1}")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+        .expectBody().json("{\"NAME\":\"A\",\"VALUE\":1}");
+  }
+
+  @Test
+  void echoXmlTest() {
+    webTestClient.post().uri("/reactive/echo")
+        .contentType(MediaType.APPLICATION_XML)
+        .accept(MediaType.APPLICATION_XML)
+        .bodyValue("<VALUE><NAME>A</NAME><VALUE>1</VALUE></VALUE>")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_XML)
+        .expectBody()
+        .xpath("VALUE/NAME").isEqualTo("A")
+        .xpath("VALUE/VALUE").isEqualTo(1d);
+  }
+
+  @Test
+  void sumJsonTest() {
+    webTestClient.post().uri("/reactive/sum")
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON)
+        .bodyValue("[{\"NAME\":\"A\",\"VALUE\":1},{\"NAME\":\"B\",\"VALUE\":2},"
+            + "{\"NAME\":\"C\",\"VALUE\":3}]")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().json("{\"NAME\":\"SUM\",\"VALUE\":6}");
+  }
+
+  @Test
+  void sumXmlTest() {
+    // Flux input is decoded by ProvysXmlDecoder as list of root element children
+    webTestClient.post().uri("/reactive/sum")
+        .contentType(MediaType.APPLICATION_XML)
+        .accept(MediaType.APPLICATION_JSON)
+        .bodyValue(XML_VALUES)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().json("{\"NAME\":\"SUM\",\"VALUE\":6}");
+  }
+}
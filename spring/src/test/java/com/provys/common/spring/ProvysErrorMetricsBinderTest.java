@@ -0,0 +1,44 @@
+package com.provys.common.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provys.common.exception.ErrorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ProvysErrorMetricsBinderTest {
+
+  private static final String ERROR_TAG = "error";
+  private static final String TEST_ERROR = "TEST_ERROR";
+
+  private static double getBucketCount(MeterRegistry registry, String bound) {
+    return registry.get(ProvysErrorMetricsBinder.LATENCY_BUCKETS_METER)
+        .tag(ERROR_TAG, TEST_ERROR)
+        .tag("le", bound)
+        .functionCounter().count();
+  }
+
+  @Test
+  void bindToTest() {
+    var errorMetrics = new ErrorMetrics();
+    var registry = new SimpleMeterRegistry();
+    new ProvysErrorMetricsBinder(errorMetrics).bindTo(registry);
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofMillis(3).toNanos());
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofMillis(40).toNanos());
+    errorMetrics.record(TEST_ERROR, -1, 500, Duration.ofSeconds(20).toNanos());
+    errorMetrics.record(TEST_ERROR, -1, 500, ErrorMetrics.UNKNOWN_LATENCY);
+    assertThat(registry.get(ProvysErrorMetricsBinder.ERRORS_METER).tag(ERROR_TAG, TEST_ERROR)
+        .functionCounter().count()).isEqualTo(4);
+    assertThat(registry.get(ProvysErrorMetricsBinder.LATENCY_METER).tag(ERROR_TAG, TEST_ERROR)
+        .functionTimer().count()).isEqualTo(3);
+    assertThat(getBucketCount(registry, "0.005")).isEqualTo(1);
+    assertThat(getBucketCount(registry, "0.05")).isEqualTo(2);
+    assertThat(getBucketCount(registry, "10")).isEqualTo(2);
+    assertThat(getBucketCount(registry, "+Inf")).isEqualTo(3);
+    assertThat(registry.get(ProvysErrorMetricsBinder.LATENCY_BUCKETS_METER)
+        .tag(ERROR_TAG, TEST_ERROR).functionCounters())
+        .hasSize(ErrorMetrics.getLatencyBoundsMillis().length + 1);
+  }
+}
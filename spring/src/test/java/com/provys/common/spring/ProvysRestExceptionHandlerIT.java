@@ -1,10 +1,13 @@
 package com.provys.common.spring;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.xpath;
 
+import com.provys.common.exception.ErrorMetrics;
+import com.provys.common.exception.ErrorMetrics.ErrorCounter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -55,4 +58,30 @@ class ProvysRestExceptionHandlerIT {
         .andExpect(status().is(500))
         .andExpect(content().string("TEST_ERROR: Exception thrown."));
   }
-}
\ No newline at end of file
+
+  private static long getErrorCount() {
+    return ErrorMetrics.getDefault().getCounters().stream()
+        .filter(counter -> counter.getNameNm().equals("TEST_ERROR"))
+        .mapToLong(ErrorCounter::getCount)
+        .sum();
+  }
+
+  private static long getErrorLatencyCount() {
+    return ErrorMetrics.getDefault().getCounters().stream()
+        .filter(counter -> counter.getNameNm().equals("TEST_ERROR"))
+        .mapToLong(ErrorCounter::getLatencyCount)
+        .sum();
+  }
+
+  @Test
+  void throwExceptionErrorMetricsTest() throws Exception {
+    var before = getErrorCount();
+    var latencyBefore = getErrorLatencyCount();
+    mockMvc
+        .perform(get(THROW_URL).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().is(500));
+    assertThat(getErrorCount()).isEqualTo(before + 1);
+    // request start is stored by ErrorMetricsServletFilter, thus latency is recorded as well
+    assertThat(getErrorLatencyCount()).isEqualTo(latencyBefore + 1);
+  }
+}
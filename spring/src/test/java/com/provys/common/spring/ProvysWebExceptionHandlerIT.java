@@ -0,0 +1,85 @@
+package com.provys.common.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provys.common.exception.ErrorMetrics;
+import com.provys.common.exception.ErrorMetrics.ErrorCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.MOCK,
+    classes = TestApplication.class,
+    properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class ProvysWebExceptionHandlerIT {
+
+  private static final String THROW_URL = "/exception/throw/TEST_ERROR";
+  private final WebTestClient webTestClient;
+
+  @Autowired
+  ProvysWebExceptionHandlerIT(WebTestClient webTestClient) {
+    this.webTestClient = webTestClient;
+  }
+
+  @Test
+  void throwExceptionJsonTest() {
+    webTestClient.get().uri(THROW_URL).accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isEqualTo(500)
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+        .expectBody().json("{\"STATUS\":-1,\"ERROR_NM\":\"TEST_ERROR\","
+            + "\"ERRORMESSAGE\":\"TEST_ERROR: Exception thrown.\"}");
+  }
+
+  @Test
+  void throwExceptionXmlTest() {
+    webTestClient.get().uri(THROW_URL).accept(MediaType.APPLICATION_XML)
+        .exchange()
+        .expectStatus().isEqualTo(500)
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_XML)
+        .expectBody()
+        .xpath("ERRORSTATUS/STATUS").isEqualTo(-1d)
+        .xpath("ERRORSTATUS/ERROR_NM").isEqualTo("TEST_ERROR")
+        .xpath("ERRORSTATUS/ERRORMESSAGE").isEqualTo("TEST_ERROR: Exception thrown.");
+  }
+
+  @Test
+  void throwExceptionTextTest() {
+    webTestClient.get().uri(THROW_URL).accept(MediaType.TEXT_PLAIN)
+        .exchange()
+        .expectStatus().isEqualTo(500)
+        .expectBody(String.class).isEqualTo("TEST_ERROR: Exception thrown.");
+  }
+
+  private static long getErrorCount() {
+    return ErrorMetrics.getDefault().getCounters().stream()
+        .filter(counter -> counter.getNameNm().equals("TEST_ERROR"))
+        .mapToLong(ErrorCounter::getCount)
+        .sum();
+  }
+
+  private static long getErrorLatencyCount() {
+    return ErrorMetrics.getDefault().getCounters().stream()
+        .filter(counter -> counter.getNameNm().equals("TEST_ERROR"))
+        .mapToLong(ErrorCounter::getLatencyCount)
+        .sum();
+  }
+
+  @Test
+  void throwExceptionErrorMetricsTest() {
+    var before = getErrorCount();
+    var latencyBefore = getErrorLatencyCount();
+    webTestClient.get().uri(THROW_URL).accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isEqualTo(500);
+    assertThat(getErrorCount()).isEqualTo(before + 1);
+    // request start is stored by ErrorMetricsWebFilter, thus latency is recorded as well
+    assertThat(getErrorLatencyCount()).isEqualTo(latencyBefore + 1);
+  }
+}
@@ -0,0 +1,87 @@
+package com.provys.common.spring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.provys.common.jackson.JacksonMappers;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class StreamingJsonHttpMessageConverterTest {
+
+  private static final List<Object> ROWS = List.of(Map.of("A", 1), "B", List.of(1, 2));
+
+  @Test
+  void canWriteTest() {
+    var converter = new JsonArrayHttpMessageConverter(JacksonMappers.getJsonMapper(), 1);
+    assertThat(converter.canWrite(Stream.empty().getClass(), MediaType.APPLICATION_JSON))
+        .isTrue();
+    assertThat(converter.canWrite(ROWS.iterator().getClass(), MediaType.APPLICATION_JSON))
+        .isTrue();
+    assertThat(converter.canWrite(ROWS.getClass(), MediaType.APPLICATION_JSON)).isFalse();
+    assertThat(converter.canRead(Stream.class, MediaType.APPLICATION_JSON)).isFalse();
+  }
+
+  @Test
+  void writeJsonArrayTest() throws IOException {
+    var converter = new JsonArrayHttpMessageConverter(JacksonMappers.getJsonMapper(), 2);
+    var outputMessage = new MockHttpOutputMessage();
+    converter.write(ROWS.stream(), MediaType.APPLICATION_JSON, outputMessage);
+    assertThat(outputMessage.getBodyAsString()).isEqualTo("[{\"A\":1},\"B\",[1,2]]");
+  }
+
+  @Test
+  void writeNdjsonTest() throws IOException {
+    var converter = new NdjsonHttpMessageConverter(JacksonMappers.getJsonMapper(), 2);
+    var outputMessage = new MockHttpOutputMessage();
+    converter.write(ROWS.iterator(), NdjsonHttpMessageConverter.APPLICATION_NDJSON,
+        outputMessage);
+    assertThat(outputMessage.getBodyAsString()).isEqualTo("{\"A\":1}\n\"B\"\n[1,2]\n");
+    assertThat(outputMessage.getHeaders().getContentType())
+        .isEqualTo(NdjsonHttpMessageConverter.APPLICATION_NDJSON);
+  }
+
+  @Test
+  void writeClosesStreamTest() throws IOException {
+    var converter = new NdjsonHttpMessageConverter(JacksonMappers.getJsonMapper(), 1);
+    var closed = new AtomicBoolean();
+    converter.write(ROWS.stream().onClose(() -> closed.set(true)), null,
+        new MockHttpOutputMessage());
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void writeCloseFailureSuppressedTest() {
+    var converter = new NdjsonHttpMessageConverter(JacksonMappers.getJsonMapper(), 1);
+    var rows = Stream.<Object>of("A", "B")
+        .peek(row -> {
+          throw new IllegalStateException("Write failure");
+        })
+        .onClose(() -> {
+          throw new IllegalArgumentException("Close failure");
+        });
+    assertThatThrownBy(() -> converter.write(rows, null, new MockHttpOutputMessage()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Write failure")
+        .satisfies(e -> assertThat(e.getSuppressed())
+            .hasSize(1)
+            .hasOnlyElementsOfType(IllegalArgumentException.class));
+  }
+
+  @Test
+  void writeCloseFailureTest() {
+    var converter = new NdjsonHttpMessageConverter(JacksonMappers.getJsonMapper(), 1);
+    var rows = ROWS.stream().onClose(() -> {
+      throw new IllegalArgumentException("Close failure");
+    });
+    assertThatThrownBy(() -> converter.write(rows, null, new MockHttpOutputMessage()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Close failure");
+  }
+}
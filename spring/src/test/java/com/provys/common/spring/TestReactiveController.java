@@ -0,0 +1,31 @@
+package com.provys.common.spring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping(value = "/reactive",
+    consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE},
+    produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+class TestReactiveController {
+
+  @PostMapping("/echo")
+  public Mono<TestValue> echo(@RequestBody Mono<TestValue> value) {
+    return value;
+  }
+
+  @PostMapping("/sum")
+  public Mono<TestValue> sum(@RequestBody Flux<TestValue> values) {
+    return values
+        .reduce(new TestValue("SUM", 0),
+            (sum, value) -> new TestValue("SUM", sum.getValue() + value.getValue()));
+  }
+}
@@ -0,0 +1,28 @@
+package com.provys.common.spring;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRootName;
+
+@JsonRootName("VALUE")
+final class TestValue {
+
+  @JsonProperty("NAME")
+  private final String name;
+  @JsonProperty("VALUE")
+  private final int value;
+
+  @JsonCreator
+  TestValue(@JsonProperty("NAME") String name, @JsonProperty("VALUE") int value) {
+    this.name = name;
+    this.value = value;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  int getValue() {
+    return value;
+  }
+}
@@ -1,6 +1,7 @@
 package com.provys.common.spring;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.provys.common.exception.StackTraceRenderer;
 import com.provys.common.jackson.JacksonMappers;
 import org.junit.jupiter.api.Test;
 
@@ -67,4 +68,26 @@ class WsErrorTest {
     assertThat(JacksonMappers.getXmlMapper().readValue(SAMPLE2_XML, WsError.class))
         .isEqualTo(SAMPLE2_VALUE);
   }
-}
\ No newline at end of file
+
+  @Test
+  void ofThrowableTest() throws JsonProcessingException {
+    var exception = new IllegalStateException("Test exception",
+        new IllegalArgumentException("Cause"));
+    var value = WsError.ofThrowable(-1, "TEST_ERROR", "Test error instance", exception,
+        new StackTraceRenderer(true, 2));
+    assertThat(value.getStack())
+        .startsWith("at " + exception.getStackTrace()[0] + "\nat ")
+        .contains("\nCaused by: java.lang.IllegalArgumentException: Cause\n");
+    assertThat(JacksonMappers.getJsonMapper().writeValueAsString(value))
+        .contains("\"ERRORSTACK\":\"at ");
+  }
+
+  @Test
+  void ofThrowableDisabledTest() throws JsonProcessingException {
+    var value = WsError.ofThrowable(-1, "TEST_ERROR", "Test error instance",
+        new IllegalStateException("Test exception"), new StackTraceRenderer(false, 2));
+    assertThat(JacksonMappers.getJsonMapper().writeValueAsString(value))
+        .isEqualTo("{\"STATUS\":-1,\"ERROR_NM\":\"TEST_ERROR\","
+            + "\"ERRORMESSAGE\":\"Test error instance\"}");
+  }
+}